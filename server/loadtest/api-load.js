@@ -0,0 +1,45 @@
+// k6 load profile for the read-heavy dashboard endpoints.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e EMAIL=... -e PASSWORD=... loadtest/api-load.js
+//
+// compare-threading.sh runs this against platform and virtual-thread mode.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+
+export const options = {
+    scenarios: {
+        dashboards: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: Number(__ENV.VUS || 200) },
+                { duration: __ENV.HOLD || '2m', target: Number(__ENV.VUS || 200) },
+                { duration: '15s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    const res = http.post(`${BASE_URL}/api/v1/auth/login`,
+        JSON.stringify({ email: __ENV.EMAIL, password: __ENV.PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    check(res, { 'logged in': (r) => r.status === 200 });
+    return { token: res.json('token') };
+}
+
+export default function (data) {
+    const params = { headers: { Authorization: `Bearer ${data.token}` } };
+    const responses = http.batch([
+        ['GET', `${BASE_URL}/api/v1/crm/page?limit=50`, null, params],
+        ['GET', `${BASE_URL}/api/v1/tasks/my-tasks`, null, params],
+        ['GET', `${BASE_URL}/api/v1/meetings/all`, null, params],
+    ]);
+    responses.forEach((r) => check(r, { 'status 200': (res) => res.status === 200 }));
+}
@@ -0,0 +1,45 @@
+#!/usr/bin/env sh
+# Runs the k6 profile against the packaged jar twice, once with platform threads
+# and once with the "virtual" profile, then prints throughput and latency side by side.
+#
+#   ./loadtest/compare-threading.sh target/backend-1.0.0.jar
+#
+# Needs: a Java 21 runtime, k6, jq, the usual DB/JWT/MAIL environment variables and
+# EMAIL/PASSWORD of an existing user.
+set -eu
+
+JAR="${1:-target/backend-1.0.0.jar}"
+PORT="${SERVER_PORT:-8080}"
+BASE_PROFILE="${BASE_PROFILE:-prod}"
+OUT_DIR="${OUT_DIR:-target/loadtest}"
+mkdir -p "$OUT_DIR"
+
+run_mode() {
+    mode="$1"
+    profiles="$BASE_PROFILE"
+    [ "$mode" = "virtual" ] && profiles="$BASE_PROFILE,virtual"
+
+    java -jar "$JAR" --spring.profiles.active="$profiles" --server.port="$PORT" > "$OUT_DIR/$mode.log" 2>&1 &
+    pid=$!
+    trap 'kill $pid 2>/dev/null || true' EXIT
+
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+
+    k6 run --quiet -e BASE_URL="http://localhost:$PORT" --summary-export "$OUT_DIR/$mode.json" loadtest/api-load.js
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+run_mode platform
+run_mode virtual
+
+printf '%-10s %12s %10s %10s\n' mode req/s p95_ms p99_ms
+for mode in platform virtual; do
+    jq -r --arg mode "$mode" '[$mode,
+        (.metrics.http_reqs.rate | floor),
+        (.metrics.http_req_duration["p(95)"] | floor),
+        (.metrics.http_req_duration["p(99)"] | floor)] | @tsv' "$OUT_DIR/$mode.json" |
+        awk '{ printf "%-10s %12s %10s %10s\n", $1, $2, $3, $4 }'
+done
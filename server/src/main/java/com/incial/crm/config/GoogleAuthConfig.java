@@ -0,0 +1,46 @@
+package com.incial.crm.config;
+
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+
+/**
+ * One verifier for the whole application. The public keys manager caches Google's
+ * signing certificates for as long as their Cache-Control max-age allows, and the
+ * transport keeps its connection pool, so sign-ins no longer pay for a certificate
+ * download and TLS handshake each time.
+ */
+@Slf4j
+@Configuration
+public class GoogleAuthConfig {
+
+    @Bean
+    public HttpTransport googleHttpTransport() {
+        return new NetHttpTransport();
+    }
+
+    /**
+     * Verifies ID token signatures against Google's certificates. Point
+     * google.auth.certs-url at a local server to verify tokens offline (tests,
+     * air-gapped environments).
+     */
+    @Bean
+    public RotatingGoogleIdTokenVerifier googleIdTokenVerifier(
+            HttpTransport googleHttpTransport,
+            @Value("${google.auth.certs-url:https://www.googleapis.com/oauth2/v1/certs}") String certsUrl,
+            @Value("${google.client.id}") String googleClientId
+    ) {
+        log.debug("Google ID token certificates loaded from {}", certsUrl);
+        return new RotatingGoogleIdTokenVerifier(
+                new GooglePublicKeysManager.Builder(googleHttpTransport, GsonFactory.getDefaultInstance())
+                        .setPublicCertsEncodedUrl(certsUrl),
+                Collections.singletonList(googleClientId));
+    }
+}
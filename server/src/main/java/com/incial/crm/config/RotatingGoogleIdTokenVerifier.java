@@ -0,0 +1,57 @@
+package com.incial.crm.config;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ID token verifier whose signing keys are replaced as a whole.
+ * {@link GooglePublicKeysManager#refresh()} empties the key list before it downloads
+ * the replacement, so refreshing the live manager in place leaves no keys when the
+ * download fails. {@link #refreshKeys()} instead loads a fresh manager and swaps it in
+ * only once it holds keys; on failure the current manager stays in use.
+ */
+public class RotatingGoogleIdTokenVerifier extends GoogleIdTokenVerifier {
+
+    private final GooglePublicKeysManager.Builder keysBuilder;
+    private final Collection<String> audience;
+    private final AtomicReference<GoogleIdTokenVerifier> current;
+
+    public RotatingGoogleIdTokenVerifier(GooglePublicKeysManager.Builder keysBuilder, Collection<String> audience) {
+        // The inherited keys manager is never consulted; verify() goes to the current delegate
+        super(new GoogleIdTokenVerifier.Builder(keysBuilder.build()).setAudience(audience));
+        this.keysBuilder = keysBuilder;
+        this.audience = audience;
+        // Until the first refresh, keys are downloaded lazily by the first sign-in
+        this.current = new AtomicReference<>(verifierFor(keysBuilder.build()));
+    }
+
+    @Override
+    public boolean verify(GoogleIdToken idToken) throws GeneralSecurityException, IOException {
+        return current.get().verify(idToken);
+    }
+
+    /**
+     * Downloads the certificates once into a new manager and swaps it in. Throws, and
+     * keeps the current keys, when the download fails.
+     */
+    public void refreshKeys() throws GeneralSecurityException, IOException {
+        GooglePublicKeysManager fresh = keysBuilder.build();
+        fresh.refresh();
+        current.set(verifierFor(fresh));
+    }
+
+    /** When the keys in use reach their Cache-Control max-age; 0 before the first download. */
+    public long getKeysExpirationTimeMilliseconds() {
+        return current.get().getExpirationTimeMilliseconds();
+    }
+
+    private GoogleIdTokenVerifier verifierFor(GooglePublicKeysManager keys) {
+        return new GoogleIdTokenVerifier.Builder(keys).setAudience(audience).build();
+    }
+}
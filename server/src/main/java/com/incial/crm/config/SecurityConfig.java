@@ -1,6 +1,7 @@
 package com.incial.crm.config;
 
 import com.incial.crm.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -38,6 +39,9 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        // SSE responses finish on an async dispatch that carries no JWT; the
+                        // request was already authorized when the stream was opened
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/v1/auth/**").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                         .requestMatchers("/actuator/health", "/actuator/info").permitAll()
@@ -46,6 +50,13 @@ public class SecurityConfig {
                         .requestMatchers("/api/v1/crm/**").hasAnyAuthority("ROLE_ADMIN","ROLE_EMPLOYEE", "ROLE_SUPER_ADMIN")
                         .requestMatchers("/api/v1/tasks/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_EMPLOYEE", "ROLE_SUPER_ADMIN")
                         .requestMatchers("/api/v1/meetings/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_EMPLOYEE", "ROLE_SUPER_ADMIN")
+                        .requestMatchers("/api/v1/live/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_EMPLOYEE", "ROLE_SUPER_ADMIN")
+                        .requestMatchers("/api/v1/sync/**", "/api/v1/sync").hasAnyAuthority("ROLE_ADMIN", "ROLE_EMPLOYEE", "ROLE_SUPER_ADMIN")
+                        // Subscribed calendar apps send no JWT; the secret in the URL authorizes the feed
+                        .requestMatchers("/api/v1/calendar/feed/**").permitAll()
+                        .requestMatchers("/api/v1/calendar/**", "/api/v1/calendar").hasAnyAuthority("ROLE_ADMIN", "ROLE_EMPLOYEE", "ROLE_SUPER_ADMIN")
+                        .requestMatchers("/api/v1/search/**", "/api/v1/search").hasAnyAuthority("ROLE_ADMIN", "ROLE_EMPLOYEE", "ROLE_SUPER_ADMIN")
+                        .requestMatchers("/api/v1/analytics/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_EMPLOYEE", "ROLE_SUPER_ADMIN")
                         .requestMatchers("/api/v1/users/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_EMPLOYEE", "ROLE_SUPER_ADMIN")
                         .anyRequest().authenticated()
                 )
@@ -66,7 +77,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(List.of("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
-        configuration.setExposedHeaders(List.of("Authorization"));
+        configuration.setExposedHeaders(List.of("Authorization", "ETag", "Last-Modified"));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
@@ -0,0 +1,78 @@
+package com.incial.crm.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Watches for virtual threads that block while pinned to their carrier (blocking IO
+ * inside a synchronized block or native frame). Pinning quietly turns virtual
+ * threads back into a small fixed pool, so each occurrence is logged with the
+ * first application frame and counted in jvm.threads.virtual.pinned.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${virtual-threads.pinning.threshold-ms:20}")
+    private long thresholdMs;
+
+    private RecordingStream stream;
+
+    @PostConstruct
+    public void start() {
+        Counter pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to a carrier thread")
+                .register(meterRegistry);
+
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT)
+                .withThreshold(Duration.ofMillis(thresholdMs))
+                .withStackTrace();
+        stream.onEvent(PINNED_EVENT, event -> {
+            pinned.increment();
+            log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), describe(event));
+        });
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private static String describe(RecordedEvent event) {
+        RecordedStackTrace trace = event.getStackTrace();
+        if (trace == null || trace.getFrames().isEmpty()) {
+            return "unknown frame";
+        }
+        List<RecordedFrame> frames = trace.getFrames();
+        RecordedFrame frame = frames.stream()
+                .filter(f -> f.getMethod().getType().getName().startsWith("com.incial."))
+                .findFirst()
+                .orElse(frames.get(0));
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,68 @@
+package com.incial.crm.controller;
+
+import com.incial.crm.dto.AnalyticsSummaryDto;
+import com.incial.crm.dto.PipelineStageDto;
+import com.incial.crm.dto.ThroughputPointDto;
+import com.incial.crm.dto.WorkloadDto;
+import com.incial.crm.service.AnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/analytics")
+@CrossOrigin(origins = "*")
+@Tag(name = "Analytics", description = "Pre-aggregated dashboard figures")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    @GetMapping("/summary")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Get dashboard summary", description = "Pipeline, workload, overdue and weekly throughput in one response")
+    public ResponseEntity<AnalyticsSummaryDto> getSummary(@RequestParam(defaultValue = "12") int weeks) {
+        return ResponseEntity.ok(analyticsService.getSummary(weeks));
+    }
+
+    @GetMapping("/pipeline")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Get pipeline by status", description = "Entry count and total deal value per CRM status")
+    public ResponseEntity<List<PipelineStageDto>> getPipeline() {
+        return ResponseEntity.ok(analyticsService.getPipeline());
+    }
+
+    @GetMapping("/workload")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Get task workload", description = "Task status breakdown and overdue count per assignee")
+    public ResponseEntity<List<WorkloadDto>> getWorkload() {
+        return ResponseEntity.ok(analyticsService.getWorkload());
+    }
+
+    @GetMapping("/throughput")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Get task throughput", description = "Completed tasks per assignee per week (weeks start on Monday)")
+    public ResponseEntity<List<ThroughputPointDto>> getThroughput(@RequestParam(defaultValue = "12") int weeks) {
+        return ResponseEntity.ok(analyticsService.getThroughput(weeks));
+    }
+
+    @GetMapping("/overdue")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Get overdue task count", description = "Open tasks whose due date has passed")
+    public ResponseEntity<Map<String, Long>> getOverdue() {
+        return ResponseEntity.ok(Map.of("overdue", analyticsService.getOverdueTotal()));
+    }
+
+    @PostMapping("/refresh")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Rebuild analytics summary", description = "Recompute every summary row immediately")
+    public ResponseEntity<Map<String, Boolean>> refresh() {
+        return ResponseEntity.ok(Map.of("refreshed", analyticsService.refresh(true)));
+    }
+}
@@ -0,0 +1,94 @@
+package com.incial.crm.controller;
+
+import com.incial.crm.dto.CalendarFeedDto;
+import com.incial.crm.dto.CalendarItemDto;
+import com.incial.crm.dto.CollectionVersion;
+import com.incial.crm.security.JwtPrincipal;
+import com.incial.crm.service.CalendarService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/calendar")
+@CrossOrigin(origins = "*")
+@Tag(name = "Calendar", description = "Meetings and task due dates inside a date window")
+@RequiredArgsConstructor
+public class CalendarController {
+
+    private final CalendarService calendarService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Get calendar items",
+            description = "Meetings and tasks due in [from, to), ordered by start; assigneeId limits them to one user")
+    public ResponseEntity<List<CalendarItemDto>> getCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long assigneeId,
+            WebRequest request) {
+        CollectionVersion version = calendarService.getVersion(from, to);
+        String etag = ConditionalGet.collectionTag(tagName("calendar", from, to, assigneeId), version);
+        return ConditionalGet.respond(request, etag, null, () -> calendarService.getItems(from, to, assigneeId));
+    }
+
+    @GetMapping(value = "/feed.ics", produces = "text/calendar;charset=UTF-8")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Get calendar feed", description = "The same window as an iCalendar (RFC 5545) document")
+    public ResponseEntity<String> getCalendarFeed(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long assigneeId,
+            WebRequest request) {
+        CollectionVersion version = calendarService.getVersion(from, to);
+        String etag = ConditionalGet.collectionTag(tagName("calendar-ics", from, to, assigneeId), version);
+        return ConditionalGet.respond(request, etag, null,
+                () -> calendarService.toICalendar(calendarService.getItems(from, to, assigneeId)));
+    }
+
+    // No bearer token here: the secret in the path is the credential, see SecurityConfig
+    @GetMapping(value = "/feed/{token}.ics", produces = "text/calendar;charset=UTF-8")
+    @Operation(summary = "Get subscribed calendar feed",
+            description = "The token owner's items from 30 days back to 180 days ahead, for calendar apps")
+    public ResponseEntity<String> getSubscribedFeed(@PathVariable String token) {
+        return calendarService.getFeed(token)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/feed-token")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Issue calendar feed URL",
+            description = "Subscription URL for the caller's own items; replaces and revokes any previous one")
+    public ResponseEntity<CalendarFeedDto> issueFeedToken(@AuthenticationPrincipal JwtPrincipal principal) {
+        String token = calendarService.issueFeedToken(principal);
+        String url = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/v1/calendar/feed/{token}.ics")
+                .buildAndExpand(token)
+                .toUriString();
+        return ResponseEntity.ok(CalendarFeedDto.builder().url(url).build());
+    }
+
+    @DeleteMapping("/feed-token")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Revoke calendar feed URL", description = "The caller's subscription URL stops working")
+    public ResponseEntity<Void> revokeFeedToken(@AuthenticationPrincipal JwtPrincipal principal) {
+        calendarService.revokeFeedToken(principal);
+        return ResponseEntity.noContent().build();
+    }
+
+    // The window and assignee are part of the representation
+    private static String tagName(String representation, LocalDate from, LocalDate to, Long assigneeId) {
+        return representation + "-" + from + "-" + to + "-" + (assigneeId == null ? "all" : assigneeId);
+    }
+}
@@ -0,0 +1,63 @@
+package com.incial.crm.controller;
+
+import com.incial.crm.dto.CollectionVersion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET support. Callers compute a cheap version first (max(last_updated_at)
+ * plus the last logged delete for collections, last_updated_at for single rows); the
+ * response body is only loaded and serialized when If-None-Match / If-Modified-Since
+ * do not match.
+ */
+public final class ConditionalGet {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private ConditionalGet() {
+    }
+
+    /** Strong ETag for a whole collection representation, e.g. "crm-all-42-5f3a...". */
+    public static String collectionTag(String representation, CollectionVersion version) {
+        long deleteSeq = version.getLastDeleteSeq() == null ? 0 : version.getLastDeleteSeq();
+        return "\"" + representation + "-" + deleteSeq + "-" + stamp(version.getLastUpdatedAt()) + "\"";
+    }
+
+    /** Strong ETag for a single row representation. */
+    public static String rowTag(String representation, Long id, LocalDateTime lastUpdatedAt) {
+        return "\"" + representation + "-" + id + "-" + stamp(lastUpdatedAt) + "\"";
+    }
+
+    /**
+     * Returns 304 when the client's validators match, otherwise 200 with the body
+     * from {@code body}. ETag and Last-Modified are written by
+     * {@link WebRequest#checkNotModified(String, long)} in both cases.
+     *
+     * <p>Pass a null {@code lastModified} for collections: deleting a row does not
+     * move max(last_updated_at), so only the ETag (which includes the last delete) is safe.
+     */
+    public static <T> ResponseEntity<T> respond(WebRequest request, String etag, LocalDateTime lastModified,
+                                                Supplier<T> body) {
+        long lastModifiedMillis = lastModified == null
+                ? -1
+                : lastModified.truncatedTo(ChronoUnit.SECONDS).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        // Private and revalidated on every use: the data is per-tenant and changes often
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (request.checkNotModified(etag, lastModifiedMillis)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).body(body.get());
+    }
+
+    private static String stamp(LocalDateTime value) {
+        // Microseconds, the precision Postgres keeps for timestamps
+        return value == null ? "0" : Long.toHexString(ChronoUnit.MICROS.between(EPOCH, value));
+    }
+}
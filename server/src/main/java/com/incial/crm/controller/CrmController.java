@@ -1,14 +1,30 @@
 package com.incial.crm.controller;
 
+import com.incial.crm.dto.BatchRequest;
+import com.incial.crm.dto.BatchResponse;
+import com.incial.crm.dto.CollectionVersion;
 import com.incial.crm.dto.CrmEntryDto;
+import com.incial.crm.dto.CrmEntryFilter;
+import com.incial.crm.dto.CrmEntrySummaryDto;
+import com.incial.crm.dto.CursorPage;
+import com.incial.crm.dto.ImportJobDto;
+import com.incial.crm.repository.CrmEntryCursor;
+import com.incial.crm.security.JwtPrincipal;
+import com.incial.crm.service.CrmImportService;
 import com.incial.crm.service.CrmService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -19,29 +35,69 @@ import java.util.Map;
 public class CrmController {
 
     private final CrmService crmService;
+    private final CrmImportService crmImportService;
 
     @GetMapping("/all")
     @PreAuthorize(
             "hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_SUPER_ADMIN') or hasAuthority('ROLE_EMPLOYEE')"
     )
-    public ResponseEntity<Map<String, List<CrmEntryDto>>> getAllEntries() {
-        return ResponseEntity.ok(crmService.getAllEntries());
+    public ResponseEntity<Map<String, List<CrmEntryDto>>> getAllEntries(WebRequest request) {
+        CollectionVersion version = crmService.getCollectionVersion();
+        return ConditionalGet.respond(request, ConditionalGet.collectionTag("crm-all", version), null,
+                crmService::getAllEntries);
+    }
+
+    @GetMapping("/summary")
+    @PreAuthorize(
+            "hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_SUPER_ADMIN') or hasAuthority('ROLE_EMPLOYEE')"
+    )
+    public ResponseEntity<Map<String, List<CrmEntrySummaryDto>>> getEntrySummaries(WebRequest request) {
+        CollectionVersion version = crmService.getCollectionVersion();
+        return ConditionalGet.respond(request, ConditionalGet.collectionTag("crm-summary", version), null,
+                crmService::getEntrySummaries);
+    }
+
+    @GetMapping("/page")
+    @PreAuthorize(
+            "hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_SUPER_ADMIN') or hasAuthority('ROLE_EMPLOYEE')"
+    )
+    public ResponseEntity<CursorPage<CrmEntryDto>> getEntriesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "ID") CrmEntryCursor.Sort sort,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String assignedTo,
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate followUpFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate followUpTo
+    ) {
+        CrmEntryFilter filter = CrmEntryFilter.builder()
+                .status(status)
+                .assignedTo(assignedTo)
+                .tags(tags)
+                .followUpFrom(followUpFrom)
+                .followUpTo(followUpTo)
+                .build();
+        return ResponseEntity.ok(crmService.getEntriesPage(filter, sort, cursor, limit));
     }
 
     @GetMapping("/details/{id}")
     @PreAuthorize(
             "hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_SUPER_ADMIN') or hasAuthority('ROLE_EMPLOYEE')"
     )
-    public ResponseEntity<CrmEntryDto> getCrmDetails(@PathVariable Long id) {
-        CrmEntryDto details = crmService.getCrmDetails(id);
-        return ResponseEntity.ok(details);
+    public ResponseEntity<CrmEntryDto> getCrmDetails(@PathVariable Long id, WebRequest request) {
+        LocalDateTime lastUpdatedAt = crmService.getLastUpdatedAt(id).orElse(null);
+        if (lastUpdatedAt == null) {
+            return ResponseEntity.ok(crmService.getCrmDetails(id));
+        }
+        return ConditionalGet.respond(request, ConditionalGet.rowTag("crm", id, lastUpdatedAt), lastUpdatedAt,
+                () -> crmService.getCrmDetails(id));
     }
 
     @GetMapping("/my-crm")
     @PreAuthorize("hasAuthority('ROLE_CLIENT')")
-    public ResponseEntity<CrmEntryDto> getClientCrmDetails(Authentication authentication) {
-        String userEmail = authentication.getName();
-        CrmEntryDto details = crmService.getClientCrmDetails(userEmail);
+    public ResponseEntity<CrmEntryDto> getClientCrmDetails(@AuthenticationPrincipal JwtPrincipal principal) {
+        CrmEntryDto details = crmService.getClientCrmDetails(principal);
         return ResponseEntity.ok(details);
     }
 
@@ -61,6 +117,27 @@ public class CrmController {
         return ResponseEntity.ok(updated);
     }
 
+    // Admin-only like create/delete, since a batch may contain either
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_SUPER_ADMIN')")
+    public ResponseEntity<BatchResponse<CrmEntryDto>> applyBatch(@RequestBody BatchRequest<CrmEntryDto> request) {
+        return ResponseEntity.ok(crmService.applyBatch(request));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_SUPER_ADMIN')")
+    public ResponseEntity<ImportJobDto> importEntries(@RequestParam("file") MultipartFile file) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(crmImportService.startImport(file));
+    }
+
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_SUPER_ADMIN')")
+    public ResponseEntity<ImportJobDto> getImportJob(@PathVariable String jobId) {
+        return crmImportService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("/delete/{id}")
     @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_SUPER_ADMIN')")
     public ResponseEntity<Void> deleteEntry(@PathVariable Long id) {
@@ -0,0 +1,69 @@
+package com.incial.crm.controller;
+
+import com.incial.crm.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.function.BiConsumer;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/v1")
+@CrossOrigin(origins = "*")
+@Tag(name = "Export", description = "Streaming CSV/NDJSON exports")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @GetMapping("/crm/export")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Export CRM entries", description = "format=csv|ndjson; gzip-encoded when the client accepts it")
+    public ResponseEntity<StreamingResponseBody> exportCrmEntries(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return stream("crm-entries", ExportService.Format.from(format), acceptEncoding, exportService::exportCrmEntries);
+    }
+
+    @GetMapping("/tasks/export")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Export tasks", description = "format=csv|ndjson; gzip-encoded when the client accepts it")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return stream("tasks", ExportService.Format.from(format), acceptEncoding, exportService::exportTasks);
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String name, ExportService.Format format, String acceptEncoding,
+                                                         BiConsumer<ExportService.Format, OutputStream> exporter) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                exporter.accept(format, compressed);
+                compressed.finish();
+            } else {
+                exporter.accept(format, out);
+            }
+        };
+        String filename = name + "-" + LocalDate.now() + "." + format.extension();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -0,0 +1,44 @@
+package com.incial.crm.controller;
+
+import com.incial.crm.security.JwtPrincipal;
+import com.incial.crm.security.JwtUtil;
+import com.incial.crm.service.LiveUpdateService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/live")
+@CrossOrigin(origins = "*")
+@Tag(name = "Live updates", description = "Server-Sent Events stream of committed changes")
+@RequiredArgsConstructor
+public class LiveUpdateController {
+
+    private final LiveUpdateService liveUpdateService;
+    private final JwtUtil jwtUtil;
+
+    @PostMapping("/ticket")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Issue a stream ticket",
+            description = "Returns a ticket valid for 30 seconds, to open /stream?ticket= from an EventSource")
+    public ResponseEntity<Map<String, String>> ticket(@AuthenticationPrincipal JwtPrincipal principal) {
+        return ResponseEntity.ok(Map.of("ticket", jwtUtil.generateStreamTicket(principal)));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Open live update stream",
+            description = "Emits ready, change and resync events. EventSource clients pass a ticket from /ticket as ?ticket=")
+    public SseEmitter stream(Authentication authentication) {
+        return liveUpdateService.subscribe(authentication.getName());
+    }
+}
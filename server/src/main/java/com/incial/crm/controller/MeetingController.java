@@ -1,13 +1,17 @@
 package com.incial.crm.controller;
 
+import com.incial.crm.dto.CollectionVersion;
 import com.incial.crm.dto.MeetingDto;
+import com.incial.crm.dto.MeetingSummaryDto;
 import com.incial.crm.service.MeetingService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -20,8 +24,29 @@ public class MeetingController {
 
     @GetMapping("/all")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
-    public ResponseEntity<List<MeetingDto>> getAllMeetings() {
-        return ResponseEntity.ok(meetingService.getAllMeetings());
+    public ResponseEntity<List<MeetingDto>> getAllMeetings(WebRequest request) {
+        CollectionVersion version = meetingService.getCollectionVersion();
+        return ConditionalGet.respond(request, ConditionalGet.collectionTag("meetings-all", version), null,
+                meetingService::getAllMeetings);
+    }
+
+    @GetMapping("/summary")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    public ResponseEntity<List<MeetingSummaryDto>> getMeetingSummaries(WebRequest request) {
+        CollectionVersion version = meetingService.getCollectionVersion();
+        return ConditionalGet.respond(request, ConditionalGet.collectionTag("meetings-summary", version), null,
+                meetingService::getMeetingSummaries);
+    }
+
+    @GetMapping("/details/{id}")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    public ResponseEntity<MeetingDto> getMeetingDetails(@PathVariable Long id, WebRequest request) {
+        LocalDateTime lastUpdatedAt = meetingService.getLastUpdatedAt(id).orElse(null);
+        if (lastUpdatedAt == null) {
+            return ResponseEntity.ok(meetingService.getMeetingDetails(id));
+        }
+        return ConditionalGet.respond(request, ConditionalGet.rowTag("meeting", id, lastUpdatedAt), lastUpdatedAt,
+                () -> meetingService.getMeetingDetails(id));
     }
 
     @PostMapping("/create")
@@ -0,0 +1,35 @@
+package com.incial.crm.controller;
+
+import com.incial.crm.dto.SearchHitDto;
+import com.incial.crm.dto.SearchPage;
+import com.incial.crm.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1/search")
+@CrossOrigin(origins = "*")
+@Tag(name = "Search", description = "Full-text search over CRM entries and tasks")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Search", description = "Every word in q must match a word prefix in company, contact, " +
+            "email or notes (CRM entries) or title and description (tasks). Best matches first.")
+    public ResponseEntity<SearchPage> search(
+            @RequestParam String q,
+            @RequestParam(required = false) Set<SearchHitDto.Type> types,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(searchService.search(q, types, page, size));
+    }
+}
@@ -0,0 +1,29 @@
+package com.incial.crm.controller;
+
+import com.incial.crm.dto.SyncResponse;
+import com.incial.crm.service.SyncService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/sync")
+@CrossOrigin(origins = "*")
+@Tag(name = "Sync", description = "Delta sync for CRM entries, tasks and meetings")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Get changes since a cursor",
+            description = "Rows created or updated after the cursor plus ids of deleted rows. Call without since to get a starting cursor.")
+    public ResponseEntity<SyncResponse> sync(@RequestParam(required = false) String since,
+                                             @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(syncService.changesSince(since, limit));
+    }
+}
@@ -1,6 +1,11 @@
 package com.incial.crm.controller;
 
+import com.incial.crm.dto.BatchRequest;
+import com.incial.crm.dto.BatchResponse;
+import com.incial.crm.dto.CollectionVersion;
 import com.incial.crm.dto.TaskDto;
+import com.incial.crm.dto.TaskSummaryDto;
+import com.incial.crm.security.JwtPrincipal;
 import com.incial.crm.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -9,8 +14,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -25,8 +33,31 @@ public class TaskController {
     @GetMapping("/all")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
     @Operation(summary = "Get all tasks", description = "Retrieve all tasks")
-    public ResponseEntity<List<TaskDto>> getAllTasks() {
-        return ResponseEntity.ok(taskService.getAllTasks());
+    public ResponseEntity<List<TaskDto>> getAllTasks(WebRequest request) {
+        CollectionVersion version = taskService.getCollectionVersion();
+        return ConditionalGet.respond(request, ConditionalGet.collectionTag("tasks-all", version), null,
+                taskService::getAllTasks);
+    }
+
+    @GetMapping("/summary")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Get task summaries", description = "Grid columns for all tasks, without description, attachments or link")
+    public ResponseEntity<List<TaskSummaryDto>> getTaskSummaries(WebRequest request) {
+        CollectionVersion version = taskService.getCollectionVersion();
+        return ConditionalGet.respond(request, ConditionalGet.collectionTag("tasks-summary", version), null,
+                taskService::getTaskSummaries);
+    }
+
+    @GetMapping("/details/{id}")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Get task details", description = "Retrieve a single task with all fields")
+    public ResponseEntity<TaskDto> getTaskDetails(@PathVariable Long id, WebRequest request) {
+        LocalDateTime lastUpdatedAt = taskService.getLastUpdatedAt(id).orElse(null);
+        if (lastUpdatedAt == null) {
+            return ResponseEntity.ok(taskService.getTaskDetails(id));
+        }
+        return ConditionalGet.respond(request, ConditionalGet.rowTag("task", id, lastUpdatedAt), lastUpdatedAt,
+                () -> taskService.getTaskDetails(id));
     }
 
     @GetMapping("/my-tasks")
@@ -40,9 +71,8 @@ public class TaskController {
     @GetMapping("/client-tasks")
     @PreAuthorize("hasAuthority('ROLE_CLIENT')")
     @Operation(summary = "Get client's CRM tasks", description = "Retrieve tasks for the client's linked CRM entry")
-    public ResponseEntity<List<TaskDto>> getClientTasks(Authentication authentication) {
-        String userEmail = authentication.getName();
-        return ResponseEntity.ok(taskService.getClientTasks(userEmail));
+    public ResponseEntity<List<TaskDto>> getClientTasks(@AuthenticationPrincipal JwtPrincipal principal) {
+        return ResponseEntity.ok(taskService.getClientTasks(principal));
     }
 
     @PostMapping("/create")
@@ -61,6 +91,14 @@ public class TaskController {
         return ResponseEntity.ok(updated);
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Batch create/update/delete tasks",
+            description = "Applies up to 1000 operations in one transaction and reports a result per item")
+    public ResponseEntity<BatchResponse<TaskDto>> applyBatch(@RequestBody BatchRequest<TaskDto> request) {
+        return ResponseEntity.ok(taskService.applyBatch(request));
+    }
+
     @DeleteMapping("/delete/{id}")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
     @Operation(summary = "Delete a task", description = "Delete a task by ID")
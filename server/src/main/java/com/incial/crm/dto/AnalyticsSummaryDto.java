@@ -0,0 +1,24 @@
+package com.incial.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsSummaryDto {
+    private List<PipelineStageDto> pipeline;
+    private List<WorkloadDto> workload;
+    private List<ThroughputPointDto> throughput;
+    private long overdueTotal;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime refreshedAt;
+}
@@ -0,0 +1,31 @@
+package com.incial.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Comparator;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult<T> {
+
+    public enum Operation { CREATE, UPDATE, DELETE }
+
+    public enum Status { OK, NOT_FOUND, INVALID }
+
+    /** Creates, then updates, then deletes, each in request order. */
+    public static final Comparator<BatchItemResult<?>> ORDER = Comparator
+            .comparing((BatchItemResult<?> r) -> r.getOperation())
+            .thenComparingInt(BatchItemResult::getIndex);
+
+    private Operation operation;
+    private int index;      // position within the request's create/update/delete list
+    private Long id;
+    private Status status;
+    private String error;
+    private T item;         // resulting row for successful creates and updates
+}
@@ -0,0 +1,44 @@
+package com.incial.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequest<T> {
+
+    public static final int MAX_ITEMS = 1000;
+    @Builder.Default
+    private List<T> create = new ArrayList<>();
+
+    @Builder.Default
+    private List<T> update = new ArrayList<>();   // each item must carry its id
+
+    @Builder.Default
+    private List<Long> delete = new ArrayList<>();
+
+    public int size() {
+        return sizeOf(create) + sizeOf(update) + sizeOf(delete);
+    }
+
+    /** Replaces lists sent as null with empty ones and rejects oversized batches. */
+    public void normalize() {
+        if (create == null) create = new ArrayList<>();
+        if (update == null) update = new ArrayList<>();
+        if (delete == null) delete = new ArrayList<>();
+        if (size() > MAX_ITEMS) {
+            throw new IllegalArgumentException("Batch exceeds " + MAX_ITEMS + " items");
+        }
+    }
+
+    private static int sizeOf(List<?> list) {
+        return list == null ? 0 : list.size();
+    }
+}
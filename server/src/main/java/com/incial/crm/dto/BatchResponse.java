@@ -0,0 +1,23 @@
+package com.incial.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponse<T> {
+    private List<BatchItemResult<T>> results;
+    private int succeeded;
+    private int failed;
+
+    public static <T> BatchResponse<T> of(List<BatchItemResult<T>> results) {
+        int ok = (int) results.stream().filter(r -> r.getStatus() == BatchItemResult.Status.OK).count();
+        return new BatchResponse<>(results, ok, results.size() - ok);
+    }
+}
@@ -0,0 +1,18 @@
+package com.incial.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Subscription URL for a user's calendar feed. The token inside it is only shown
+ * here; issuing a new one revokes the old URL.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarFeedDto {
+    private String url;
+}
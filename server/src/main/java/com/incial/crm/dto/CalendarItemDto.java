@@ -0,0 +1,41 @@
+package com.incial.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One calendar slot: a meeting at its date and time, or a task on its due date
+ * (allDay, start at midnight). priority is only set for tasks.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarItemDto {
+
+    public enum Type {
+        MEETING,
+        TASK
+    }
+
+    private Type type;
+    private Long id;
+    private String title;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm")
+    private LocalDateTime start;
+
+    private boolean allDay;
+    private String status;
+    private String priority;
+    private String assignedTo;
+    private Long companyId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime lastUpdatedAt;
+}
@@ -0,0 +1,23 @@
+package com.incial.crm.dto;
+
+import com.incial.crm.entity.ChangeLog;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A committed change to a synced entity. Published as an application event by
+ * ChangeLogService and pushed to live subscribers; clients fetch the row itself
+ * through /details/{id} or /api/v1/sync.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEventDto {
+    private ChangeLog.EntityType type;
+    private Long id;
+    private ChangeLog.Operation operation;
+    private Long seq;   // change_log cursor; usable as ?since= after a resync
+}
@@ -0,0 +1,20 @@
+package com.incial.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cheap fingerprint of a table: newest last_updated_at plus the change_log seq of
+ * the newest delete. Inserts and updates move the first, deletes the second; each
+ * is read with a single index probe rather than a count over the table.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollectionVersion {
+    private LocalDateTime lastUpdatedAt;
+    private Long lastDeleteSeq;
+}
@@ -0,0 +1,21 @@
+package com.incial.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CrmEntryFilter {
+    private String status;
+    private String assignedTo;
+    private List<String> tags; // entry must carry every listed tag
+    private LocalDate followUpFrom;
+    private LocalDate followUpTo;
+}
@@ -0,0 +1,46 @@
+package com.incial.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Grid row for the companies list. Built straight from a JPQL constructor
+ * expression (field order matters), so notes, address and socials are never read;
+ * the full record comes from /api/v1/crm/details/{id}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CrmEntrySummaryDto {
+    private Long id;
+    private String company;
+    private String contactName;
+    private String email;
+    private String phone;
+    private String companyImageUrl;
+    private String status;
+    private BigDecimal dealValue;
+    private String assignedTo;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate lastContact;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate nextFollowUp;
+
+    private String referenceId;
+    private List<String> tags;
+    private List<String> work;
+    private List<String> leadSources;
+    private String driveLink;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime lastUpdatedAt;
+}
@@ -0,0 +1,37 @@
+package com.incial.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDto {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String id;
+    private Status status;
+    private String fileName;
+    private long totalBytes;
+    private long bytesRead;
+    private int percent;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+    private List<ImportRowError> errors; // first import.max-errors failures only; rowsFailed has the full count
+    private String message;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,30 @@
+package com.incial.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * List row for a meeting. Built from a JPQL constructor expression (field order
+ * matters); meetingLink and notes come from /api/v1/meetings/details/{id}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeetingSummaryDto {
+    private Long id;
+    private String title;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm")
+    private LocalDateTime dateTime;
+
+    private String status;
+    private Long crmEntryId;
+    private String assignedTo;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime lastUpdatedAt;
+}
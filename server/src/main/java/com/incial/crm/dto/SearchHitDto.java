@@ -0,0 +1,29 @@
+package com.incial.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One search result. For CRM entries title is the company and subtitle the contact
+ * (or email); for tasks title is the task title and subtitle its status. rank only
+ * orders hits within one response.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitDto {
+
+    public enum Type {
+        CRM_ENTRY,
+        TASK
+    }
+
+    private Type type;
+    private Long id;
+    private String title;
+    private String subtitle;
+    private float rank;
+}
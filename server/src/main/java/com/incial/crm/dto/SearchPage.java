@@ -0,0 +1,19 @@
+package com.incial.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchPage {
+    private List<SearchHitDto> items;
+    private int page;
+    private int size;
+    private boolean hasMore;
+}
@@ -0,0 +1,24 @@
+package com.incial.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponse {
+    private String cursor;          // pass back as ?since= on the next call
+    private boolean hasMore;        // more changes are waiting; call again right away
+    private boolean reset;          // cursor missing or too old: reload collections in full, then sync from cursor
+    private List<CrmEntryDto> crmEntries;
+    private List<TaskDto> tasks;
+    private List<MeetingDto> meetings;
+    private List<Long> deletedCrmEntryIds;
+    private List<Long> deletedTaskIds;
+    private List<Long> deletedMeetingIds;
+}
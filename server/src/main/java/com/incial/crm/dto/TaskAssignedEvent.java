@@ -0,0 +1,26 @@
+package com.incial.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Users newly assigned to a task. Published by TaskService inside the write
+ * transaction, so listeners that enqueue mail commit or roll back with the task.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskAssignedEvent {
+    private Long taskId;
+    private String title;
+    private String priority;
+    private LocalDate dueDate;
+    private String assignedBy;
+    private Set<Long> assigneeIds;   // only the users added by this write
+}
@@ -0,0 +1,37 @@
+package com.incial.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Board/list row for a task. Built from a JPQL constructor expression (field order
+ * matters); description, attachments and taskLink come from /api/v1/tasks/details/{id}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSummaryDto {
+    private Long id;
+    private String title;
+    private String status;
+    private String priority;
+    private String assignedTo;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate dueDate;
+
+    private Long companyId;
+    private String taskType;
+    private Boolean isVisibleOnMainBoard;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime createdAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime lastUpdatedAt;
+}
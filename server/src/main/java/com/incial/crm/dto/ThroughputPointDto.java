@@ -0,0 +1,22 @@
+package com.incial.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThroughputPointDto {
+    private String assignee;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate weekStart;
+
+    private long completed;
+}
@@ -0,0 +1,19 @@
+package com.incial.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkloadDto {
+    private String assignee;
+    private long total;
+    private long completed;
+    private long inProgress;
+    private long notStarted;
+    private long overdue;
+}
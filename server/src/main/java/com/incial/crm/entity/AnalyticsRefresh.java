@@ -0,0 +1,28 @@
+package com.incial.crm.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single row locked by every analytics refresh, so nodes sharing the database take
+ * turns replacing analytics_summary instead of interleaving their deletes and inserts.
+ */
+@Entity
+@Table(name = "analytics_refresh")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsRefresh {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "refreshed_at")
+    private LocalDateTime refreshedAt;
+}
@@ -0,0 +1,58 @@
+package com.incial.crm.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated dashboard figures, refreshed by AnalyticsService.
+ */
+@Entity
+@Table(name = "analytics_summary", indexes = {
+        @Index(name = "idx_analytics_summary_metric", columnList = "metric, bucket_start")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsSummary {
+
+    public enum Metric {
+        PIPELINE,    // dimension = CRM status, count + summed deal value
+        WORKLOAD,    // dimension = assignee, subDimension = status group
+        OVERDUE,     // dimension = assignee
+        THROUGHPUT   // dimension = assignee, bucketStart = week (Monday)
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private Metric metric;
+
+    @Column(nullable = false, length = 255)
+    private String dimension;
+
+    @Column(name = "sub_dimension", length = 50)
+    private String subDimension;
+
+    @Column(name = "bucket_start")
+    private LocalDate bucketStart;
+
+    @Column(name = "item_count", nullable = false)
+    private Long itemCount;
+
+    @Column(name = "total_value", precision = 19, scale = 2)
+    private BigDecimal totalValue;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
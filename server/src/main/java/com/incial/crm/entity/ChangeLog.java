@@ -0,0 +1,60 @@
+package com.incial.crm.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per create/update/delete of a synced entity, written in the same
+ * transaction as the change. {@code seq} is the delta-sync cursor; DELETE rows are
+ * the tombstones for rows that no longer exist.
+ */
+@Entity
+@Table(name = "change_log", indexes = {
+        @Index(name = "idx_change_log_changed_at", columnList = "changed_at"),
+        @Index(name = "idx_change_log_type_operation_seq", columnList = "entity_type, operation, seq")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeLog {
+
+    public enum EntityType {
+        CRM_ENTRY,
+        TASK,
+        MEETING
+    }
+
+    public enum Operation {
+        UPSERT,
+        DELETE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Operation operation;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        changedAt = LocalDateTime.now();
+    }
+}
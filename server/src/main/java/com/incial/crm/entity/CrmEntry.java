@@ -5,23 +5,35 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 @Entity
-@Table(name = "crm_entries")
+@Table(name = "crm_entries", indexes = {
+        @Index(name = "idx_crm_entries_status", columnList = "status, id"),
+        @Index(name = "idx_crm_entries_assigned_to", columnList = "assigned_to, id"),
+        @Index(name = "idx_crm_entries_next_follow_up", columnList = "next_follow_up")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class CrmEntry {
+
+    /** Ids handed out per sequence call; bulk SQL inserts reserve ids in blocks of this size too. */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "crm_entries_seq")
+    @SequenceGenerator(name = "crm_entries_seq", sequenceName = "crm_entries_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -63,23 +75,24 @@ public class CrmEntry {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
-    @Convert(converter = StringListConverter.class)
-    @Column(length = 1000)
+    // jsonb on PostgreSQL (GIN-indexed for containment queries), JSON on H2
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "tags")
     private List<String> tags;
 
-    @Convert(converter = StringListConverter.class)
-    @Column(length = 1000)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "work")
     private List<String> work;
 
-    @Convert(converter = StringListConverter.class)
-    @Column(name = "lead_sources", length = 1000)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "lead_sources")
     private List<String> leadSources;
 
     @Column(name = "drive_link", columnDefinition = "TEXT")
     private String driveLink;
 
-    @Convert(converter = StringMapConverter.class)
-    @Column(length = 1000)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "socials")
     private Map<String, String> socials;
 
     @Column(name = "last_updated_by", length = 255)
@@ -92,5 +105,10 @@ public class CrmEntry {
     @PreUpdate
     protected void onUpdate() {
         lastUpdatedAt = LocalDateTime.now();
+        // Store empties rather than NULL so containment checks never need a null guard
+        if (tags == null) tags = new ArrayList<>();
+        if (work == null) work = new ArrayList<>();
+        if (leadSources == null) leadSources = new ArrayList<>();
+        if (socials == null) socials = new HashMap<>();
     }
 }
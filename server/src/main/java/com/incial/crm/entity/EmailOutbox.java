@@ -0,0 +1,75 @@
+package com.incial.crm.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Entity
+@Table(name = "email_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutbox {
+
+    public enum Status {
+        PENDING,
+        SENT,
+        DEAD
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 255)
+    private String recipient;
+
+    @Column(nullable = false, length = 50)
+    private String template;
+
+    // Template parameters; cleared once the message is delivered
+    @Convert(converter = StringMapConverter.class)
+    @Column(columnDefinition = "TEXT")
+    private Map<String, String> payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+        if (status == null) {
+            status = Status.PENDING;
+        }
+        if (attempts == null) {
+            attempts = 0;
+        }
+    }
+}
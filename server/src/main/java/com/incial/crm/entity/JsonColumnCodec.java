@@ -0,0 +1,58 @@
+package com.incial.crm.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared Jackson reader/writer for JSON-in-text columns. ObjectReader/ObjectWriter
+ * are immutable and thread-safe, so one instance per target type serves every
+ * converter and every row, with the type resolution done once up front.
+ */
+final class JsonColumnCodec {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader LIST_READER = MAPPER.readerFor(new TypeReference<List<String>>() {});
+    private static final ObjectReader MAP_READER = MAPPER.readerFor(new TypeReference<Map<String, String>>() {});
+    private static final ObjectWriter WRITER = MAPPER.writer();
+
+    private JsonColumnCodec() {
+    }
+
+    // Decoded values are only read (the outbox payload), so every empty column
+    // shares one immutable instance; an entity that wants to add replaces the value
+    static List<String> readList(String json) {
+        if (json == null || json.isBlank() || json.equals("[]")) {
+            return List.of();
+        }
+        try {
+            return LIST_READER.readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to convert JSON to list", e);
+        }
+    }
+
+    static Map<String, String> readMap(String json) {
+        if (json == null || json.isBlank() || json.equals("{}")) {
+            return Map.of();
+        }
+        try {
+            return MAP_READER.readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to convert JSON to map", e);
+        }
+    }
+
+    static String write(Object value) {
+        try {
+            return WRITER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to convert value to JSON", e);
+        }
+    }
+}
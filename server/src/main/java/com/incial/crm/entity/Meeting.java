@@ -10,14 +10,18 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "meetings")
+@Table(name = "meetings", indexes = {
+        @Index(name = "idx_meetings_date_time", columnList = "date_time"),
+        @Index(name = "idx_meetings_crm_entry_id", columnList = "crm_entry_id, date_time")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Meeting {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meetings_seq")
+    @SequenceGenerator(name = "meetings_seq", sequenceName = "meetings_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -9,14 +9,18 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "otps")
+@Table(name = "otps", indexes = {
+        @Index(name = "idx_otps_email", columnList = "email, id"),
+        @Index(name = "idx_otps_expires_at", columnList = "expires_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Otp {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "otps_seq")
+    @SequenceGenerator(name = "otps_seq", sequenceName = "otps_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -32,6 +36,11 @@ public class Otp {
     @Builder.Default
     private Boolean verified = false;
 
+    // Wrong guesses against this code; it is burned once otp.max-attempts is reached
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -41,5 +50,8 @@ public class Otp {
         if (verified == null) {
             verified = false;
         }
+        if (attempts == null) {
+            attempts = 0;
+        }
     }
 }
@@ -1,40 +1,26 @@
 package com.incial.crm.entity;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 
-import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * JSON array text <-> List, through the shared reader and writer in {@link JsonColumnCodec}.
+ */
 @Converter
 public class StringListConverter implements AttributeConverter<List<String>, String> {
-    
-    private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Override
     public String convertToDatabaseColumn(List<String> attribute) {
         if (attribute == null || attribute.isEmpty()) {
             return null;
         }
-        try {
-            return objectMapper.writeValueAsString(attribute);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to convert list to JSON", e);
-        }
+        return JsonColumnCodec.write(attribute);
     }
 
     @Override
     public List<String> convertToEntityAttribute(String dbData) {
-        if (dbData == null || dbData.isEmpty()) {
-            return new ArrayList<>();
-        }
-        try {
-            return objectMapper.readValue(dbData, new TypeReference<List<String>>() {});
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to convert JSON to list", e);
-        }
+        return JsonColumnCodec.readList(dbData);
     }
 }
@@ -1,40 +1,26 @@
 package com.incial.crm.entity;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 
-import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * JSON object text <-> Map, through the shared reader and writer in {@link JsonColumnCodec}.
+ */
 @Converter
 public class StringMapConverter implements AttributeConverter<Map<String, String>, String> {
-    
-    private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Override
     public String convertToDatabaseColumn(Map<String, String> attribute) {
         if (attribute == null || attribute.isEmpty()) {
             return null;
         }
-        try {
-            return objectMapper.writeValueAsString(attribute);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to convert map to JSON", e);
-        }
+        return JsonColumnCodec.write(attribute);
     }
 
     @Override
     public Map<String, String> convertToEntityAttribute(String dbData) {
-        if (dbData == null || dbData.isEmpty()) {
-            return new HashMap<>();
-        }
-        try {
-            return objectMapper.readValue(dbData, new TypeReference<Map<String, String>>() {});
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to convert JSON to map", e);
-        }
+        return JsonColumnCodec.readMap(dbData);
     }
 }
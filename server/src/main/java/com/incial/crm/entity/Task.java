@@ -4,21 +4,34 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_completed_at", columnList = "completed_at"),
+        @Index(name = "idx_tasks_company_id", columnList = "company_id, id"),
+        @Index(name = "idx_tasks_assigned_to", columnList = "assigned_to, id"),
+        @Index(name = "idx_tasks_due_date", columnList = "due_date")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Task {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -36,6 +49,19 @@ public class Task {
     @Column(name = "assigned_to", length = 255)
     private String assignedTo;
 
+    // Resolved user ids behind assignedTo; indexed so "my tasks" is a lookup, not a scan
+    @ElementCollection
+    @CollectionTable(
+            name = "task_assignees",
+            joinColumns = @JoinColumn(name = "task_id"),
+            indexes = @Index(name = "idx_task_assignees_user", columnList = "user_id, task_id")
+    )
+    @Column(name = "user_id", nullable = false)
+    @Builder.Default
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<Long> assigneeIds = new HashSet<>();
+
     @Column(name = "due_date")
     private LocalDate dueDate;
 
@@ -45,8 +71,8 @@ public class Task {
     @Column(name = "task_type", length = 50)
     private String taskType;
 
-    @Convert(converter = StringListConverter.class)
-    @Column(name = "attachments", columnDefinition = "TEXT")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "attachments")
     private List<String> attachments;
 
     @Column(name = "task_link", columnDefinition = "TEXT")
@@ -55,6 +81,10 @@ public class Task {
     @Column(name = "is_visible_on_main_board")
     private Boolean isVisibleOnMainBoard;
 
+    // Set when the task enters a completed status; drives weekly throughput analytics
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -68,10 +98,12 @@ public class Task {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         lastUpdatedAt = LocalDateTime.now();
+        if (attachments == null) attachments = new ArrayList<>();
     }
 
     @PreUpdate
     protected void onUpdate() {
         lastUpdatedAt = LocalDateTime.now();
+        if (attachments == null) attachments = new ArrayList<>();
     }
 }
@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -44,14 +45,34 @@ public class User {
     @Column(name = "client_crm_id")
     private Long clientCrmId;
 
+    // Embedded in issued JWTs; bumping it revokes every token issued before
+    @Column(name = "token_version", nullable = false)
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
+    // SHA-256 of the secret in the user's calendar feed URL; null when no feed was issued
+    @Column(name = "calendar_feed_token_hash", unique = true, length = 64)
+    private String calendarFeedTokenHash;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * Invalidates every token issued to this user so far. Save the user and evict it
+     * from UserService's caches afterwards.
+     */
+    public void bumpTokenVersion() {
+        tokenVersion = tokenVersion == null ? 1 : tokenVersion + 1;
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         if (tasksCompleted == null) {
             tasksCompleted = 0;
         }
+        if (tokenVersion == null) {
+            tokenVersion = 0;
+        }
     }
 }
\ No newline at end of file
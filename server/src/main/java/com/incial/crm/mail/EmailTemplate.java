@@ -0,0 +1,94 @@
+package com.incial.crm.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An HTML template parsed once into literal segments and {{placeholder}} slots.
+ * Rendering is a single pass that appends literals and escaped values to a buffer,
+ * with no format-string parsing per message.
+ */
+public final class EmailTemplate {
+
+    private final String name;
+    private final String[] literals;   // literals[i] precedes slots[i]; last literal trails
+    private final String[] slots;
+    private final int literalLength;
+
+    private EmailTemplate(String name, String[] literals, String[] slots) {
+        this.name = name;
+        this.literals = literals;
+        this.slots = slots;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static EmailTemplate parse(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in email template " + name + " at offset " + open);
+            }
+            String slot = source.substring(open + 2, close).trim();
+            if (slot.isEmpty()) {
+                throw new IllegalArgumentException("Empty placeholder in email template " + name + " at offset " + open);
+            }
+            literals.add(source.substring(position, open));
+            slots.add(slot);
+            position = close + 2;
+        }
+        literals.add(source.substring(position));
+        return new EmailTemplate(name, literals.toArray(new String[0]), slots.toArray(new String[0]));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Rough output size, used to size the render buffer.
+     */
+    public int estimatedLength() {
+        return literalLength + slots.length * 32;
+    }
+
+    /**
+     * Appends the rendered template to {@code out}. Values are HTML-escaped.
+     */
+    public void renderTo(Map<String, String> params, StringBuilder out) {
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            String value = params.get(slots[i]);
+            if (value == null) {
+                throw new IllegalStateException("Missing parameter '" + slots[i] + "' for email template " + name);
+            }
+            appendEscaped(value, out);
+        }
+        out.append(literals[literals.length - 1]);
+    }
+
+    private static void appendEscaped(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
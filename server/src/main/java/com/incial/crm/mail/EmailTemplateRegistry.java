@@ -0,0 +1,55 @@
+package com.incial.crm.mail;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Loads and parses every email template once at startup, and renders them into a
+ * per-thread buffer that is reused across messages.
+ */
+@Component
+public class EmailTemplateRegistry {
+
+    private static final String TEMPLATE_LOCATION = "templates/email/";
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private final Map<EmailTemplateType, EmailTemplate> templates = new EnumMap<>(EmailTemplateType.class);
+
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    @PostConstruct
+    public void init() {
+        for (EmailTemplateType type : EmailTemplateType.values()) {
+            templates.put(type, EmailTemplate.parse(type.name(), load(type.getResource())));
+        }
+    }
+
+    public String render(EmailTemplateType type, Map<String, String> params) {
+        EmailTemplate template = templates.get(type);
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(template.estimatedLength());
+        template.renderTo(params, buffer);
+        String rendered = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            // don't pin an unusually large buffer to a pooled thread forever
+            buffers.remove();
+        }
+        return rendered;
+    }
+
+    private static String load(String resource) {
+        try (InputStream in = new ClassPathResource(TEMPLATE_LOCATION + resource).getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Email template not found: " + TEMPLATE_LOCATION + resource, e);
+        }
+    }
+}
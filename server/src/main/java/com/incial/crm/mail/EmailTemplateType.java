@@ -0,0 +1,32 @@
+package com.incial.crm.mail;
+
+/**
+ * Every email the system can send. The enum name is what the outbox stores.
+ */
+public enum EmailTemplateType {
+    OTP("otp.html", "Password Reset OTP", "Incial Security"),
+    TASK_ASSIGNED("task-assigned.html", "New task assigned to you", "Incial WorkHub"),
+    MEETING_REMINDER("meeting-reminder.html", "Upcoming meeting reminder", "Incial WorkHub");
+
+    private final String resource;
+    private final String subject;
+    private final String senderName;
+
+    EmailTemplateType(String resource, String subject, String senderName) {
+        this.resource = resource;
+        this.subject = subject;
+        this.senderName = senderName;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getSenderName() {
+        return senderName;
+    }
+}
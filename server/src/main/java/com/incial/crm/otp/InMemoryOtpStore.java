@@ -0,0 +1,187 @@
+package com.incial.crm.otp;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Single-node OTP store that never touches the database. Updates for one email are
+ * serialized on a lock stripe, and expired codes are dropped by a hashed timer wheel
+ * instead of a periodic full scan. Codes do not survive a restart and are not shared
+ * between nodes, so only use this when the API runs as a single instance.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory")
+public class InMemoryOtpStore implements OtpStore {
+
+    private static final int STRIPES = 64;
+    private static final int WHEEL_SIZE = 512;
+
+    private static final class Entry {
+        final String code;
+        final long expiresAtMillis;
+        int attempts;
+        boolean used;
+
+        Entry(String code, long expiresAtMillis) {
+            this.code = code;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private record Timeout(String email, Entry entry, long deadlineTick) {
+    }
+
+    @Value("${otp.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${otp.memory.tick-ms:1000}")
+    private long tickMs;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final Queue<Timeout>[] wheel = new Queue[WHEEL_SIZE];
+
+    private ScheduledExecutorService ticker;
+    private long startMillis;
+    private volatile long currentTick;
+
+    public InMemoryOtpStore() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        startMillis = System.currentTimeMillis();
+        ticker = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("otp-wheel-"));
+        ticker.scheduleAtFixedRate(this::advance, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        log.info("Using in-memory OTP store (single-node only)");
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    @Override
+    public void save(String email, String code, LocalDateTime expiresAt) {
+        Entry entry = new Entry(code, expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        ReentrantLock lock = lockFor(email);
+        lock.lock();
+        try {
+            entries.put(email, entry);
+        } finally {
+            lock.unlock();
+        }
+        schedule(email, entry);
+    }
+
+    @Override
+    public boolean verify(String email, String code) {
+        ReentrantLock lock = lockFor(email);
+        lock.lock();
+        try {
+            Entry entry = entries.get(email);
+            if (entry == null || entry.used || entry.expiresAtMillis <= System.currentTimeMillis()) {
+                return false;
+            }
+            if (entry.attempts >= maxAttempts) {
+                return false;
+            }
+            if (!JdbcOtpStore.matches(entry.code, code)) {
+                entry.attempts++;
+                return false;
+            }
+            entry.used = true;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void purgeExpired() {
+        // Expiry is driven by the timer wheel; nothing to sweep.
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private ReentrantLock lockFor(String email) {
+        return locks[(email.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    private void schedule(String email, Entry entry) {
+        long deadlineTick = Math.max(currentTick + 1, (entry.expiresAtMillis - startMillis + tickMs - 1) / tickMs);
+        wheel[(int) (deadlineTick % WHEEL_SIZE)].add(new Timeout(email, entry, deadlineTick));
+    }
+
+    /**
+     * Runs once per tick on the wheel thread: looks only at the bucket for this tick,
+     * expiring entries whose deadline has come and leaving later rounds in place.
+     */
+    void advance() {
+        try {
+            long tick = ++currentTick;
+            Queue<Timeout> bucket = wheel[(int) (tick % WHEEL_SIZE)];
+            int pending = bucket.size();
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < pending; i++) {
+                Timeout timeout = bucket.poll();
+                if (timeout == null) {
+                    break;
+                }
+                if (timeout.deadlineTick() > tick) {
+                    bucket.add(timeout); // due in a later rotation
+                    continue;
+                }
+                expire(timeout, now);
+            }
+        } catch (RuntimeException e) {
+            log.error("OTP timer wheel tick failed", e);
+        }
+    }
+
+    private void expire(Timeout timeout, long now) {
+        Entry entry = timeout.entry();
+        ReentrantLock lock = lockFor(timeout.email());
+        lock.lock();
+        try {
+            // A newer code may have replaced this one; it has a timeout of its own
+            if (entries.get(timeout.email()) != entry) {
+                return;
+            }
+            if (entry.expiresAtMillis <= now) {
+                entries.remove(timeout.email());
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        // The tick ran ahead of the wall clock (clock step, rounding); wait out the rest
+        schedule(timeout.email(), entry);
+    }
+}
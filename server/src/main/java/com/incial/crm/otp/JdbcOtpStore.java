@@ -0,0 +1,81 @@
+package com.incial.crm.otp;
+
+import com.incial.crm.entity.Otp;
+import com.incial.crm.repository.OtpRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Database-backed store (otps table). Works across several application nodes.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "otp.store", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcOtpStore implements OtpStore {
+
+    private final OtpRepository otpRepository;
+
+    @Value("${otp.max-attempts:5}")
+    private int maxAttempts;
+
+    @Override
+    @Transactional
+    public void save(String email, String code, LocalDateTime expiresAt) {
+        otpRepository.deleteByEmail(email);
+        otpRepository.save(Otp.builder()
+                .email(email)
+                .otpCode(code)
+                .expiresAt(expiresAt)
+                .verified(false)
+                .attempts(0)
+                .build());
+    }
+
+    /**
+     * Runs in its own transaction so a failed attempt is counted even when the
+     * caller rolls back after a wrong code.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean verify(String email, String code) {
+        Optional<Otp> otpOptional =
+                otpRepository.findFirstByEmailAndVerifiedFalseAndExpiresAtAfterOrderByIdDesc(email, LocalDateTime.now());
+        if (otpOptional.isEmpty()) {
+            return false;
+        }
+
+        Otp otp = otpOptional.get();
+        if (otp.getAttempts() >= maxAttempts) {
+            return false;
+        }
+        if (!matches(otp.getOtpCode(), code)) {
+            otp.setAttempts(otp.getAttempts() + 1);
+            return false;
+        }
+
+        otp.setVerified(true);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public void purgeExpired() {
+        otpRepository.deleteByExpiresAtBefore(LocalDateTime.now());
+    }
+
+    static boolean matches(String expected, String actual) {
+        if (expected == null || actual == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), actual.getBytes(StandardCharsets.UTF_8));
+    }
+}
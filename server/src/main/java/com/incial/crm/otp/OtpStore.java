@@ -0,0 +1,25 @@
+package com.incial.crm.otp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Storage for one-time passwords. At most one live code exists per email; every
+ * wrong guess counts against it and the code is burned after too many attempts.
+ */
+public interface OtpStore {
+
+    /**
+     * Stores a new code for the email, replacing any outstanding one.
+     */
+    void save(String email, String code, LocalDateTime expiresAt);
+
+    /**
+     * Consumes the code if it matches, is unexpired and has attempts left.
+     */
+    boolean verify(String email, String code);
+
+    /**
+     * Drops expired codes.
+     */
+    void purgeExpired();
+}
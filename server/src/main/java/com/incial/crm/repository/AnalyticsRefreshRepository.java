@@ -0,0 +1,19 @@
+package com.incial.crm.repository;
+
+import com.incial.crm.entity.AnalyticsRefresh;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AnalyticsRefreshRepository extends JpaRepository<AnalyticsRefresh, Integer> {
+
+    // SELECT ... FOR UPDATE; held until the refresh transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from AnalyticsRefresh r where r.id = " + AnalyticsRefresh.ID)
+    Optional<AnalyticsRefresh> lockForRefresh();
+}
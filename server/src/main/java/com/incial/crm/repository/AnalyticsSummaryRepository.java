@@ -0,0 +1,30 @@
+package com.incial.crm.repository;
+
+import com.incial.crm.entity.AnalyticsSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AnalyticsSummaryRepository extends JpaRepository<AnalyticsSummary, Long> {
+
+    List<AnalyticsSummary> findByMetric(AnalyticsSummary.Metric metric);
+
+    List<AnalyticsSummary> findByMetricAndBucketStartGreaterThanEqualOrderByBucketStartAscDimensionAsc(
+            AnalyticsSummary.Metric metric, LocalDate from);
+
+    @Modifying
+    @Query("delete from AnalyticsSummary s where s.metric = :metric")
+    int deleteByMetric(@Param("metric") AnalyticsSummary.Metric metric);
+
+    @Modifying
+    @Query("delete from AnalyticsSummary s where s.metric = :metric and s.bucketStart in :buckets")
+    int deleteByMetricAndBuckets(@Param("metric") AnalyticsSummary.Metric metric,
+                                 @Param("buckets") Collection<LocalDate> buckets);
+}
@@ -0,0 +1,33 @@
+package com.incial.crm.repository;
+
+import com.incial.crm.entity.ChangeLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLog, Long> {
+
+    List<ChangeLog> findBySeqGreaterThanOrderBySeqAsc(Long seq, Pageable pageable);
+
+    @Query("select coalesce(max(c.seq), 0) from ChangeLog c")
+    long findMaxSeq();
+
+    Optional<ChangeLog> findFirstByOrderBySeqAsc();
+
+    // Served by idx_change_log_type_operation_seq
+    @Query("select max(c.seq) from ChangeLog c where c.entityType = :type " +
+            "and c.operation = com.incial.crm.entity.ChangeLog$Operation.DELETE")
+    Long findLastDeleteSeq(@Param("type") ChangeLog.EntityType type);
+
+    @Modifying
+    @Query("delete from ChangeLog c where c.changedAt < :cutoff")
+    int deleteByChangedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
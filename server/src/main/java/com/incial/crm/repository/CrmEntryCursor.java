@@ -0,0 +1,71 @@
+package com.incial.crm.repository;
+
+import com.incial.crm.dto.CrmEntryFilter;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Opaque continuation token for keyset pagination over crm_entries.
+ * Encodes the sort mode plus the sort key of the last row handed out,
+ * so the next page starts strictly after it regardless of inserts/deletes.
+ * Rows never touched through JPA have no lastUpdatedAt; they sort last and
+ * their cursors carry an empty timestamp. The filter fingerprint stops a
+ * cursor from one filter being replayed against another, which would skip
+ * or repeat rows.
+ */
+@Getter
+@AllArgsConstructor
+public class CrmEntryCursor {
+
+    public enum Sort {
+        ID,            // newest first, stable under edits
+        LAST_UPDATED   // most recently touched first
+    }
+
+    private final Sort sort;
+    private final LocalDateTime lastUpdatedAt;
+    private final Long id;
+    private final String filterHash;
+
+    public String encode() {
+        String raw = sort.name() + "|" + (lastUpdatedAt == null ? "" : lastUpdatedAt.toString()) + "|" + id
+                + "|" + filterHash;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CrmEntryCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            Sort sort = Sort.valueOf(parts[0]);
+            LocalDateTime lastUpdatedAt = parts[1].isEmpty() ? null : LocalDateTime.parse(parts[1]);
+            return new CrmEntryCursor(sort, lastUpdatedAt, Long.parseLong(parts[2]), parts[3]);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    /** Stable across restarts and instances, unlike hashCode(); tag order does not matter. */
+    public static String fingerprint(CrmEntryFilter filter) {
+        CrmEntryFilter f = filter == null ? new CrmEntryFilter() : filter;
+        List<String> tags = f.getTags() == null ? null : f.getTags().stream().sorted().toList();
+        CRC32 crc = new CRC32();
+        Object[] parts = {f.getStatus(), f.getAssignedTo(), tags, f.getFollowUpFrom(), f.getFollowUpTo()};
+        for (Object part : parts) {
+            crc.update(Objects.toString(part, "\u0000").getBytes(StandardCharsets.UTF_8));
+            crc.update('|');
+        }
+        return Long.toHexString(crc.getValue());
+    }
+}
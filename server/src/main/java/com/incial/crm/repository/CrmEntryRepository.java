@@ -1,9 +1,72 @@
 package com.incial.crm.repository;
 
+import com.incial.crm.dto.CrmEntrySummaryDto;
 import com.incial.crm.entity.CrmEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface CrmEntryRepository extends JpaRepository<CrmEntry, Long> {
+public interface CrmEntryRepository extends JpaRepository<CrmEntry, Long>, CrmEntryRepositoryCustom {
+
+    // A backward probe of idx_crm_entries_last_updated_at; no count, which would scan the table
+    @Query("select max(e.lastUpdatedAt) from CrmEntry e")
+    LocalDateTime findMaxLastUpdatedAt();
+
+    @Query("select e.lastUpdatedAt from CrmEntry e where e.id = :id")
+    Optional<LocalDateTime> findLastUpdatedAtById(@Param("id") Long id);
+
+    @Query("select new com.incial.crm.dto.CrmEntrySummaryDto(e.id, e.company, e.contactName, e.email, e.phone, " +
+            "e.companyImageUrl, e.status, e.dealValue, e.assignedTo, e.lastContact, e.nextFollowUp, e.referenceId, " +
+            "e.tags, e.work, e.leadSources, e.driveLink, e.lastUpdatedAt) from CrmEntry e order by e.id")
+    List<CrmEntrySummaryDto> findAllSummaries();
+
+    // Rows: [lower(status), count, sum(dealValue)]
+    @Query("select lower(coalesce(e.status, 'unknown')), count(e), coalesce(sum(e.dealValue), 0) from CrmEntry e " +
+            "group by lower(coalesce(e.status, 'unknown'))")
+    List<Object[]> summarizeByStatus();
+
+    // Containment lookups take a JSON-encoded element; use the String overloads below
+
+    @Query("select e from CrmEntry e where json_contains(e.tags, :element) = true order by e.id desc")
+    List<CrmEntry> findByTagsContaining(@Param("element") String jsonElement);
+
+    @Query("select e from CrmEntry e where json_contains(e.work, :element) = true order by e.id desc")
+    List<CrmEntry> findByWorkContaining(@Param("element") String jsonElement);
+
+    @Query("select e from CrmEntry e where json_contains(e.leadSources, :element) = true order by e.id desc")
+    List<CrmEntry> findByLeadSourcesContaining(@Param("element") String jsonElement);
+
+    default List<CrmEntry> findByTag(String tag) {
+        return findByTagsContaining(JsonContainsFunction.element(tag));
+    }
+
+    default List<CrmEntry> findByWork(String work) {
+        return findByWorkContaining(JsonContainsFunction.element(work));
+    }
+
+    default List<CrmEntry> findByLeadSource(String leadSource) {
+        return findByLeadSourcesContaining(JsonContainsFunction.element(leadSource));
+    }
+
+    // Forward-only cursor for exports; callers must consume it inside a transaction and close it
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select e from CrmEntry e order by e.id")
+    Stream<CrmEntry> streamAll();
+
+    List<CrmEntry> findByReferenceIdIn(Collection<String> referenceIds);
 }
@@ -0,0 +1,15 @@
+package com.incial.crm.repository;
+
+import com.incial.crm.dto.CrmEntryFilter;
+import com.incial.crm.entity.CrmEntry;
+
+import java.util.List;
+
+public interface CrmEntryRepositoryCustom {
+
+    /**
+     * Keyset page over crm_entries. Returns at most {@code limit} rows that sort
+     * strictly after {@code after} (or from the top when it is null).
+     */
+    List<CrmEntry> findPage(CrmEntryFilter filter, CrmEntryCursor.Sort sort, CrmEntryCursor after, int limit);
+}
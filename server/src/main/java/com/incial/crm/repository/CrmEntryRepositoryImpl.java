@@ -0,0 +1,82 @@
+package com.incial.crm.repository;
+
+import com.incial.crm.dto.CrmEntryFilter;
+import com.incial.crm.entity.CrmEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CrmEntryRepositoryImpl implements CrmEntryRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CrmEntry> findPage(CrmEntryFilter filter, CrmEntryCursor.Sort sort, CrmEntryCursor after, int limit) {
+        // Hibernate's builder for NULLS LAST, which H2 and Postgres would otherwise disagree on
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<CrmEntry> query = cb.createQuery(CrmEntry.class);
+        Root<CrmEntry> root = query.from(CrmEntry.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter != null) {
+            if (filter.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+            }
+            if (filter.getAssignedTo() != null) {
+                predicates.add(cb.equal(root.get("assignedTo"), filter.getAssignedTo()));
+            }
+            if (filter.getFollowUpFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("nextFollowUp"), filter.getFollowUpFrom()));
+            }
+            if (filter.getFollowUpTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("nextFollowUp"), filter.getFollowUpTo()));
+            }
+            if (filter.getTags() != null) {
+                // jsonb containment, served by the GIN index on tags
+                for (String tag : filter.getTags()) {
+                    predicates.add(cb.isTrue(cb.function(JsonContainsFunction.NAME, Boolean.class,
+                            root.get("tags"), cb.literal(JsonContainsFunction.element(tag)))));
+                }
+            }
+        }
+
+        if (after != null) {
+            if (sort == CrmEntryCursor.Sort.LAST_UPDATED && after.getLastUpdatedAt() == null) {
+                // Already in the trailing never-updated rows
+                predicates.add(cb.and(
+                        cb.isNull(root.get("lastUpdatedAt")),
+                        cb.lessThan(root.get("id"), after.getId())
+                ));
+            } else if (sort == CrmEntryCursor.Sort.LAST_UPDATED) {
+                predicates.add(cb.or(
+                        cb.lessThan(root.get("lastUpdatedAt"), after.getLastUpdatedAt()),
+                        cb.and(
+                                cb.equal(root.get("lastUpdatedAt"), after.getLastUpdatedAt()),
+                                cb.lessThan(root.get("id"), after.getId())
+                        ),
+                        cb.isNull(root.get("lastUpdatedAt"))
+                ));
+            } else {
+                predicates.add(cb.lessThan(root.get("id"), after.getId()));
+            }
+        }
+
+        query.select(root).where(predicates.toArray(new Predicate[0]));
+        if (sort == CrmEntryCursor.Sort.LAST_UPDATED) {
+            query.orderBy(cb.desc(root.get("lastUpdatedAt"), false), cb.desc(root.get("id")));
+        } else {
+            query.orderBy(cb.desc(root.get("id")));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
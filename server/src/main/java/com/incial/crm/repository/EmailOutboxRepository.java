@@ -0,0 +1,46 @@
+package com.incial.crm.repository;
+
+import com.incial.crm.entity.EmailOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // lock.timeout -2 renders FOR UPDATE SKIP LOCKED, so several nodes can drain in parallel
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select m from EmailOutbox m where m.status = :status and m.nextAttemptAt <= :now order by m.nextAttemptAt, m.id")
+    List<EmailOutbox> findDueForUpdate(@Param("status") EmailOutbox.Status status,
+                                       @Param("now") LocalDateTime now,
+                                       Pageable pageable);
+
+    @Modifying
+    @Query("update EmailOutbox m set m.status = :status, m.sentAt = :sentAt, m.payload = null, m.lastError = null where m.id = :id")
+    int markSent(@Param("id") Long id,
+                 @Param("status") EmailOutbox.Status status,
+                 @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("update EmailOutbox m set m.status = :status, m.attempts = :attempts, m.nextAttemptAt = :nextAttemptAt, m.lastError = :lastError where m.id = :id")
+    int markFailed(@Param("id") Long id,
+                   @Param("status") EmailOutbox.Status status,
+                   @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("lastError") String lastError);
+
+    long countByStatus(EmailOutbox.Status status);
+
+    void deleteByStatusAndSentAtBefore(EmailOutbox.Status status, LocalDateTime cutoff);
+}
@@ -0,0 +1,51 @@
+package com.incial.crm.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the HQL function {@code json_contains(column, element)}, true when a
+ * JSON array column holds the given element. {@code element} is the JSON encoding
+ * of a single value (see {@link #element(String)}).
+ *
+ * <p>On PostgreSQL this is the jsonb containment operator, which the
+ * jsonb_path_ops GIN indexes from V6 serve; jsonb lets an array contain a bare
+ * scalar, so no wrapping array is needed. Other databases (H2 in tests) fall back
+ * to a substring match over the serialized array.
+ *
+ * <p>Picked up through META-INF/services.
+ */
+public class JsonContainsFunction implements FunctionContributor {
+
+    public static final String NAME = "json_contains";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Override
+    public void contributeFunctions(FunctionContributions contributions) {
+        Dialect dialect = contributions.getServiceRegistry().requireService(JdbcServices.class).getDialect();
+        String pattern = dialect instanceof PostgreSQLDialect
+                ? "(?1 @> cast(?2 as jsonb))"
+                : "(position(?2, cast(?1 as varchar)) > 0)";
+        contributions.getFunctionRegistry().registerPattern(
+                NAME,
+                pattern,
+                contributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN)
+        );
+    }
+
+    /** JSON encoding of a single string element, e.g. {@code vip -> "vip"}. */
+    public static String element(String value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot encode JSON element", e);
+        }
+    }
+}
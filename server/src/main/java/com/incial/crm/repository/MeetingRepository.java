@@ -1,9 +1,43 @@
 package com.incial.crm.repository;
 
+import com.incial.crm.dto.MeetingSummaryDto;
 import com.incial.crm.entity.Meeting;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface MeetingRepository extends JpaRepository<Meeting, Long> {
+
+    // A backward probe of idx_meetings_last_updated_at; no count, which would scan the table
+    @Query("select max(m.lastUpdatedAt) from Meeting m")
+    LocalDateTime findMaxLastUpdatedAt();
+
+    @Query("select m.lastUpdatedAt from Meeting m where m.id = :id")
+    Optional<LocalDateTime> findLastUpdatedAtById(@Param("id") Long id);
+
+    @Query("select new com.incial.crm.dto.MeetingSummaryDto(m.id, m.title, m.dateTime, m.status, " +
+            "m.crmEntryId, m.assignedTo, m.lastUpdatedAt) from Meeting m order by m.dateTime")
+    List<MeetingSummaryDto> findAllSummaries();
+
+    // Calendar window [from, to), served by idx_meetings_date_time
+    @Query("select new com.incial.crm.dto.MeetingSummaryDto(m.id, m.title, m.dateTime, m.status, " +
+            "m.crmEntryId, m.assignedTo, m.lastUpdatedAt) from Meeting m " +
+            "where m.dateTime >= :from and m.dateTime < :to order by m.dateTime, m.id")
+    List<MeetingSummaryDto> findSummariesBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Meetings only have the free-text assignee; keys are the user's lower-cased name and email
+    @Query("select new com.incial.crm.dto.MeetingSummaryDto(m.id, m.title, m.dateTime, m.status, " +
+            "m.crmEntryId, m.assignedTo, m.lastUpdatedAt) from Meeting m " +
+            "where m.dateTime >= :from and m.dateTime < :to and lower(trim(m.assignedTo)) in :keys " +
+            "order by m.dateTime, m.id")
+    List<MeetingSummaryDto> findSummariesBetweenForAssignee(@Param("from") LocalDateTime from,
+                                                            @Param("to") LocalDateTime to,
+                                                            @Param("keys") Collection<String> keys);
 }
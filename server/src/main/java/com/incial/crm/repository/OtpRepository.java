@@ -9,8 +9,9 @@ import java.util.Optional;
 
 @Repository
 public interface OtpRepository extends JpaRepository<Otp, Long> {
-    Optional<Otp> findByEmailAndOtpCodeAndVerifiedFalseAndExpiresAtAfter(
-            String email, String otpCode, LocalDateTime currentTime);
+    // Code comparison happens in Java so wrong guesses can be counted
+    Optional<Otp> findFirstByEmailAndVerifiedFalseAndExpiresAtAfterOrderByIdDesc(
+            String email, LocalDateTime currentTime);
     
     void deleteByEmail(String email);
     
@@ -1,13 +1,98 @@
 package com.incial.crm.repository;
 
+import com.incial.crm.dto.TaskSummaryDto;
 import com.incial.crm.entity.Task;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findByAssignedTo(String assignedTo);
     List<Task> findByCompanyId(Long companyId);
+
+    @Query("select t from Task t join t.assigneeIds a where a = :userId order by t.id")
+    List<Task> findByAssigneeId(@Param("userId") Long userId);
+
+    // Candidates only: callers match the comma-separated names exactly
+    @Query("select t.id, t.assignedTo from Task t where lower(t.assignedTo) like concat('%', :key, '%')")
+    List<Object[]> findAssignedToContaining(@Param("key") String key);
+
+    @Modifying
+    @Query(value = "INSERT INTO task_assignees (task_id, user_id) " +
+            "SELECT t.id, :userId FROM tasks t WHERE t.id IN (:taskIds) " +
+            "AND NOT EXISTS (SELECT 1 FROM task_assignees a WHERE a.task_id = t.id AND a.user_id = :userId)",
+            nativeQuery = true)
+    int addAssignee(@Param("taskIds") Collection<Long> taskIds, @Param("userId") Long userId);
+
+    @Query("select new com.incial.crm.dto.TaskSummaryDto(t.id, t.title, t.status, t.priority, t.assignedTo, " +
+            "t.dueDate, t.companyId, t.taskType, t.isVisibleOnMainBoard, t.createdAt, t.lastUpdatedAt) " +
+            "from Task t order by t.id")
+    List<TaskSummaryDto> findAllSummaries();
+
+    // Calendar window [from, to), served by idx_tasks_due_date
+    @Query("select new com.incial.crm.dto.TaskSummaryDto(t.id, t.title, t.status, t.priority, t.assignedTo, " +
+            "t.dueDate, t.companyId, t.taskType, t.isVisibleOnMainBoard, t.createdAt, t.lastUpdatedAt) " +
+            "from Task t where t.dueDate >= :from and t.dueDate < :to order by t.dueDate, t.id")
+    List<TaskSummaryDto> findSummariesDueBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // The same window for one user through task_assignees, so tasks shared by several people are included
+    @Query("select new com.incial.crm.dto.TaskSummaryDto(t.id, t.title, t.status, t.priority, t.assignedTo, " +
+            "t.dueDate, t.companyId, t.taskType, t.isVisibleOnMainBoard, t.createdAt, t.lastUpdatedAt) " +
+            "from Task t join t.assigneeIds a where a = :userId and t.dueDate >= :from and t.dueDate < :to " +
+            "order by t.dueDate, t.id")
+    List<TaskSummaryDto> findSummariesDueBetweenForAssignee(@Param("from") LocalDate from,
+                                                            @Param("to") LocalDate to,
+                                                            @Param("userId") Long userId);
+
+    // A backward probe of idx_tasks_last_updated_at; no count, which would scan the table
+    @Query("select max(t.lastUpdatedAt) from Task t")
+    LocalDateTime findMaxLastUpdatedAt();
+
+    @Query("select t.lastUpdatedAt from Task t where t.id = :id")
+    Optional<LocalDateTime> findLastUpdatedAtById(@Param("id") Long id);
+
+    // Rows: [assignedTo, status, count]; callers fold statuses with TaskStatusGroup.of
+    @Query("select coalesce(t.assignedTo, 'Unassigned'), t.status, count(t) from Task t " +
+            "group by coalesce(t.assignedTo, 'Unassigned'), t.status")
+    List<Object[]> countByAssigneeAndStatus();
+
+    // Rows: [assignedTo, count]
+    @Query("select coalesce(t.assignedTo, 'Unassigned'), count(t) from Task t " +
+            "where t.dueDate < :today and (t.status is null or lower(trim(t.status)) not in :doneStatuses) " +
+            "group by coalesce(t.assignedTo, 'Unassigned')")
+    List<Object[]> countOverdueByAssignee(@Param("today") LocalDate today,
+                                          @Param("doneStatuses") Collection<String> doneStatuses);
+
+    // Rows: [assignedTo, completion day, count]; callers fold days into weeks
+    @Query("select coalesce(t.assignedTo, 'Unassigned'), cast(t.completedAt as LocalDate), count(t) from Task t " +
+            "where t.completedAt >= :from and t.completedAt < :to " +
+            "group by coalesce(t.assignedTo, 'Unassigned'), cast(t.completedAt as LocalDate)")
+    List<Object[]> countCompletedByAssigneeAndDay(@Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to);
+
+    @Query("select distinct cast(t.completedAt as LocalDate) from Task t " +
+            "where t.completedAt is not null and t.lastUpdatedAt > :since")
+    List<LocalDate> findCompletionDaysUpdatedSince(@Param("since") LocalDateTime since);
+
+    // Forward-only cursor for exports; callers must consume it inside a transaction and close it
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select t from Task t order by t.id")
+    Stream<Task> streamAll();
 }
@@ -2,12 +2,43 @@ package com.incial.crm.repository;
 
 import com.incial.crm.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("select u.id from User u where u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    @Query("select u.id from User u where u.calendarFeedTokenHash = :hash")
+    Optional<Long> findIdByCalendarFeedTokenHash(@Param("hash") String hash);
+
+    @Modifying
+    @Query("update User u set u.calendarFeedTokenHash = :hash where u.id = :id")
+    int updateCalendarFeedTokenHash(@Param("id") Long id, @Param("hash") String hash);
+
+    @Query("select u.tokenVersion from User u where u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    // keys must already be lower-cased
+    @Query("select u.id from User u where lower(u.name) in :keys or lower(u.email) in :keys")
+    List<Long> findIdsByNameOrEmail(@Param("keys") Collection<String> keys);
+
+    // Increment in SQL so concurrent completions cannot overwrite each other
+    @Modifying
+    @Query("update User u set u.tasksCompleted = u.tasksCompleted + :delta where u.email = :email")
+    int incrementTasksCompleted(@Param("email") String email, @Param("delta") int delta);
+
+    @Modifying
+    @Query("update User u set u.tasksCompleted = u.tasksCompleted + :delta where u.email in :emails")
+    int incrementTasksCompletedByEmails(@Param("emails") Collection<String> emails, @Param("delta") int delta);
 }
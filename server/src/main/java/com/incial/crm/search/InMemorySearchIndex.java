@@ -0,0 +1,228 @@
+package com.incial.crm.search;
+
+import com.incial.crm.dto.ChangeEventDto;
+import com.incial.crm.dto.SearchHitDto;
+import com.incial.crm.entity.ChangeLog;
+import com.incial.crm.entity.CrmEntry;
+import com.incial.crm.entity.Task;
+import com.incial.crm.repository.CrmEntryRepository;
+import com.incial.crm.repository.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Inverted index held in the JVM, for H2 and tests where there is no tsvector.
+ * Built from the tables at startup and updated from committed change events.
+ * Ranking follows ts_rank's default field weights (A 1.0, B 0.4, C 0.2) summed
+ * over the query words, so the order is close to Postgres' but not identical.
+ * Single-node only, like the in-memory OTP store.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "search.backend", havingValue = "memory")
+public class InMemorySearchIndex implements SearchIndex {
+
+    private static final float WEIGHT_A = 1.0f;
+    private static final float WEIGHT_B = 0.4f;
+    private static final float WEIGHT_C = 0.2f;
+
+    // Same order as the Postgres query: rank desc, type, id desc
+    private static final Comparator<Map.Entry<DocKey, Float>> RANKING = (a, b) -> {
+        int byRank = Float.compare(b.getValue(), a.getValue());
+        if (byRank != 0) {
+            return byRank;
+        }
+        int byType = a.getKey().type().compareTo(b.getKey().type());
+        return byType != 0 ? byType : Long.compare(b.getKey().id(), a.getKey().id());
+    };
+
+    private record DocKey(SearchHitDto.Type type, long id) {
+    }
+
+    private record Doc(String title, String subtitle, Map<String, Float> terms) {
+    }
+
+    private final CrmEntryRepository crmEntryRepository;
+    private final TaskRepository taskRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Map<DocKey, Doc> docs = new HashMap<>();
+    // word -> (document -> best field weight); sorted so a prefix is a sub-map
+    private final NavigableMap<String, Map<DocKey, Float>> postings = new TreeMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            docs.clear();
+            postings.clear();
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<CrmEntry> entries = crmEntryRepository.streamAll()) {
+                    entries.forEach(entry -> {
+                        put(crmKey(entry.getId()), crmDoc(entry));
+                        entityManager.detach(entry);
+                    });
+                }
+                try (Stream<Task> tasks = taskRepository.streamAll()) {
+                    tasks.forEach(task -> {
+                        put(taskKey(task.getId()), taskDoc(task));
+                        entityManager.detach(task);
+                    });
+                }
+            });
+            log.info("Built in-memory search index: {} documents, {} words", docs.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(ChangeEventDto event) {
+        // Reload rather than trust the operation: a missing row is a delete either way
+        if (event.getType() == ChangeLog.EntityType.CRM_ENTRY) {
+            Doc doc = crmEntryRepository.findById(event.getId()).map(InMemorySearchIndex::crmDoc).orElse(null);
+            replace(crmKey(event.getId()), doc);
+        } else if (event.getType() == ChangeLog.EntityType.TASK) {
+            Doc doc = taskRepository.findById(event.getId()).map(InMemorySearchIndex::taskDoc).orElse(null);
+            replace(taskKey(event.getId()), doc);
+        }
+    }
+
+    @Override
+    public List<SearchHitDto> search(SearchQuery query, Set<SearchHitDto.Type> types, int offset, int limit) {
+        if (query.isEmpty() || types.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<DocKey, Float> scores = null;
+            for (String term : query.terms()) {
+                Map<DocKey, Float> matches = new HashMap<>();
+                NavigableMap<String, Map<DocKey, Float>> prefixed =
+                        postings.subMap(term, true, term + Character.MAX_VALUE, false);
+                for (Map<DocKey, Float> posting : prefixed.values()) {
+                    posting.forEach((key, weight) -> {
+                        if (types.contains(key.type())) {
+                            matches.merge(key, weight, Math::max);
+                        }
+                    });
+                }
+                if (scores == null) {
+                    scores = matches;
+                } else {
+                    // Every word has to match
+                    scores.keySet().retainAll(matches.keySet());
+                    scores.replaceAll((key, score) -> score + matches.get(key));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return scores.entrySet().stream()
+                    .sorted(RANKING)
+                    .skip(offset)
+                    .limit(limit)
+                    .map(entry -> {
+                        Doc doc = docs.get(entry.getKey());
+                        return SearchHitDto.builder()
+                                .type(entry.getKey().type())
+                                .id(entry.getKey().id())
+                                .title(doc.title())
+                                .subtitle(doc.subtitle())
+                                .rank(entry.getValue())
+                                .build();
+                    })
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void replace(DocKey key, Doc doc) {
+        lock.writeLock().lock();
+        try {
+            remove(key);
+            if (doc != null) {
+                put(key, doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Callers hold the write lock
+    private void put(DocKey key, Doc doc) {
+        docs.put(key, doc);
+        doc.terms().forEach((word, weight) -> postings.computeIfAbsent(word, w -> new HashMap<>()).put(key, weight));
+    }
+
+    private void remove(DocKey key) {
+        Doc old = docs.remove(key);
+        if (old == null) {
+            return;
+        }
+        for (String word : old.terms().keySet()) {
+            Map<DocKey, Float> posting = postings.get(word);
+            if (posting != null && posting.remove(key) != null && posting.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+    }
+
+    private static DocKey crmKey(long id) {
+        return new DocKey(SearchHitDto.Type.CRM_ENTRY, id);
+    }
+
+    private static DocKey taskKey(long id) {
+        return new DocKey(SearchHitDto.Type.TASK, id);
+    }
+
+    private static Doc crmDoc(CrmEntry entry) {
+        Map<String, Float> terms = new HashMap<>();
+        addWords(terms, entry.getCompany(), WEIGHT_A);
+        addWords(terms, entry.getContactName(), WEIGHT_A);
+        addWords(terms, entry.getEmail(), WEIGHT_B);
+        addWords(terms, entry.getNotes(), WEIGHT_C);
+        String subtitle = entry.getContactName() != null ? entry.getContactName() : entry.getEmail();
+        return new Doc(entry.getCompany(), subtitle, terms);
+    }
+
+    private static Doc taskDoc(Task task) {
+        Map<String, Float> terms = new HashMap<>();
+        addWords(terms, task.getTitle(), WEIGHT_A);
+        addWords(terms, task.getDescription(), WEIGHT_B);
+        return new Doc(task.getTitle(), task.getStatus(), terms);
+    }
+
+    private static void addWords(Map<String, Float> terms, String text, float weight) {
+        for (String word : SearchQuery.words(text)) {
+            terms.merge(word, weight, Math::max);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.incial.crm.search;
+
+import com.incial.crm.dto.SearchHitDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Searches the generated search_vector columns (V12) through their GIN indexes.
+ * The vectors are maintained by Postgres on every write, so there is nothing to
+ * keep in sync here.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "search.backend", havingValue = "postgres", matchIfMissing = true)
+public class PostgresSearchIndex implements SearchIndex {
+
+    private static final String CRM_ENTRIES = """
+            SELECT 'CRM_ENTRY' AS type, e.id, e.company AS title, coalesce(e.contact_name, e.email) AS subtitle,
+                   ts_rank(e.search_vector, to_tsquery('simple', ?)) AS rank
+            FROM crm_entries e
+            WHERE e.search_vector @@ to_tsquery('simple', ?)""";
+
+    private static final String TASKS = """
+            SELECT 'TASK' AS type, t.id, t.title, t.status AS subtitle,
+                   ts_rank(t.search_vector, to_tsquery('simple', ?)) AS rank
+            FROM tasks t
+            WHERE t.search_vector @@ to_tsquery('simple', ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<SearchHitDto> search(SearchQuery query, Set<SearchHitDto.Type> types, int offset, int limit) {
+        if (query.isEmpty() || types.isEmpty()) {
+            return List.of();
+        }
+        String tsQuery = query.toTsQuery();
+        List<String> branches = new ArrayList<>(2);
+        List<Object> args = new ArrayList<>(6);
+        if (types.contains(SearchHitDto.Type.CRM_ENTRY)) {
+            branches.add(CRM_ENTRIES);
+            args.add(tsQuery);
+            args.add(tsQuery);
+        }
+        if (types.contains(SearchHitDto.Type.TASK)) {
+            branches.add(TASKS);
+            args.add(tsQuery);
+            args.add(tsQuery);
+        }
+        args.add(limit);
+        args.add(offset);
+
+        String sql = String.join("\nUNION ALL\n", branches) + "\nORDER BY rank DESC, type, id DESC LIMIT ? OFFSET ?";
+        return jdbcTemplate.query(sql, (rs, row) -> SearchHitDto.builder()
+                .type(SearchHitDto.Type.valueOf(rs.getString("type")))
+                .id(rs.getLong("id"))
+                .title(rs.getString("title"))
+                .subtitle(rs.getString("subtitle"))
+                .rank(rs.getFloat("rank"))
+                .build(), args.toArray());
+    }
+}
@@ -0,0 +1,19 @@
+package com.incial.crm.search;
+
+import com.incial.crm.dto.SearchHitDto;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Full-text index over CRM entries (company, contact, email, notes) and tasks
+ * (title, description). Hits are ordered by rank, best first, then by type and
+ * newest id so paging is stable.
+ */
+public interface SearchIndex {
+
+    /**
+     * Returns up to {@code limit} hits of the given types, skipping the first {@code offset}.
+     */
+    List<SearchHitDto> search(SearchQuery query, Set<SearchHitDto.Type> types, int offset, int limit);
+}
@@ -0,0 +1,55 @@
+package com.incial.crm.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed search input: lower-cased words, each matched as a prefix, all of which
+ * must match. A word is a run of letters and digits, so emails, hosts and
+ * hyphenated names split into their parts. Postgres's parser would keep those
+ * whole; V12 breaks the indexed text at the same punctuation, so both backends
+ * hold the same words and a query finds the same rows on either.
+ */
+public record SearchQuery(List<String> terms) {
+
+    static final int MAX_TERMS = 8;
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    public static SearchQuery parse(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String word : words(text)) {
+            if (terms.size() == MAX_TERMS) {
+                break;
+            }
+            terms.add(word);
+        }
+        return new SearchQuery(List.copyOf(terms));
+    }
+
+    public boolean isEmpty() {
+        return terms.isEmpty();
+    }
+
+    /** to_tsquery input; words contain only letters and digits, so no escaping is needed. */
+    String toTsQuery() {
+        return String.join(" & ", terms.stream().map(term -> term + ":*").toList());
+    }
+
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        Matcher matcher = WORD.matcher(text.toLowerCase(Locale.ROOT));
+        while (matcher.find()) {
+            words.add(matcher.group());
+        }
+        return words;
+    }
+}
@@ -1,5 +1,7 @@
 package com.incial.crm.security;
 
+import com.incial.crm.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,8 +10,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -21,7 +21,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // EventSource cannot send headers, so this path alone takes a short-lived ?ticket=
+    private static final String LIVE_STREAM_PATH = "/api/v1/live/stream";
+
     private final JwtUtil jwtUtil;
+    private final UserService userService;
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
@@ -41,39 +45,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        String authHeader = request.getHeader("Authorization");
-
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        // Validate token WITHOUT DB; verified once and cached until expiry
+        Claims claims = resolveClaims(request);
+        if (claims == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        String token = authHeader.substring(7);
+        JwtPrincipal principal = JwtPrincipal.fromClaims(claims);
 
-        // Validate token WITHOUT DB
-        if (!jwtUtil.isTokenValid(token)) {
+        // Revoked tokens (password reset, role change, deleted user) are ignored; the
+        // version lookup is cached, so this is normally not a database call
+        if (!principal.isLegacy()
+                && !userService.isTokenVersionCurrent(principal.getUserId(), principal.getTokenVersion())) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        // Extract claims
-        String email = jwtUtil.extractUserName(token);
-        String role = jwtUtil.extractRole(token); // MUST come from JWT
-
-        if (email != null &&
+        if (principal.getEmail() != null &&
                 SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            UserDetails userDetails = new User(
-                    email,
-                    "",
-                    List.of(new SimpleGrantedAuthority(role))
-            );
-
             UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal,
                             null,
-                            userDetails.getAuthorities()
+                            List.of(new SimpleGrantedAuthority(principal.getRole())) // MUST come from JWT
                     );
 
             authentication.setDetails(
@@ -86,4 +82,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private Claims resolveClaims(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return jwtUtil.parseClaims(authHeader.substring(7));
+        }
+        // Never the real token: URLs end up in access logs and browser history
+        if (LIVE_STREAM_PATH.equals(request.getServletPath())) {
+            String ticket = request.getParameter("ticket");
+            return ticket == null || ticket.isBlank() ? null : jwtUtil.parseStreamTicket(ticket);
+        }
+        return null;
+    }
 }
\ No newline at end of file
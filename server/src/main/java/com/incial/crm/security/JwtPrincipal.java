@@ -0,0 +1,86 @@
+package com.incial.crm.security;
+
+import com.incial.crm.entity.User;
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The authenticated user as carried by the JWT, so requests can be served without
+ * loading the user row. {@link #toClaims()} and {@link #fromClaims(Claims)} are the
+ * single place that maps fields to claim names; add new claims here.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class JwtPrincipal implements Principal {
+
+    static final String ROLE = "role";
+    static final String USER_ID = "uid";
+    static final String CLIENT_CRM_ID = "crm";
+    static final String NAME = "name";
+    static final String TOKEN_VERSION = "ver";
+
+    private final String email;
+    private final String role;
+    private final Long userId;       // null for tokens issued before the claim existed
+    private final Long clientCrmId;  // null unless a client user linked to a CRM entry
+    private final String displayName;
+    private final int tokenVersion;
+
+    public static JwtPrincipal from(User user) {
+        return JwtPrincipal.builder()
+                .email(user.getEmail())
+                .role(user.getRole())
+                .userId(user.getId())
+                .clientCrmId(user.getClientCrmId())
+                .displayName(user.getName())
+                .tokenVersion(user.getTokenVersion() == null ? 0 : user.getTokenVersion())
+                .build();
+    }
+
+    public static JwtPrincipal fromClaims(Claims claims) {
+        Long version = longClaim(claims, TOKEN_VERSION);
+        return JwtPrincipal.builder()
+                .email(claims.getSubject())
+                .role(claims.get(ROLE, String.class))
+                .userId(longClaim(claims, USER_ID))
+                .clientCrmId(longClaim(claims, CLIENT_CRM_ID))
+                .displayName(claims.get(NAME, String.class))
+                .tokenVersion(version == null ? 0 : version.intValue())
+                .build();
+    }
+
+    /** Claims besides the subject (the email). Absent values are left out. */
+    public Map<String, Object> toClaims() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLE, role);
+        if (userId != null) claims.put(USER_ID, userId);
+        if (clientCrmId != null) claims.put(CLIENT_CRM_ID, clientCrmId);
+        if (displayName != null) claims.put(NAME, displayName);
+        claims.put(TOKEN_VERSION, tokenVersion);
+        return claims;
+    }
+
+    /** Tokens from before user ids were embedded; they cannot be version-checked. */
+    public boolean isLegacy() {
+        return userId == null;
+    }
+
+    // Authentication.getName() resolves to this, so existing callers keep getting the email
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    // JSON numbers come back as Integer or Long depending on their size
+    private static Long longClaim(Claims claims, String name) {
+        Object value = claims.get(name);
+        return value instanceof Number number ? number.longValue() : null;
+    }
+}
@@ -1,76 +1,194 @@
 package com.incial.crm.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.incial.crm.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
 
 @Service
+@RequiredArgsConstructor
 public class JwtUtil {
     private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 24 * 2; // 2 days
+    private static final long STREAM_TICKET_TIME = 1000 * 30; // 30 seconds
+    private static final String STREAM_AUDIENCE = "live-stream";
+
+    private final MeterRegistry meterRegistry;
 
     @Value("${jwt.secret}")
     private String secretString;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
     private SecretKey key;
 
+    // Immutable and thread-safe, so built once instead of per extraction
+    private JwtParser parser;
+    private JwtParser streamTicketParser;
+
+    // Verified claims keyed by SHA-256 of the token; entries die with the token
+    private Cache<String, Claims> claimsCache;
+
     @PostConstruct
     public void init() {
         byte[] keyBytes = Decoders.BASE64.decode(secretString);
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+        this.streamTicketParser = Jwts.parser()
+                .verifyWith(key)
+                .requireAudience(STREAM_AUDIENCE)
+                .build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "jwt.claims");
     }
 
-    // Generate token WITH role
-    public String generateToken(String email, String role) {
+    // Generate token carrying the claims of JwtPrincipal
+    public String generateToken(User user) {
+        JwtPrincipal principal = JwtPrincipal.from(user);
         return Jwts.builder()
-                .subject(email)
-                .claim("role", role)
+                .subject(principal.getEmail())
+                .claims(principal.toClaims())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
                 .signWith(key)
                 .compact();
     }
 
+    /**
+     * Ticket for opening the live stream. EventSource cannot send an Authorization
+     * header, so this goes in the URL instead of the real token: it lives 30 seconds
+     * and is only accepted by {@link #parseStreamTicket(String)}.
+     */
+    public String generateStreamTicket(JwtPrincipal principal) {
+        return Jwts.builder()
+                .subject(principal.getEmail())
+                .claims(principal.toClaims())
+                .audience().add(STREAM_AUDIENCE).and()
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + STREAM_TICKET_TIME))
+                .signWith(key)
+                .compact();
+    }
+
+    // ------------------ PARSING ------------------
+
+    /**
+     * Verifies the token once and returns its claims, or null when the token is
+     * malformed, badly signed or expired. Verified tokens are served from cache
+     * until they expire, so repeated requests skip the HMAC check.
+     */
+    public Claims parseClaims(String token) {
+        String cacheKey = hash(token);
+        Claims claims = claimsCache.getIfPresent(cacheKey);
+        if (claims != null) {
+            return claims;
+        }
+
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        // Stream tickets are not bearer tokens
+        if (claims.getAudience() != null && claims.getAudience().contains(STREAM_AUDIENCE)) {
+            return null;
+        }
+
+        if (claims.getExpiration() != null) {
+            claimsCache.put(cacheKey, claims);
+        }
+        return claims;
+    }
+
+    /** Claims of a valid, unexpired stream ticket, or null. Not cached: tickets are used once. */
+    public Claims parseStreamTicket(String ticket) {
+        try {
+            return streamTicketParser.parseSignedClaims(ticket).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     // ------------------ EXTRACTION ------------------
 
     public String extractUserName(String token) {
-        return extractClaim(token, Claims::getSubject);
+        Claims claims = parseClaims(token);
+        return claims == null ? null : claims.getSubject();
     }
 
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
+        Claims claims = parseClaims(token);
+        return claims == null ? null : claims.get(JwtPrincipal.ROLE, String.class);
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        Claims claims = parseClaims(token);
+        return claims == null ? null : claims.getExpiration();
     }
 
     // ------------------ VALIDATION ------------------
 
     public boolean isTokenValid(String token) {
+        return parseClaims(token) != null;
+    }
+
+    // ------------------ INTERNAL ------------------
+
+    private static String hash(String token) {
         try {
-            return !extractExpiration(token).before(new Date());
-        } catch (Exception e) {
-            return false;
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hashed = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hashed);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
-    // ------------------ INTERNAL ------------------
+    /**
+     * Keeps each cache entry exactly as long as the token's own exp claim.
+     */
+    private static class TokenExpiry implements Expiry<String, Claims> {
 
-    private <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
 
-        return resolver.apply(claims);
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
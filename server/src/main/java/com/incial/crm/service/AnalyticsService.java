@@ -0,0 +1,320 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.AnalyticsSummaryDto;
+import com.incial.crm.dto.CollectionVersion;
+import com.incial.crm.dto.PipelineStageDto;
+import com.incial.crm.dto.ThroughputPointDto;
+import com.incial.crm.dto.WorkloadDto;
+import com.incial.crm.entity.AnalyticsRefresh;
+import com.incial.crm.entity.AnalyticsSummary;
+import com.incial.crm.entity.AnalyticsSummary.Metric;
+import com.incial.crm.entity.ChangeLog;
+import com.incial.crm.repository.AnalyticsRefreshRepository;
+import com.incial.crm.repository.AnalyticsSummaryRepository;
+import com.incial.crm.repository.CrmEntryRepository;
+import com.incial.crm.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Dashboard aggregates computed with grouped SQL and kept in analytics_summary,
+ * so the Analytics and Performance pages read a few dozen rows instead of
+ * downloading every CRM entry and task.
+ *
+ * <p>A periodic refresh is skipped when neither table changed. When they did,
+ * pipeline, workload and overdue figures are recomputed outright (one GROUP BY
+ * each) while weekly throughput is recomputed only for the weeks touched since
+ * the previous refresh. A nightly full rebuild picks up date rollover and
+ * deletions.
+ *
+ * <p>The in-process lock only stops overlapping refreshes on one node; each refresh
+ * transaction also locks the analytics_refresh row, so nodes sharing the database
+ * replace the summary rows one after another.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnalyticsService {
+
+    private final AnalyticsSummaryRepository summaryRepository;
+    private final AnalyticsRefreshRepository refreshRepository;
+    private final CrmEntryRepository crmEntryRepository;
+    private final TaskRepository taskRepository;
+    private final ChangeLogService changeLogService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${analytics.throughput.retention-weeks:52}")
+    private int retentionWeeks;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile CollectionVersion lastTaskVersion;
+    private volatile CollectionVersion lastCrmVersion;
+    private volatile LocalDate lastRefreshDate;
+    private volatile LocalDateTime refreshedAt;
+
+    public List<PipelineStageDto> getPipeline() {
+        ensureInitialized();
+        return summaryRepository.findByMetric(Metric.PIPELINE).stream()
+                .map(row -> PipelineStageDto.builder()
+                        .status(row.getDimension())
+                        .count(row.getItemCount())
+                        .totalValue(row.getTotalValue())
+                        .build())
+                .sorted(Comparator.comparing(PipelineStageDto::getStatus))
+                .toList();
+    }
+
+    public List<WorkloadDto> getWorkload() {
+        ensureInitialized();
+        Map<String, WorkloadDto> byAssignee = new LinkedHashMap<>();
+        for (AnalyticsSummary row : summaryRepository.findByMetric(Metric.WORKLOAD)) {
+            WorkloadDto dto = byAssignee.computeIfAbsent(row.getDimension(), this::emptyWorkload);
+            long count = row.getItemCount();
+            dto.setTotal(dto.getTotal() + count);
+            switch (TaskStatusGroup.valueOf(row.getSubDimension())) {
+                case COMPLETED -> dto.setCompleted(dto.getCompleted() + count);
+                case IN_PROGRESS -> dto.setInProgress(dto.getInProgress() + count);
+                case NOT_STARTED -> dto.setNotStarted(dto.getNotStarted() + count);
+                default -> { }
+            }
+        }
+        for (AnalyticsSummary row : summaryRepository.findByMetric(Metric.OVERDUE)) {
+            byAssignee.computeIfAbsent(row.getDimension(), this::emptyWorkload).setOverdue(row.getItemCount());
+        }
+        List<WorkloadDto> result = new ArrayList<>(byAssignee.values());
+        result.sort(Comparator.comparing(WorkloadDto::getAssignee));
+        return result;
+    }
+
+    public long getOverdueTotal() {
+        ensureInitialized();
+        return summaryRepository.findByMetric(Metric.OVERDUE).stream()
+                .mapToLong(AnalyticsSummary::getItemCount)
+                .sum();
+    }
+
+    public List<ThroughputPointDto> getThroughput(int weeks) {
+        ensureInitialized();
+        int span = Math.max(1, Math.min(weeks, retentionWeeks));
+        LocalDate from = weekStart(LocalDate.now()).minusWeeks(span - 1L);
+        return summaryRepository
+                .findByMetricAndBucketStartGreaterThanEqualOrderByBucketStartAscDimensionAsc(Metric.THROUGHPUT, from)
+                .stream()
+                .map(row -> ThroughputPointDto.builder()
+                        .assignee(row.getDimension())
+                        .weekStart(row.getBucketStart())
+                        .completed(row.getItemCount())
+                        .build())
+                .toList();
+    }
+
+    public AnalyticsSummaryDto getSummary(int weeks) {
+        return AnalyticsSummaryDto.builder()
+                .pipeline(getPipeline())
+                .workload(getWorkload())
+                .throughput(getThroughput(weeks))
+                .overdueTotal(getOverdueTotal())
+                .refreshedAt(refreshedAt)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.refresh-interval-ms:300000}",
+               initialDelayString = "${analytics.initial-delay-ms:30000}")
+    public void refreshChanged() {
+        refresh(false);
+    }
+
+    // Overdue counts depend on today's date, so rebuild once the day rolls over
+    @Scheduled(cron = "${analytics.full-refresh-cron:0 5 0 * * *}")
+    public void refreshAll() {
+        refresh(true);
+    }
+
+    /**
+     * Recomputes the summary rows. Returns false when another refresh was already
+     * running or nothing changed since the previous one.
+     */
+    public boolean refresh(boolean full) {
+        if (!refreshLock.tryLock()) {
+            return false;
+        }
+        try {
+            CollectionVersion taskVersion = changeLogService.collectionVersion(ChangeLog.EntityType.TASK,
+                    taskRepository.findMaxLastUpdatedAt());
+            CollectionVersion crmVersion = changeLogService.collectionVersion(ChangeLog.EntityType.CRM_ENTRY,
+                    crmEntryRepository.findMaxLastUpdatedAt());
+            LocalDate today = LocalDate.now();
+            boolean initialized = lastTaskVersion != null;
+            if (!full && initialized
+                    && taskVersion.equals(lastTaskVersion)
+                    && crmVersion.equals(lastCrmVersion)
+                    && today.equals(lastRefreshDate)) {
+                return false;
+            }
+
+            boolean rebuildThroughput = full || !initialized || !today.equals(lastRefreshDate)
+                    || !Objects.equals(taskVersion.getLastDeleteSeq(), lastTaskVersion.getLastDeleteSeq());
+            LocalDateTime since = initialized ? lastTaskVersion.getLastUpdatedAt() : null;
+            LocalDateTime now = LocalDateTime.now();
+
+            transactionTemplate.executeWithoutResult(status -> {
+                // Schemas created by Hibernate (H2, tests) have no seeded row
+                AnalyticsRefresh marker = refreshRepository.lockForRefresh()
+                        .orElseGet(() -> refreshRepository.saveAndFlush(new AnalyticsRefresh(AnalyticsRefresh.ID, null)));
+                marker.setRefreshedAt(now);
+                replacePipeline(now);
+                replaceWorkload(today, now);
+                if (rebuildThroughput || since == null) {
+                    rebuildThroughput(today, now);
+                } else {
+                    refreshThroughputWeeks(touchedWeeks(since, today), now);
+                }
+            });
+
+            lastTaskVersion = taskVersion;
+            lastCrmVersion = crmVersion;
+            lastRefreshDate = today;
+            refreshedAt = now;
+            log.debug("Analytics summary refreshed (full={})", rebuildThroughput);
+            return true;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void ensureInitialized() {
+        if (lastTaskVersion == null) {
+            refresh(true);
+        }
+    }
+
+    private void replacePipeline(LocalDateTime now) {
+        summaryRepository.deleteByMetric(Metric.PIPELINE);
+        List<AnalyticsSummary> rows = new ArrayList<>();
+        for (Object[] row : crmEntryRepository.summarizeByStatus()) {
+            rows.add(AnalyticsSummary.builder()
+                    .metric(Metric.PIPELINE)
+                    .dimension((String) row[0])
+                    .itemCount(((Number) row[1]).longValue())
+                    .totalValue(toBigDecimal(row[2]))
+                    .refreshedAt(now)
+                    .build());
+        }
+        summaryRepository.saveAll(rows);
+    }
+
+    private void replaceWorkload(LocalDate today, LocalDateTime now) {
+        summaryRepository.deleteByMetric(Metric.WORKLOAD);
+        summaryRepository.deleteByMetric(Metric.OVERDUE);
+
+        // Several raw statuses fold into one group, so merge before writing
+        Map<String, Map<TaskStatusGroup, Long>> workload = new HashMap<>();
+        for (Object[] row : taskRepository.countByAssigneeAndStatus()) {
+            workload.computeIfAbsent((String) row[0], k -> new HashMap<>())
+                    .merge(TaskStatusGroup.of((String) row[1]), ((Number) row[2]).longValue(), Long::sum);
+        }
+        List<AnalyticsSummary> rows = new ArrayList<>();
+        workload.forEach((assignee, groups) -> groups.forEach((group, count) ->
+                rows.add(AnalyticsSummary.builder()
+                        .metric(Metric.WORKLOAD)
+                        .dimension(assignee)
+                        .subDimension(group.name())
+                        .itemCount(count)
+                        .refreshedAt(now)
+                        .build())));
+
+        for (Object[] row : taskRepository.countOverdueByAssignee(today, TaskStatusGroup.COMPLETED.statuses())) {
+            rows.add(AnalyticsSummary.builder()
+                    .metric(Metric.OVERDUE)
+                    .dimension((String) row[0])
+                    .itemCount(((Number) row[1]).longValue())
+                    .refreshedAt(now)
+                    .build());
+        }
+        summaryRepository.saveAll(rows);
+    }
+
+    private void rebuildThroughput(LocalDate today, LocalDateTime now) {
+        summaryRepository.deleteByMetric(Metric.THROUGHPUT);
+        LocalDate from = weekStart(today).minusWeeks(retentionWeeks - 1L);
+        LocalDate to = weekStart(today).plusWeeks(1);
+        summaryRepository.saveAll(throughputRows(from, to, now));
+    }
+
+    private void refreshThroughputWeeks(TreeSet<LocalDate> weeks, LocalDateTime now) {
+        summaryRepository.deleteByMetricAndBuckets(Metric.THROUGHPUT, weeks);
+        List<AnalyticsSummary> rows = new ArrayList<>();
+        // Touched weeks are usually just the current one, so query each separately
+        for (LocalDate week : weeks) {
+            rows.addAll(throughputRows(week, week.plusWeeks(1), now));
+        }
+        summaryRepository.saveAll(rows);
+    }
+
+    private TreeSet<LocalDate> touchedWeeks(LocalDateTime since, LocalDate today) {
+        LocalDate oldest = weekStart(today).minusWeeks(retentionWeeks - 1L);
+        TreeSet<LocalDate> weeks = new TreeSet<>();
+        weeks.add(weekStart(today));
+        for (LocalDate day : taskRepository.findCompletionDaysUpdatedSince(since)) {
+            LocalDate week = weekStart(day);
+            if (!week.isBefore(oldest)) {
+                weeks.add(week);
+            }
+        }
+        return weeks;
+    }
+
+    private List<AnalyticsSummary> throughputRows(LocalDate from, LocalDate to, LocalDateTime now) {
+        Map<String, Map<LocalDate, Long>> counts = new HashMap<>();
+        for (Object[] row : taskRepository.countCompletedByAssigneeAndDay(from.atStartOfDay(), to.atStartOfDay())) {
+            LocalDate week = weekStart((LocalDate) row[1]);
+            counts.computeIfAbsent((String) row[0], k -> new HashMap<>())
+                    .merge(week, ((Number) row[2]).longValue(), Long::sum);
+        }
+        List<AnalyticsSummary> rows = new ArrayList<>();
+        counts.forEach((assignee, weeks) -> weeks.forEach((week, count) ->
+                rows.add(AnalyticsSummary.builder()
+                        .metric(Metric.THROUGHPUT)
+                        .dimension(assignee)
+                        .bucketStart(week)
+                        .itemCount(count)
+                        .refreshedAt(now)
+                        .build())));
+        return rows;
+    }
+
+    private WorkloadDto emptyWorkload(String assignee) {
+        return WorkloadDto.builder().assignee(assignee).build();
+    }
+
+    private static LocalDate weekStart(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return value == null ? BigDecimal.ZERO : new BigDecimal(Objects.toString(value));
+    }
+}
@@ -2,8 +2,6 @@ package com.incial.crm.service;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
 import com.incial.crm.dto.GoogleLoginRequest;
 import com.incial.crm.dto.LoginRequest;
 import com.incial.crm.dto.LoginResponse;
@@ -18,6 +16,8 @@ import com.incial.crm.dto.ForgotPasswordRequest;
 import com.incial.crm.dto.VerifyOtpRequest;
 import com.incial.crm.dto.ChangePasswordRequest;
 import com.incial.crm.dto.ApiResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -30,7 +30,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
-import java.util.Collections;
 
 @Slf4j
 @Service
@@ -38,15 +37,20 @@ import java.util.Collections;
 public class AuthService {
 
     private final UserRepository userRepository;
+    private final UserService userService;
+    private final TaskService taskService;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
     private final PasswordEncoder passwordEncoder;
     private final OtpService otpService;
+    private final GoogleIdTokenVerifier googleIdTokenVerifier;
+    private final MeterRegistry meterRegistry;
 
     @Value("${google.client.id}")
     private String googleClientId;
 
 
+    @Transactional
     public RegisterResponse register(RegisterRequest request) {
         // Check if user already exists
         if (userRepository.existsByEmail(request.getEmail())) {
@@ -76,6 +80,8 @@ public class AuthService {
                 .build();
 
         User savedUser = userRepository.save(user);
+        // Tasks may already be assigned to this name or email
+        taskService.linkAssignee(savedUser);
 
         UserDto userDto = UserDto.builder()
                 .id(savedUser.getId())
@@ -103,7 +109,7 @@ public class AuthService {
             User user = userRepository.findByEmail(request.getEmail())
                     .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-            String token = jwtUtil.generateToken(user.getEmail(),user.getRole());
+            String token = jwtUtil.generateToken(user);
 
             UserDto userDto = UserDto.builder()
                     .id(user.getId())
@@ -129,6 +135,22 @@ public class AuthService {
     }
 
     public LoginResponse loginWithGoogle(GoogleLoginRequest request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            LoginResponse response = doLoginWithGoogle(request);
+            outcome = "success";
+            return response;
+        } finally {
+            sample.stop(Timer.builder("auth.google.login")
+                    .description("Google sign-in latency, including token verification")
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+        }
+    }
+
+    private LoginResponse doLoginWithGoogle(GoogleLoginRequest request) {
         try {
             log.debug("Processing Google login request");
 
@@ -138,14 +160,8 @@ public class AuthService {
                 throw new IllegalStateException("Google authentication is not properly configured. Please contact the administrator.");
             }
 
-            // Verify Google ID token
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-                    new NetHttpTransport(),
-                    GsonFactory.getDefaultInstance())
-                    .setAudience(Collections.singletonList(googleClientId))
-                    .build();
-
-            GoogleIdToken idToken = verifier.verify(request.getCredential());
+            // Verify Google ID token (shared verifier, cached signing keys)
+            GoogleIdToken idToken = googleIdTokenVerifier.verify(request.getCredential());
             if (idToken == null) {
                 log.error("Google token verification failed - invalid token");
                 throw new RuntimeException("Invalid Google ID token");
@@ -174,9 +190,10 @@ public class AuthService {
             }
             if (needsUpdate) {
                 userRepository.save(user);
+                userService.evictUser(user.getEmail());
             }
 
-            String token = jwtUtil.generateToken(user.getEmail(),user.getRole());
+            String token = jwtUtil.generateToken(user);
 
             UserDto userDto = UserDto.builder()
                     .id(user.getId())
@@ -253,8 +270,11 @@ public class AuthService {
         user.setPasswordHash(
                 passwordEncoder.encode(request.getNewPassword())
         );
+        // Signs the user out everywhere: tokens issued before the reset stop working
+        user.bumpTokenVersion();
         // no save needed if User is managed, but save is fine
         userRepository.save(user);
+        userService.evictUser(user);
 
 
 
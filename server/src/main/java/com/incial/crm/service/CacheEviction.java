@@ -0,0 +1,27 @@
+package com.incial.crm.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Write-through invalidation for the in-process caches. An eviction runs at once and
+ * again after the surrounding transaction commits, so a read that races the
+ * transaction cannot leave the pre-commit row cached.
+ */
+final class CacheEviction {
+
+    private CacheEviction() {
+    }
+
+    static void evict(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
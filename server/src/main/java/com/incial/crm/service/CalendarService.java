@@ -0,0 +1,294 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.CalendarItemDto;
+import com.incial.crm.dto.CollectionVersion;
+import com.incial.crm.dto.MeetingSummaryDto;
+import com.incial.crm.dto.TaskSummaryDto;
+import com.incial.crm.entity.ChangeLog;
+import com.incial.crm.entity.User;
+import com.incial.crm.repository.MeetingRepository;
+import com.incial.crm.repository.TaskRepository;
+import com.incial.crm.repository.UserRepository;
+import com.incial.crm.security.JwtPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Meetings and task due dates inside a date window, merged into one list ordered
+ * by start. Both sides are range queries on indexed columns, so the cost follows
+ * the size of the window rather than the whole history.
+ *
+ * <p>Calendar apps subscribe to a plain URL and cannot send the bearer token, so
+ * each user can also be issued a feed token: a random secret that goes in the URL,
+ * stored only as its SHA-256 and revoked by issuing a new one or clearing it.
+ */
+@Service
+@RequiredArgsConstructor
+public class CalendarService {
+
+    static final int MAX_WINDOW_DAYS = 366;
+
+    // Meetings have no end time; feeds show them as one-hour events
+    private static final String MEETING_DURATION = "PT1H";
+
+    private static final DateTimeFormatter ICS_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter ICS_UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final int ICS_LINE_OCTETS = 75;
+
+    // Window served to subscribed calendar apps, which cannot pass from/to
+    private static final int FEED_DAYS_BACK = 30;
+    private static final int FEED_DAYS_AHEAD = 180;
+    private static final int FEED_TOKEN_BYTES = 32;
+    private static final SecureRandom random = new SecureRandom();
+
+    private final MeetingRepository meetingRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final ChangeLogService changeLogService;
+
+    /**
+     * Version of the meetings and tasks collections as a whole, for the ETag. A version
+     * over just the window would miss a row that moved out of it without a newer edit
+     * left inside, and a count over the window costs as much as the query it guards.
+     */
+    public CollectionVersion getVersion(LocalDate from, LocalDate to) {
+        checkWindow(from, to);
+        CollectionVersion meetings = changeLogService.collectionVersion(ChangeLog.EntityType.MEETING,
+                meetingRepository.findMaxLastUpdatedAt());
+        CollectionVersion tasks = changeLogService.collectionVersion(ChangeLog.EntityType.TASK,
+                taskRepository.findMaxLastUpdatedAt());
+        return new CollectionVersion(latest(meetings.getLastUpdatedAt(), tasks.getLastUpdatedAt()),
+                latestSeq(meetings.getLastDeleteSeq(), tasks.getLastDeleteSeq()));
+    }
+
+    /**
+     * Items in [from, to); on the same start, all-day tasks come before meetings. With
+     * an assignee, tasks are those the user is one of the assignees of and meetings
+     * those assigned to the user's name or email.
+     */
+    @Transactional(readOnly = true)
+    public List<CalendarItemDto> getItems(LocalDate from, LocalDate to, Long assigneeId) {
+        checkWindow(from, to);
+        List<MeetingSummaryDto> meetings;
+        List<TaskSummaryDto> tasks;
+        if (assigneeId == null) {
+            meetings = meetingRepository.findSummariesBetween(from.atStartOfDay(), to.atStartOfDay());
+            tasks = taskRepository.findSummariesDueBetween(from, to);
+        } else {
+            User user = userRepository.findById(assigneeId)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown assignee: " + assigneeId));
+            List<String> keys = Stream.of(user.getName(), user.getEmail())
+                    .filter(Objects::nonNull)
+                    .map(key -> key.trim().toLowerCase(Locale.ROOT))
+                    .toList();
+            meetings = meetingRepository.findSummariesBetweenForAssignee(
+                    from.atStartOfDay(), to.atStartOfDay(), keys);
+            tasks = taskRepository.findSummariesDueBetweenForAssignee(from, to, assigneeId);
+        }
+
+        // Both lists arrive sorted by start, so a single merge pass orders them
+        List<CalendarItemDto> items = new ArrayList<>(meetings.size() + tasks.size());
+        int m = 0;
+        int t = 0;
+        while (m < meetings.size() || t < tasks.size()) {
+            boolean takeTask = m == meetings.size()
+                    || (t < tasks.size()
+                    && !tasks.get(t).getDueDate().atStartOfDay().isAfter(meetings.get(m).getDateTime()));
+            items.add(takeTask ? fromTask(tasks.get(t++)) : fromMeeting(meetings.get(m++)));
+        }
+        return items;
+    }
+
+    /** The subscribed feed of the token's owner, or empty when the token is unknown or revoked. */
+    @Transactional(readOnly = true)
+    public Optional<String> getFeed(String token) {
+        return userRepository.findIdByCalendarFeedTokenHash(hash(token)).map(userId -> {
+            LocalDate today = LocalDate.now();
+            return toICalendar(getItems(today.minusDays(FEED_DAYS_BACK), today.plusDays(FEED_DAYS_AHEAD), userId));
+        });
+    }
+
+    /** Issues a new feed token for the caller, revoking the previous one. Returned once, never stored. */
+    @Transactional
+    public String issueFeedToken(JwtPrincipal principal) {
+        byte[] secret = new byte[FEED_TOKEN_BYTES];
+        random.nextBytes(secret);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+        userRepository.updateCalendarFeedTokenHash(userIdOf(principal), hash(token));
+        return token;
+    }
+
+    @Transactional
+    public void revokeFeedToken(JwtPrincipal principal) {
+        userRepository.updateCalendarFeedTokenHash(userIdOf(principal), null);
+    }
+
+    /** RFC 5545 calendar with one VEVENT per item. */
+    public String toICalendar(List<CalendarItemDto> items) {
+        StringBuilder out = new StringBuilder(256 + items.size() * 256);
+        line(out, "BEGIN:VCALENDAR");
+        line(out, "VERSION:2.0");
+        line(out, "PRODID:-//Incial//WorkHub//EN");
+        line(out, "CALSCALE:GREGORIAN");
+        line(out, "X-WR-CALNAME:WorkHub");
+        for (CalendarItemDto item : items) {
+            line(out, "BEGIN:VEVENT");
+            line(out, "UID:" + item.getType().name().toLowerCase(Locale.ROOT) + "-" + item.getId() + "@workhub.incial");
+            line(out, "DTSTAMP:" + utc(item.getLastUpdatedAt() != null ? item.getLastUpdatedAt() : item.getStart()));
+            if (item.isAllDay()) {
+                line(out, "DTSTART;VALUE=DATE:" + ICS_DATE.format(item.getStart()));
+            } else {
+                line(out, "DTSTART:" + utc(item.getStart()));
+                line(out, "DURATION:" + MEETING_DURATION);
+            }
+            line(out, "SUMMARY:" + escape(item.getTitle()));
+            line(out, "CATEGORIES:" + item.getType().name());
+            String description = describe(item);
+            if (!description.isEmpty()) {
+                line(out, "DESCRIPTION:" + escape(description));
+            }
+            line(out, "END:VEVENT");
+        }
+        line(out, "END:VCALENDAR");
+        return out.toString();
+    }
+
+    private static CalendarItemDto fromMeeting(MeetingSummaryDto meeting) {
+        return CalendarItemDto.builder()
+                .type(CalendarItemDto.Type.MEETING)
+                .id(meeting.getId())
+                .title(meeting.getTitle())
+                .start(meeting.getDateTime())
+                .allDay(false)
+                .status(meeting.getStatus())
+                .assignedTo(meeting.getAssignedTo())
+                .companyId(meeting.getCrmEntryId())
+                .lastUpdatedAt(meeting.getLastUpdatedAt())
+                .build();
+    }
+
+    private static CalendarItemDto fromTask(TaskSummaryDto task) {
+        return CalendarItemDto.builder()
+                .type(CalendarItemDto.Type.TASK)
+                .id(task.getId())
+                .title(task.getTitle())
+                .start(task.getDueDate().atStartOfDay())
+                .allDay(true)
+                .status(task.getStatus())
+                .priority(task.getPriority())
+                .assignedTo(task.getAssignedTo())
+                .companyId(task.getCompanyId())
+                .lastUpdatedAt(task.getLastUpdatedAt())
+                .build();
+    }
+
+    private static void checkWindow(LocalDate from, LocalDate to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Calendar window needs from < to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Calendar window is limited to " + MAX_WINDOW_DAYS + " days");
+        }
+    }
+
+    // Tokens issued before the uid claim existed carry only the email
+    private Long userIdOf(JwtPrincipal principal) {
+        if (principal.getUserId() != null) {
+            return principal.getUserId();
+        }
+        return userRepository.findIdByEmail(principal.getEmail())
+                .orElseThrow(() -> new RuntimeException("User not found with email: " + principal.getEmail()));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] hashed = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hashed);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
+    // Seqs come from one sequence across entity types, so the larger is the later delete
+    private static Long latestSeq(Long a, Long b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null ? a : Math.max(a, b);
+    }
+
+    private static String describe(CalendarItemDto item) {
+        List<String> parts = new ArrayList<>(3);
+        if (item.getStatus() != null) {
+            parts.add("Status: " + item.getStatus());
+        }
+        if (item.getPriority() != null) {
+            parts.add("Priority: " + item.getPriority());
+        }
+        if (item.getAssignedTo() != null) {
+            parts.add("Assigned to: " + item.getAssignedTo());
+        }
+        return String.join("\n", parts);
+    }
+
+    // Timestamps are stored in server-local time (see ConditionalGet); feeds carry UTC
+    private static String utc(LocalDateTime value) {
+        return ICS_UTC.format(value.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC));
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n")
+                .replace("\r", "");
+    }
+
+    // Content lines are folded at 75 octets without splitting a UTF-8 sequence
+    private static void line(StringBuilder out, String content) {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int length = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + length > ICS_LINE_OCTETS) {
+                out.append("\r\n ");
+                octets = 1;
+            }
+            out.appendCodePoint(codePoint);
+            octets += length;
+            i += Character.charCount(codePoint);
+        }
+        out.append("\r\n");
+    }
+}
@@ -0,0 +1,196 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.ChangeEventDto;
+import com.incial.crm.dto.CollectionVersion;
+import com.incial.crm.entity.ChangeLog;
+import com.incial.crm.repository.ChangeLogRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records entity changes for delta sync. Services call {@link #recordUpsert} and
+ * {@link #recordDelete} inside their own transaction so a change is logged iff it
+ * commits. Each change is also published as a {@link ChangeEventDto}; listeners
+ * that push it to clients should run after commit.
+ * <p>
+ * The rows are written just before the transaction commits, not when the change is
+ * made, so a seq is taken as late as possible. However long a transaction runs, the
+ * time between its seq becoming visible to {@link SyncService} as a gap and its
+ * commit is only the commit itself.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChangeLogService {
+
+    private static final Object PENDING = new Object();
+
+    private final ChangeLogRepository changeLogRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${sync.retention-days:30}")
+    private long retentionDays;
+
+    private record Change(ChangeLog.EntityType type, Long id, ChangeLog.Operation operation) {
+    }
+
+    // Changes of one transaction, written by its beforeCommit
+    private static class Pending {
+        final List<Change> changes = new ArrayList<>();
+        boolean written;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUpsert(ChangeLog.EntityType type, Long id) {
+        record(List.of(new Change(type, id, ChangeLog.Operation.UPSERT)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDelete(ChangeLog.EntityType type, Long id) {
+        record(List.of(new Change(type, id, ChangeLog.Operation.DELETE)));
+    }
+
+    /**
+     * Bulk form of {@link #recordUpsert} for imports and batch writes: all rows go in
+     * one JDBC batch instead of one identity insert per row.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUpserts(ChangeLog.EntityType type, List<Long> ids) {
+        record(changes(type, ids, ChangeLog.Operation.UPSERT));
+    }
+
+    /**
+     * Bulk form of {@link #recordDelete}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletes(ChangeLog.EntityType type, List<Long> ids) {
+        record(changes(type, ids, ChangeLog.Operation.DELETE));
+    }
+
+    /**
+     * Version of a whole collection for conditional GETs. Deletes are seen through
+     * the log, so the row count is not needed.
+     */
+    public CollectionVersion collectionVersion(ChangeLog.EntityType type, LocalDateTime lastUpdatedAt) {
+        return new CollectionVersion(lastUpdatedAt, changeLogRepository.findLastDeleteSeq(type));
+    }
+
+    private static List<Change> changes(ChangeLog.EntityType type, List<Long> ids, ChangeLog.Operation operation) {
+        return ids.stream().map(id -> new Change(type, id, operation)).toList();
+    }
+
+    private void record(List<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(changes);
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(PENDING);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(PENDING, pending);
+            registerWrite(pending);
+        }
+        if (pending.written) {
+            // Recorded from another beforeCommit after ours ran
+            write(changes);
+        } else {
+            pending.changes.addAll(changes);
+        }
+    }
+
+    private void registerWrite(Pending pending) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // Flush first so the seqs are not held open while the entity changes are written
+                entityManager.flush();
+                pending.written = true;
+                write(pending.changes);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PENDING);
+            }
+        });
+    }
+
+    private void write(List<Change> changes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(
+                        "INSERT INTO change_log (entity_type, entity_id, operation, changed_at) VALUES (?, ?, ?, ?)",
+                        new String[]{"seq"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        Change change = changes.get(i);
+                        statement.setString(1, change.type().name());
+                        statement.setLong(2, change.id());
+                        statement.setString(3, change.operation().name());
+                        statement.setTimestamp(4, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return changes.size();
+                    }
+                },
+                keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < changes.size(); i++) {
+            // Key column is "seq" or "SEQ" depending on the driver
+            long seq = ((Number) generated.get(i).values().iterator().next()).longValue();
+            publish(changes.get(i), seq);
+        }
+    }
+
+    private void publish(Change change, Long seq) {
+        eventPublisher.publishEvent(ChangeEventDto.builder()
+                .type(change.type())
+                .id(change.id())
+                .operation(change.operation())
+                .seq(seq)
+                .build());
+    }
+
+    // Clients whose cursor falls behind the retained log are told to reload in full
+    @Scheduled(cron = "0 45 3 * * *")
+    @Transactional
+    public void purgeOld() {
+        int deleted = changeLogRepository.deleteByChangedAtBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Purged {} change log rows older than {} days", deleted, retentionDays);
+        }
+    }
+}
@@ -0,0 +1,704 @@
+package com.incial.crm.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.incial.crm.dto.ImportJobDto;
+import com.incial.crm.dto.ImportRowError;
+import com.incial.crm.entity.ChangeLog;
+import com.incial.crm.entity.CrmEntry;
+import com.incial.crm.repository.CrmEntryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk CSV import of CRM leads. The upload is parsed and validated row by row on a
+ * job thread while the previous chunk is written on another, so neither the file
+ * nor the rows are ever held in memory as a whole. On PostgreSQL each chunk is
+ * COPYed into a temporary staging table and merged into crm_entries on reference_id
+ * with a single statement; other databases fall back to batched JPA writes.
+ * Every chunk commits on its own, so a failing chunk only loses its own rows.
+ * Blank cells never overwrite existing values when a row is merged.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CrmImportService {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE crm_import_staging (
+                id             BIGINT,
+                line           BIGINT,
+                company        VARCHAR(255),
+                contact_name   VARCHAR(255),
+                email          VARCHAR(255),
+                phone          VARCHAR(50),
+                address        VARCHAR(500),
+                status         VARCHAR(50),
+                deal_value     NUMERIC(15, 2),
+                assigned_to    VARCHAR(255),
+                next_follow_up DATE,
+                last_contact   DATE,
+                reference_id   VARCHAR(50),
+                notes          TEXT,
+                tags           JSONB,
+                work           JSONB,
+                lead_sources   JSONB,
+                drive_link     TEXT,
+                last_updated_by VARCHAR(255)
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_STAGING = """
+            COPY crm_import_staging (id, line, company, contact_name, email, phone, address, status, deal_value,
+                assigned_to, next_follow_up, last_contact, reference_id, notes, tags, work, lead_sources,
+                drive_link, last_updated_by)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    // The last row wins when one reference_id appears twice in a chunk; ON CONFLICT
+    // may not touch the same target row twice in one statement
+    private static final String MERGE_STAGING = """
+            INSERT INTO crm_entries (id, company, contact_name, email, phone, address, status, deal_value,
+                assigned_to, next_follow_up, last_contact, reference_id, notes, tags, work, lead_sources, drive_link,
+                socials, last_updated_by, last_updated_at)
+            SELECT DISTINCT ON (coalesce(reference_id, '#' || line))
+                id, company, contact_name, email, phone, address, status, deal_value, assigned_to,
+                next_follow_up, last_contact, reference_id, notes,
+                coalesce(tags, '[]'::jsonb), coalesce(work, '[]'::jsonb), coalesce(lead_sources, '[]'::jsonb),
+                drive_link, '{}'::jsonb, last_updated_by, CAST(? AS TIMESTAMP)
+            FROM crm_import_staging
+            ORDER BY coalesce(reference_id, '#' || line), line DESC
+            ON CONFLICT (reference_id) DO UPDATE SET
+                company         = EXCLUDED.company,
+                contact_name    = coalesce(EXCLUDED.contact_name, crm_entries.contact_name),
+                email           = coalesce(EXCLUDED.email, crm_entries.email),
+                phone           = coalesce(EXCLUDED.phone, crm_entries.phone),
+                address         = coalesce(EXCLUDED.address, crm_entries.address),
+                status          = coalesce(EXCLUDED.status, crm_entries.status),
+                deal_value      = coalesce(EXCLUDED.deal_value, crm_entries.deal_value),
+                assigned_to     = coalesce(EXCLUDED.assigned_to, crm_entries.assigned_to),
+                next_follow_up  = coalesce(EXCLUDED.next_follow_up, crm_entries.next_follow_up),
+                last_contact    = coalesce(EXCLUDED.last_contact, crm_entries.last_contact),
+                notes           = coalesce(EXCLUDED.notes, crm_entries.notes),
+                tags            = CASE WHEN EXCLUDED.tags = '[]'::jsonb THEN crm_entries.tags ELSE EXCLUDED.tags END,
+                work            = CASE WHEN EXCLUDED.work = '[]'::jsonb THEN crm_entries.work ELSE EXCLUDED.work END,
+                lead_sources    = CASE WHEN EXCLUDED.lead_sources = '[]'::jsonb
+                                       THEN crm_entries.lead_sources ELSE EXCLUDED.lead_sources END,
+                drive_link      = coalesce(EXCLUDED.drive_link, crm_entries.drive_link),
+                last_updated_by = EXCLUDED.last_updated_by,
+                last_updated_at = EXCLUDED.last_updated_at
+            RETURNING id
+            """;
+
+    /** Recognised header columns; names match the export so an export can be re-imported. */
+    private enum Column {
+        COMPANY("company", 255),
+        CONTACT_NAME("contactName", 255),
+        EMAIL("email", 255),
+        PHONE("phone", 50),
+        ADDRESS("address", 500),
+        STATUS("status", 50),
+        DEAL_VALUE("dealValue", 0),
+        ASSIGNED_TO("assignedTo", 255),
+        LAST_CONTACT("lastContact", 0),
+        NEXT_FOLLOW_UP("nextFollowUp", 0),
+        REFERENCE_ID("referenceId", 50),
+        TAGS("tags", 0),
+        WORK("work", 0),
+        LEAD_SOURCES("leadSources", 0),
+        DRIVE_LINK("driveLink", 0),
+        NOTES("notes", 0);
+
+        private final String header;
+        private final int maxLength; // 0 = unbounded
+
+        Column(String header, int maxLength) {
+            this.header = header;
+            this.maxLength = maxLength;
+        }
+
+        // "contactName", "contact_name" and "Contact Name" all match
+        private static String key(String header) {
+            return header.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+        }
+    }
+
+    private record ImportRow(long line, CrmEntry entry) {
+    }
+
+    private final CrmEntryRepository crmEntryRepository;
+    private final ChangeLogService changeLogService;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+
+    @Value("${import.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${import.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${import.max-errors:500}")
+    private int maxErrors;
+
+    @Value("${import.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private Executor jobExecutor;
+    private Executor writeExecutor;
+    private Semaphore jobPermits;
+
+    @PostConstruct
+    public void init() {
+        jobPermits = new Semaphore(maxConcurrentJobs);
+        jobExecutor = newExecutor("crm-import-");
+        writeExecutor = newExecutor("crm-import-write-");
+    }
+
+    private Executor newExecutor(String prefix) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(prefix);
+            executor.setVirtualThreads(true);
+            executor.setTaskTerminationTimeout(10_000);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentJobs);
+        executor.setMaxPoolSize(maxConcurrentJobs);
+        executor.setThreadNamePrefix(prefix);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Executor executor : List.of(jobExecutor, writeExecutor)) {
+            if (executor instanceof ThreadPoolTaskExecutor pool) {
+                pool.shutdown();
+            } else if (executor instanceof SimpleAsyncTaskExecutor simple) {
+                simple.close();
+            }
+        }
+    }
+
+    /**
+     * Stores the upload and queues it for import. Poll {@link #getJob} for progress.
+     */
+    public ImportJobDto startImport(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("CSV file is required");
+        }
+        // Resolved here: the security context does not follow the job onto its thread
+        String importedBy = UserService.getCurrentUsername();
+        Path upload;
+        try {
+            // The multipart temp file is removed when the request ends, before the job runs
+            upload = Files.createTempFile("crm-import-", ".csv");
+            file.transferTo(upload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store uploaded file", e);
+        }
+        Job job = new Job(UUID.randomUUID().toString(), file.getOriginalFilename(), file.getSize());
+        jobs.put(job.id, job);
+        jobExecutor.execute(() -> run(job, upload, importedBy));
+        return job.snapshot();
+    }
+
+    public Optional<ImportJobDto> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(Job::snapshot);
+    }
+
+    @Scheduled(fixedDelay = 600_000)
+    public void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private void run(Job job, Path upload, String importedBy) {
+        try {
+            jobPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish("Import was interrupted before it started");
+            deleteQuietly(upload);
+            return;
+        }
+        job.status = ImportJobDto.Status.RUNNING;
+        CompletableFuture<Void> pendingWrite = CompletableFuture.completedFuture(null);
+        try (CsvRecordReader csv = new CsvRecordReader(new InputStreamReader(
+                new CountingInputStream(Files.newInputStream(upload), job.bytesRead), StandardCharsets.UTF_8))) {
+            List<String> header = csv.next();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            int[] positions = columnPositions(header);
+
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            List<String> record;
+            while ((record = csv.next()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                job.rowsRead.incrementAndGet();
+                ImportRow row = parse(csv.recordLine(), record, positions, importedBy, job);
+                if (row == null) {
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    // Double-buffered: parse the next chunk while this one is written
+                    pendingWrite.join();
+                    List<ImportRow> full = chunk;
+                    pendingWrite = CompletableFuture.runAsync(() -> writeChunk(job, full), writeExecutor);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            pendingWrite.join();
+            if (!chunk.isEmpty()) {
+                writeChunk(job, chunk);
+            }
+            job.finish(null);
+        } catch (Exception e) {
+            pendingWrite.join();
+            log.warn("CRM import {} stopped: {}", job.id, e.getMessage());
+            job.finish("Import stopped after " + job.rowsRead.get() + " rows: " + e.getMessage());
+        } finally {
+            jobPermits.release();
+            deleteQuietly(upload);
+        }
+    }
+
+    private static int[] columnPositions(List<String> header) {
+        int[] positions = new int[Column.values().length];
+        Arrays.fill(positions, -1);
+        Map<String, Column> byKey = Arrays.stream(Column.values())
+                .collect(Collectors.toMap(column -> Column.key(column.header), column -> column));
+        for (int i = 0; i < header.size(); i++) {
+            Column column = byKey.get(Column.key(header.get(i)));
+            if (column != null && positions[column.ordinal()] < 0) {
+                positions[column.ordinal()] = i;
+            }
+        }
+        if (positions[Column.COMPANY.ordinal()] < 0) {
+            throw new IllegalArgumentException("CSV header must include a company column");
+        }
+        return positions;
+    }
+
+    private ImportRow parse(long line, List<String> record, int[] positions, String importedBy, Job job) {
+        try {
+            String company = value(record, positions, Column.COMPANY);
+            if (company == null) {
+                throw new IllegalArgumentException("company is required");
+            }
+            String email = value(record, positions, Column.EMAIL);
+            if (email != null && !EMAIL.matcher(email).matches()) {
+                throw new IllegalArgumentException("email is not a valid address: " + email);
+            }
+            CrmEntry entry = CrmEntry.builder()
+                    .company(company)
+                    .contactName(value(record, positions, Column.CONTACT_NAME))
+                    .email(email)
+                    .phone(value(record, positions, Column.PHONE))
+                    .address(value(record, positions, Column.ADDRESS))
+                    .status(value(record, positions, Column.STATUS))
+                    .dealValue(dealValue(value(record, positions, Column.DEAL_VALUE)))
+                    .assignedTo(value(record, positions, Column.ASSIGNED_TO))
+                    .lastContact(date(value(record, positions, Column.LAST_CONTACT), Column.LAST_CONTACT))
+                    .nextFollowUp(date(value(record, positions, Column.NEXT_FOLLOW_UP), Column.NEXT_FOLLOW_UP))
+                    .referenceId(value(record, positions, Column.REFERENCE_ID))
+                    .tags(list(value(record, positions, Column.TAGS)))
+                    .work(list(value(record, positions, Column.WORK)))
+                    .leadSources(list(value(record, positions, Column.LEAD_SOURCES)))
+                    .driveLink(value(record, positions, Column.DRIVE_LINK))
+                    .notes(value(record, positions, Column.NOTES))
+                    .lastUpdatedBy(importedBy)
+                    .build();
+            return new ImportRow(line, entry);
+        } catch (IllegalArgumentException e) {
+            job.rowsFailed.incrementAndGet();
+            job.addError(line, e.getMessage(), maxErrors);
+            return null;
+        }
+    }
+
+    private static String value(List<String> record, int[] positions, Column column) {
+        int index = positions[column.ordinal()];
+        if (index < 0 || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        if (value.isEmpty()) {
+            return null;
+        }
+        // Undo the formula guard ExportService adds, so exported files import unchanged
+        if (value.length() > 1 && value.charAt(0) == '\'' && "=+-@".indexOf(value.charAt(1)) >= 0) {
+            value = value.substring(1);
+        }
+        if (column.maxLength > 0 && value.length() > column.maxLength) {
+            throw new IllegalArgumentException(
+                    column.header + " is longer than " + column.maxLength + " characters");
+        }
+        return value;
+    }
+
+    private static BigDecimal dealValue(String value) {
+        if (value == null) {
+            return null;
+        }
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("dealValue is not a number: " + value);
+        }
+        if (amount.scale() > 2 || amount.precision() - amount.scale() > 13) {
+            throw new IllegalArgumentException("dealValue must have at most 13 digits and 2 decimals: " + value);
+        }
+        return amount;
+    }
+
+    private static LocalDate date(String value, Column column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(column.header + " must be an ISO date (yyyy-MM-dd): " + value);
+        }
+    }
+
+    private static List<String> list(String value) {
+        if (value == null) {
+            return null;
+        }
+        List<String> items = Arrays.stream(value.split(";"))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .collect(Collectors.toCollection(ArrayList::new));
+        return items.isEmpty() ? null : items;
+    }
+
+    private void writeChunk(Job job, List<ImportRow> rows) {
+        try {
+            List<Long> ids = transactionTemplate.execute(status -> {
+                Connection connection = DataSourceUtils.getConnection(dataSource);
+                try {
+                    List<Long> written = isPostgres(connection) ? copyAndMerge(connection, rows) : saveThroughJpa(rows);
+                    changeLogService.recordUpserts(ChangeLog.EntityType.CRM_ENTRY, written);
+                    return written;
+                } finally {
+                    DataSourceUtils.releaseConnection(connection, dataSource);
+                }
+            });
+            // Rows repeating a reference_id within the chunk collapse into one entry
+            job.rowsImported.addAndGet(ids.size());
+        } catch (RuntimeException e) {
+            long first = rows.get(0).line();
+            long last = rows.get(rows.size() - 1).line();
+            log.warn("CRM import {} could not write lines {}-{}: {}", job.id, first, last, e.getMessage());
+            job.rowsFailed.addAndGet(rows.size());
+            job.addError(first, "Lines " + first + "-" + last + " were not imported: " + e.getMessage(), maxErrors);
+        }
+    }
+
+    private static boolean isPostgres(Connection connection) {
+        try {
+            return connection.isWrapperFor(PGConnection.class);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private List<Long> copyAndMerge(Connection connection, List<ImportRow> rows) {
+        try {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING);
+            }
+            List<Long> newIds = reserveIds(connection, rows.size());
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new PGCopyOutputStream(pgConnection, COPY_STAGING, 64 * 1024), StandardCharsets.UTF_8))) {
+                for (int i = 0; i < rows.size(); i++) {
+                    writeCopyRow(writer, newIds.get(i), rows.get(i));
+                }
+            }
+            List<Long> ids = new ArrayList<>(rows.size());
+            try (PreparedStatement merge = connection.prepareStatement(MERGE_STAGING)) {
+                merge.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+                try (ResultSet result = merge.executeQuery()) {
+                    while (result.next()) {
+                        ids.add(result.getLong(1));
+                    }
+                }
+            }
+            return ids;
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("Bulk load failed: " + e.getMessage(), e);
+        }
+    }
+
+    // Reserves ids the way the pooled optimizer does: each nextval is the top of a block
+    // of ID_ALLOCATION_SIZE ids, so one call per block instead of one per row. Ids of
+    // rows that end up updating an existing entry are simply left unused.
+    private static List<Long> reserveIds(Connection connection, int count) throws SQLException {
+        int blockSize = CrmEntry.ID_ALLOCATION_SIZE;
+        List<Long> ids = new ArrayList<>(count);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT nextval('crm_entries_seq') FROM generate_series(1, ?)")) {
+            statement.setInt(1, (count + blockSize - 1) / blockSize);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    long high = result.getLong(1);
+                    for (long id = high - blockSize + 1; id <= high && ids.size() < count; id++) {
+                        ids.add(id);
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    private void writeCopyRow(Writer writer, Long id, ImportRow row) throws IOException {
+        CrmEntry entry = row.entry();
+        List<Object> values = Arrays.asList(id, row.line(), entry.getCompany(), entry.getContactName(), entry.getEmail(),
+                entry.getPhone(), entry.getAddress(), entry.getStatus(),
+                entry.getDealValue() == null ? null : entry.getDealValue().toPlainString(), entry.getAssignedTo(),
+                entry.getNextFollowUp(), entry.getLastContact(), entry.getReferenceId(), entry.getNotes(),
+                json(entry.getTags()), json(entry.getWork()), json(entry.getLeadSources()), entry.getDriveLink(),
+                entry.getLastUpdatedBy());
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            // Unquoted empty is NULL in COPY csv; everything else is quoted
+            if (value != null) {
+                writer.write('"');
+                writer.write(value.toString().replace("\"", "\"\""));
+                writer.write('"');
+            }
+        }
+        writer.write('\n');
+    }
+
+    private String json(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode list", e);
+        }
+    }
+
+    private List<Long> saveThroughJpa(List<ImportRow> rows) {
+        Set<String> referenceIds = rows.stream()
+                .map(row -> row.entry().getReferenceId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, CrmEntry> byReference = new HashMap<>();
+        if (!referenceIds.isEmpty()) {
+            crmEntryRepository.findByReferenceIdIn(referenceIds)
+                    .forEach(entry -> byReference.put(entry.getReferenceId(), entry));
+        }
+
+        Map<String, CrmEntry> touched = new LinkedHashMap<>();
+        for (ImportRow row : rows) {
+            CrmEntry incoming = row.entry();
+            String referenceId = incoming.getReferenceId();
+            if (referenceId == null) {
+                touched.put("#" + row.line(), incoming);
+                continue;
+            }
+            CrmEntry target = byReference.get(referenceId);
+            if (target == null) {
+                byReference.put(referenceId, incoming);
+                touched.put(referenceId, incoming);
+            } else {
+                merge(target, incoming);
+                touched.put(referenceId, target);
+            }
+        }
+        return crmEntryRepository.saveAll(touched.values()).stream()
+                .map(CrmEntry::getId)
+                .collect(Collectors.toList());
+    }
+
+    // Same rules as MERGE_STAGING: blank cells keep the existing value
+    private static void merge(CrmEntry target, CrmEntry incoming) {
+        target.setCompany(incoming.getCompany());
+        if (incoming.getContactName() != null) target.setContactName(incoming.getContactName());
+        if (incoming.getEmail() != null) target.setEmail(incoming.getEmail());
+        if (incoming.getPhone() != null) target.setPhone(incoming.getPhone());
+        if (incoming.getAddress() != null) target.setAddress(incoming.getAddress());
+        if (incoming.getStatus() != null) target.setStatus(incoming.getStatus());
+        if (incoming.getDealValue() != null) target.setDealValue(incoming.getDealValue());
+        if (incoming.getAssignedTo() != null) target.setAssignedTo(incoming.getAssignedTo());
+        if (incoming.getNextFollowUp() != null) target.setNextFollowUp(incoming.getNextFollowUp());
+        if (incoming.getLastContact() != null) target.setLastContact(incoming.getLastContact());
+        if (incoming.getNotes() != null) target.setNotes(incoming.getNotes());
+        if (incoming.getTags() != null) target.setTags(incoming.getTags());
+        if (incoming.getWork() != null) target.setWork(incoming.getWork());
+        if (incoming.getLeadSources() != null) target.setLeadSources(incoming.getLeadSources());
+        if (incoming.getDriveLink() != null) target.setDriveLink(incoming.getDriveLink());
+        target.setLastUpdatedBy(incoming.getLastUpdatedBy());
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete import upload {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+    }
+
+    /** Live state of one import; counters are updated by the job and writer threads. */
+    private static final class Job {
+        private final String id;
+        private final String fileName;
+        private final long totalBytes;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong rowsImported = new AtomicLong();
+        private final AtomicLong rowsFailed = new AtomicLong();
+        private final ConcurrentLinkedQueue<ImportRowError> errors = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger errorCount = new AtomicInteger();
+        private volatile ImportJobDto.Status status = ImportJobDto.Status.QUEUED;
+        private volatile String message;
+        private volatile LocalDateTime finishedAt;
+
+        Job(String id, String fileName, long totalBytes) {
+            this.id = id;
+            this.fileName = fileName;
+            this.totalBytes = totalBytes;
+        }
+
+        void addError(long line, String message, int maxErrors) {
+            if (errorCount.getAndIncrement() < maxErrors) {
+                errors.add(ImportRowError.builder().line(line).message(message).build());
+            }
+        }
+
+        void finish(String failure) {
+            message = failure;
+            status = failure == null ? ImportJobDto.Status.COMPLETED : ImportJobDto.Status.FAILED;
+            finishedAt = LocalDateTime.now();
+        }
+
+        ImportJobDto snapshot() {
+            long read = bytesRead.get();
+            return ImportJobDto.builder()
+                    .id(id)
+                    .status(status)
+                    .fileName(fileName)
+                    .totalBytes(totalBytes)
+                    .bytesRead(read)
+                    .percent(totalBytes == 0 ? 0 : (int) Math.min(100, read * 100 / totalBytes))
+                    .rowsRead(rowsRead.get())
+                    .rowsImported(rowsImported.get())
+                    .rowsFailed(rowsFailed.get())
+                    .errors(errors.stream()
+                            .sorted((a, b) -> Long.compare(a.getLine(), b.getLine()))
+                            .collect(Collectors.toList()))
+                    .message(message)
+                    .createdAt(createdAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
@@ -1,22 +1,92 @@
 package com.incial.crm.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.incial.crm.dto.BatchItemResult;
+import com.incial.crm.dto.BatchRequest;
+import com.incial.crm.dto.BatchResponse;
+import com.incial.crm.dto.ChangeEventDto;
+import com.incial.crm.dto.CollectionVersion;
 import com.incial.crm.dto.CrmEntryDto;
+import com.incial.crm.dto.CrmEntryFilter;
+import com.incial.crm.dto.CrmEntrySummaryDto;
+import com.incial.crm.dto.CursorPage;
+import com.incial.crm.entity.ChangeLog;
 import com.incial.crm.entity.CrmEntry;
+import com.incial.crm.repository.CrmEntryCursor;
 import com.incial.crm.repository.CrmEntryRepository;
+import com.incial.crm.security.JwtPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CrmService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final CrmEntryRepository crmEntryRepository;
     private final UserService userService;
+    private final ChangeLogService changeLogService;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${cache.crm-entries.max-size:5000}")
+    private long cacheMaxSize;
+
+    @Value("${cache.crm-entries.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    // Backs single-entry reads (details and the client portal)
+    private Cache<Long, CrmEntryDto> entriesById;
+
+    @PostConstruct
+    public void init() {
+        entriesById = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, entriesById, "crm.entries"));
+    }
+
+    // Every CRM write (here, batch, import) is recorded in the change log, so its
+    // events are the one place that has to invalidate the cache
+    @EventListener
+    public void onChange(ChangeEventDto event) {
+        if (event.getType() == ChangeLog.EntityType.CRM_ENTRY) {
+            CacheEviction.evict(() -> entriesById.invalidate(event.getId()));
+        }
+    }
+
+    public CollectionVersion getCollectionVersion() {
+        return changeLogService.collectionVersion(ChangeLog.EntityType.CRM_ENTRY,
+                crmEntryRepository.findMaxLastUpdatedAt());
+    }
+
+    /** last_updated_at of one row, or empty when the row does not exist. */
+    public Optional<LocalDateTime> getLastUpdatedAt(Long id) {
+        return crmEntryRepository.findLastUpdatedAtById(id);
+    }
 
     public Map<String, List<CrmEntryDto>> getAllEntries() {
         List<CrmEntry> entries = crmEntryRepository.findAll();
@@ -29,44 +99,219 @@ public class CrmService {
         return response;
     }
 
+    public Map<String, List<CrmEntrySummaryDto>> getEntrySummaries() {
+        Map<String, List<CrmEntrySummaryDto>> response = new HashMap<>();
+        response.put("crmList", crmEntryRepository.findAllSummaries());
+        return response;
+    }
+
+    public CursorPage<CrmEntryDto> getEntriesPage(CrmEntryFilter filter, CrmEntryCursor.Sort sort,
+                                                  String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        String filterHash = CrmEntryCursor.fingerprint(filter);
+        CrmEntryCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after = CrmEntryCursor.decode(cursor);
+            if (after.getSort() != sort) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort order");
+            }
+            if (!after.getFilterHash().equals(filterHash)) {
+                throw new IllegalArgumentException("Cursor was issued for different filters");
+            }
+        }
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<CrmEntry> rows = crmEntryRepository.findPage(filter, sort, after, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            CrmEntry last = rows.get(rows.size() - 1);
+            nextCursor = new CrmEntryCursor(sort, last.getLastUpdatedAt(), last.getId(), filterHash).encode();
+        }
+
+        return CursorPage.<CrmEntryDto>builder()
+                .items(rows.stream().map(this::convertToDto).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .limit(pageSize)
+                .build();
+    }
+
+    public List<CrmEntryDto> getEntriesByIds(Collection<Long> ids) {
+        return crmEntryRepository.findAllById(ids).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
     public CrmEntryDto createEntry(CrmEntryDto dto) {
         CrmEntry entry = convertToEntity(dto);
         CrmEntry saved = crmEntryRepository.save(entry);
+        changeLogService.recordUpsert(ChangeLog.EntityType.CRM_ENTRY, saved.getId());
         return convertToDto(saved);
     }
 
+    @Transactional
     public CrmEntryDto updateEntry(Long id, CrmEntryDto dto) {
         CrmEntry entry = crmEntryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("CRM Entry not found with id: " + id));
         
         updateEntityFromDto(entry, dto);
         CrmEntry updated = crmEntryRepository.save(entry);
+        changeLogService.recordUpsert(ChangeLog.EntityType.CRM_ENTRY, id);
         return convertToDto(updated);
     }
 
+    /**
+     * Applies creates, updates and deletes in one transaction. Rows are loaded with
+     * one query per operation type and written through JDBC batching; items that
+     * are invalid or refer to missing rows are reported and skipped.
+     */
+    @Transactional
+    public BatchResponse<CrmEntryDto> applyBatch(BatchRequest<CrmEntryDto> request) {
+        request.normalize();
+        List<BatchItemResult<CrmEntryDto>> results = new ArrayList<>();
+
+        List<CrmEntryDto> creates = request.getCreate();
+        List<CrmEntry> newEntries = new ArrayList<>();
+        List<Integer> newEntryIndexes = new ArrayList<>();
+        for (int i = 0; i < creates.size(); i++) {
+            CrmEntryDto dto = creates.get(i);
+            if (dto == null || dto.getCompany() == null || dto.getCompany().isBlank()) {
+                results.add(failure(BatchItemResult.Operation.CREATE, i, null,
+                        BatchItemResult.Status.INVALID, "company is required"));
+                continue;
+            }
+            newEntries.add(convertToEntity(dto));
+            newEntryIndexes.add(i);
+        }
+        List<CrmEntry> saved = crmEntryRepository.saveAll(newEntries);
+
+        List<CrmEntryDto> updates = request.getUpdate();
+        Map<Long, CrmEntry> targets = crmEntryRepository.findAllById(updates.stream()
+                        .filter(dto -> dto != null && dto.getId() != null)
+                        .map(CrmEntryDto::getId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(CrmEntry::getId, Function.identity()));
+        List<CrmEntry> updatedEntries = new ArrayList<>();
+        List<Integer> updatedIndexes = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            CrmEntryDto dto = updates.get(i);
+            Long id = dto == null ? null : dto.getId();
+            CrmEntry entry = id == null ? null : targets.get(id);
+            if (entry == null) {
+                results.add(failure(BatchItemResult.Operation.UPDATE, i, id,
+                        id == null ? BatchItemResult.Status.INVALID : BatchItemResult.Status.NOT_FOUND,
+                        id == null ? "id is required" : "CRM Entry not found with id: " + id));
+                continue;
+            }
+            updateEntityFromDto(entry, dto);
+            updatedEntries.add(entry);
+            updatedIndexes.add(i);
+        }
+
+        List<Long> deletes = request.getDelete();
+        Map<Long, CrmEntry> doomed = crmEntryRepository.findAllById(deletes.stream()
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(CrmEntry::getId, Function.identity()));
+        for (int i = 0; i < deletes.size(); i++) {
+            Long id = deletes.get(i);
+            if (id == null || !doomed.containsKey(id)) {
+                results.add(failure(BatchItemResult.Operation.DELETE, i, id,
+                        id == null ? BatchItemResult.Status.INVALID : BatchItemResult.Status.NOT_FOUND,
+                        id == null ? "id is required" : "CRM Entry not found with id: " + id));
+                continue;
+            }
+            results.add(BatchItemResult.<CrmEntryDto>builder()
+                    .operation(BatchItemResult.Operation.DELETE)
+                    .index(i)
+                    .id(id)
+                    .status(BatchItemResult.Status.OK)
+                    .build());
+        }
+        crmEntryRepository.deleteAll(doomed.values());
+
+        // Flush so @PreUpdate timestamps are in the returned rows
+        crmEntryRepository.flush();
+
+        List<Long> upserted = new ArrayList<>(saved.size() + updatedEntries.size());
+        for (int i = 0; i < saved.size(); i++) {
+            CrmEntry entry = saved.get(i);
+            upserted.add(entry.getId());
+            results.add(success(BatchItemResult.Operation.CREATE, newEntryIndexes.get(i), convertToDto(entry)));
+        }
+        for (int i = 0; i < updatedEntries.size(); i++) {
+            CrmEntry entry = updatedEntries.get(i);
+            upserted.add(entry.getId());
+            results.add(success(BatchItemResult.Operation.UPDATE, updatedIndexes.get(i), convertToDto(entry)));
+        }
+        changeLogService.recordUpserts(ChangeLog.EntityType.CRM_ENTRY, upserted);
+        changeLogService.recordDeletes(ChangeLog.EntityType.CRM_ENTRY, new ArrayList<>(doomed.keySet()));
+
+        results.sort(BatchItemResult.ORDER);
+        return BatchResponse.of(results);
+    }
+
+    @Transactional
     public void deleteEntry(Long id) {
         if (!crmEntryRepository.existsById(id)) {
             throw new RuntimeException("CRM Entry not found with id: " + id);
         }
         crmEntryRepository.deleteById(id);
+        changeLogService.recordDelete(ChangeLog.EntityType.CRM_ENTRY, id);
     }
 
     public CrmEntryDto getCrmDetails(Long id) {
-        CrmEntry entry = crmEntryRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("CRM Entry not found with id: " + id));
-        return convertToDto(entry);
+        // The cached DTO is shared between requests, so each caller gets its own copy
+        return copyOf(entriesById.get(id, key -> convertToDto(crmEntryRepository.findById(key)
+                .orElseThrow(() -> new RuntimeException("CRM Entry not found with id: " + key)))));
     }
 
-    public CrmEntryDto getClientCrmDetails(String userEmail) {
-        // Get user to find their linked CRM ID
-        var userDto = userService.getUserByEmail(userEmail);
-        if (userDto.getClientCrmId() == null) {
-            throw new RuntimeException("Client user '" + userEmail + "' is not linked to any CRM entry. Please contact administrator.");
-        }
-        return getCrmDetails(userDto.getClientCrmId());
+    private static CrmEntryDto copyOf(CrmEntryDto cached) {
+        return cached.toBuilder()
+                .tags(cached.getTags() == null ? null : new ArrayList<>(cached.getTags()))
+                .work(cached.getWork() == null ? null : new ArrayList<>(cached.getWork()))
+                .leadSources(cached.getLeadSources() == null ? null : new ArrayList<>(cached.getLeadSources()))
+                .socials(cached.getSocials() == null ? null : new HashMap<>(cached.getSocials()))
+                .build();
+    }
+
+    public CrmEntryDto getClientCrmDetails(JwtPrincipal principal) {
+        // The linked CRM id comes from the token, so this is a single (cached) lookup
+        return getCrmDetails(userService.getClientCrmId(principal));
+    }
+
+    private static BatchItemResult<CrmEntryDto> success(BatchItemResult.Operation operation, int index,
+                                                        CrmEntryDto item) {
+        return BatchItemResult.<CrmEntryDto>builder()
+                .operation(operation)
+                .index(index)
+                .id(item.getId())
+                .status(BatchItemResult.Status.OK)
+                .item(item)
+                .build();
+    }
+
+    private static BatchItemResult<CrmEntryDto> failure(BatchItemResult.Operation operation, int index, Long id,
+                                                        BatchItemResult.Status status, String error) {
+        return BatchItemResult.<CrmEntryDto>builder()
+                .operation(operation)
+                .index(index)
+                .id(id)
+                .status(status)
+                .error(error)
+                .build();
     }
 
-    private CrmEntryDto convertToDto(CrmEntry entity) {
+    CrmEntryDto convertToDto(CrmEntry entity) {
         return CrmEntryDto.builder()
                 .id(entity.getId())
                 .company(entity.getCompany())
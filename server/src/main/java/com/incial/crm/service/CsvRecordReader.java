@@ -0,0 +1,107 @@
+package com.incial.crm.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: returns one record per call, so a file of any size is
+ * read in constant memory. Quoted fields may contain separators, doubled quotes and
+ * line breaks; a leading byte order mark is skipped.
+ */
+final class CsvRecordReader implements Closeable {
+
+    private static final int NONE = -2;
+
+    private final Reader reader;
+    private boolean first = true;
+    private int pushedBack = NONE;
+    private long line = 1;
+    private long recordLine;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = new BufferedReader(reader, 64 * 1024);
+    }
+
+    /** Line on which the record last returned by {@link #next()} starts. */
+    long recordLine() {
+        return recordLine;
+    }
+
+    /** Next record, or null at end of input. */
+    List<String> next() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next != '"') {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                field.append((char) c);
+                c = read();
+                continue;
+            }
+            if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushedBack = next;
+                    }
+                }
+                if (c != -1) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != NONE) {
+            int c = pushedBack;
+            pushedBack = NONE;
+            return c;
+        }
+        int c = reader.read();
+        if (first) {
+            first = false;
+            if (c == '\uFEFF') {
+                c = reader.read();
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
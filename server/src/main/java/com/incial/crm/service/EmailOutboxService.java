@@ -0,0 +1,242 @@
+package com.incial.crm.service;
+
+import com.incial.crm.entity.EmailOutbox;
+import com.incial.crm.mail.EmailTemplateType;
+import com.incial.crm.repository.EmailOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Durable email queue. Callers enqueue inside their own transaction so the message
+ * exists iff the business change committed; a background dispatcher then delivers
+ * due messages in batches, retrying with exponential backoff until a message is
+ * either sent or moved to DEAD.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final Environment environment;
+
+    @Value("${email.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${email.outbox.send-concurrency:4}")
+    private int sendConcurrency;
+
+    @Value("${email.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${email.outbox.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${email.outbox.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Value("${email.outbox.retention-days:7}")
+    private long retentionDays;
+
+    private Executor sendExecutor;
+
+    // The drain loop waits on SMTP, so it runs here rather than on the shared scheduler thread
+    private ThreadPoolTaskExecutor dispatchExecutor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        dispatchExecutor = new ThreadPoolTaskExecutor();
+        dispatchExecutor.setCorePoolSize(1);
+        dispatchExecutor.setMaxPoolSize(1);
+        dispatchExecutor.setQueueCapacity(0);
+        dispatchExecutor.setThreadNamePrefix("email-outbox-dispatch-");
+        dispatchExecutor.setWaitForTasksToCompleteOnShutdown(true);
+        dispatchExecutor.setAwaitTerminationSeconds(10);
+        dispatchExecutor.initialize();
+
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("email-outbox-");
+            executor.setVirtualThreads(true);
+            // JavaMail synchronizes around SMTP socket IO, which pins the carrier thread;
+            // the limit keeps concurrent sends from pinning every carrier at once
+            executor.setConcurrencyLimit(sendConcurrency);
+            executor.setTaskTerminationTimeout(10_000);
+            sendExecutor = executor;
+        } else {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(sendConcurrency);
+            executor.setMaxPoolSize(sendConcurrency);
+            executor.setThreadNamePrefix("email-outbox-");
+            executor.setWaitForTasksToCompleteOnShutdown(true);
+            executor.setAwaitTerminationSeconds(10);
+            executor.initialize();
+            sendExecutor = executor;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatchExecutor.shutdown();
+        if (sendExecutor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        } else if (sendExecutor instanceof SimpleAsyncTaskExecutor simple) {
+            simple.close();
+        }
+    }
+
+    /**
+     * Queues a message. Joins the caller's transaction, so nothing is sent if it rolls back.
+     */
+    @Transactional
+    public EmailOutbox enqueue(String recipient, EmailTemplateType template, Map<String, String> params) {
+        EmailOutbox message = EmailOutbox.builder()
+                .recipient(recipient)
+                .template(template.name())
+                .payload(params)
+                .build();
+        return outboxRepository.save(message);
+    }
+
+    /**
+     * Hands a drain to the dispatcher thread and returns at once. Skipped while the
+     * previous drain is still running.
+     */
+    @Scheduled(
+            fixedDelayString = "${email.outbox.poll-interval-ms:1000}",
+            initialDelayString = "${email.outbox.initial-delay-ms:5000}"
+    )
+    public void dispatchDue() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatchExecutor.execute(() -> {
+                try {
+                    drainDue();
+                } catch (Exception e) {
+                    log.error("Email outbox dispatch failed: {}", e.getMessage(), e);
+                } finally {
+                    draining.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // shutting down
+            draining.set(false);
+        }
+    }
+
+    /**
+     * Drains due messages batch by batch until the queue has nothing left that is due.
+     * Runs on the calling thread.
+     */
+    public void drainDue() {
+        int claimed;
+        do {
+            List<EmailOutbox> batch = claimBatch();
+            claimed = batch.size();
+            deliver(batch);
+        } while (claimed == batchSize);
+    }
+
+    /**
+     * Scheduled cleanup of delivered messages
+     */
+    @Transactional
+    @Scheduled(cron = "0 30 3 * * *") // Run daily at 03:30
+    public void purgeDelivered() {
+        outboxRepository.deleteByStatusAndSentAtBefore(
+                EmailOutbox.Status.SENT, LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(status -> {
+            List<EmailOutbox> due = outboxRepository.findDueForUpdate(
+                    EmailOutbox.Status.PENDING, now, PageRequest.of(0, batchSize));
+            // Lease the rows: if this node dies mid-send they become due again
+            due.forEach(message -> message.setNextAttemptAt(now.plusSeconds(leaseSeconds)));
+            return due;
+        });
+    }
+
+    private void deliver(List<EmailOutbox> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        CompletableFuture<?>[] sends = batch.stream()
+                .map(message -> CompletableFuture.runAsync(() -> deliverOne(message), sendExecutor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(sends).join();
+    }
+
+    private void deliverOne(EmailOutbox message) {
+        try {
+            emailService.send(message);
+        } catch (Exception e) {
+            recordFailure(message, e);
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxRepository.markSent(message.getId(), EmailOutbox.Status.SENT, LocalDateTime.now()));
+        } catch (Exception e) {
+            // Delivered but not recorded; the lease expires and the message is re-sent (at-least-once)
+            log.error("Email outbox {} sent but could not be marked as sent: {}", message.getId(), e.getMessage());
+        }
+    }
+
+    private void recordFailure(EmailOutbox message, Exception error) {
+        int attempts = message.getAttempts() + 1;
+        boolean dead = attempts >= maxAttempts;
+        EmailOutbox.Status status = dead ? EmailOutbox.Status.DEAD : EmailOutbox.Status.PENDING;
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(backoff(attempts));
+        String lastError = truncate(error.getClass().getSimpleName() + ": " + error.getMessage());
+
+        if (dead) {
+            log.error("Email outbox {} to {} moved to DEAD after {} attempts: {}",
+                    message.getId(), message.getRecipient(), attempts, lastError);
+        } else {
+            log.warn("Email outbox {} attempt {} failed, retrying at {}: {}",
+                    message.getId(), attempts, nextAttemptAt, lastError);
+        }
+
+        transactionTemplate.executeWithoutResult(tx ->
+                outboxRepository.markFailed(message.getId(), status, attempts, nextAttemptAt, lastError));
+    }
+
+    private Duration backoff(int attempts) {
+        long seconds = initialBackoffSeconds << Math.min(attempts - 1, 20);
+        return Duration.ofSeconds(Math.min(seconds, maxBackoffSeconds));
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= 1000 ? value : value.substring(0, 1000);
+    }
+}
@@ -0,0 +1,189 @@
+package com.incial.crm.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.incial.crm.dto.CrmEntryDto;
+import com.incial.crm.dto.TaskDto;
+import com.incial.crm.entity.CrmEntry;
+import com.incial.crm.entity.Task;
+import com.incial.crm.repository.CrmEntryRepository;
+import com.incial.crm.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams whole tables to an OutputStream as CSV or NDJSON. Rows come from a
+ * forward-only cursor (see the repositories' streamAll) and are detached as soon
+ * as they are written, so memory stays flat however many rows there are.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    public enum Format {
+        CSV("csv", "text/csv"),
+        NDJSON("ndjson", "application/x-ndjson");
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        Format(String extension, String mediaType) {
+            this.extension = extension;
+            this.mediaType = MediaType.parseMediaType(mediaType + ";charset=UTF-8");
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public static Format from(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value, e);
+            }
+        }
+    }
+
+    private static final List<String> CRM_COLUMNS = List.of(
+            "id", "company", "contactName", "email", "phone", "address", "status", "dealValue", "assignedTo",
+            "lastContact", "nextFollowUp", "referenceId", "tags", "work", "leadSources", "driveLink", "notes",
+            "lastUpdatedBy", "lastUpdatedAt");
+
+    private static final List<String> TASK_COLUMNS = List.of(
+            "id", "title", "description", "status", "priority", "assignedTo", "dueDate", "companyId", "taskType",
+            "taskLink", "isVisibleOnMainBoard", "createdAt", "lastUpdatedBy", "lastUpdatedAt");
+
+    private final CrmEntryRepository crmEntryRepository;
+    private final TaskRepository taskRepository;
+    private final CrmService crmService;
+    private final TaskService taskService;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void exportCrmEntries(Format format, OutputStream out) {
+        export(crmEntryRepository::streamAll, crmService::convertToDto, CRM_COLUMNS, this::crmRow, format, out);
+    }
+
+    public void exportTasks(Format format, OutputStream out) {
+        export(taskRepository::streamAll, taskService::convertToDto, TASK_COLUMNS, this::taskRow, format, out);
+    }
+
+    private <E, D> void export(Supplier<Stream<E>> source, Function<E, D> toDto,
+                               List<String> columns, Function<D, List<Object>> toRow,
+                               Format format, OutputStream out) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<E> rows = source.get()) {
+                if (format == Format.CSV) {
+                    writeCsv(rows, toDto, columns, toRow, out);
+                } else {
+                    writeNdjson(rows, toDto, out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private <E, D> void writeCsv(Stream<E> rows, Function<E, D> toDto, List<String> columns,
+                                 Function<D, List<Object>> toRow, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        writeCsvLine(writer, columns);
+        for (E entity : (Iterable<E>) rows::iterator) {
+            writeCsvLine(writer, toRow.apply(toDto.apply(entity)));
+            entityManager.detach(entity);
+        }
+        writer.flush();
+    }
+
+    private <E, D> void writeNdjson(Stream<E> rows, Function<E, D> toDto, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // The caller owns the stream (it may be a gzip wrapper that still needs finishing)
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            for (E entity : (Iterable<E>) rows::iterator) {
+                writer.writeValue(generator, toDto.apply(entity));
+                generator.writeRaw('\n');
+                entityManager.detach(entity);
+            }
+            generator.flush();
+        }
+    }
+
+    private List<Object> crmRow(CrmEntryDto dto) {
+        return Arrays.asList(dto.getId(), dto.getCompany(), dto.getContactName(), dto.getEmail(),
+                dto.getPhone(), dto.getAddress(), dto.getStatus(), dto.getDealValue(), dto.getAssignedTo(),
+                dto.getLastContact(), dto.getNextFollowUp(), dto.getReferenceId(), dto.getTags(), dto.getWork(),
+                dto.getLeadSources(), dto.getDriveLink(), dto.getNotes(), dto.getLastUpdatedBy(),
+                dto.getLastUpdatedAt());
+    }
+
+    private List<Object> taskRow(TaskDto dto) {
+        return Arrays.asList(dto.getId(), dto.getTitle(), dto.getDescription(), dto.getStatus(),
+                dto.getPriority(), dto.getAssignedTo(), dto.getDueDate(), dto.getCompanyId(), dto.getTaskType(),
+                dto.getTaskLink(), dto.getIsVisibleOnMainBoard(), dto.getCreatedAt(), dto.getLastUpdatedBy(),
+                dto.getLastUpdatedAt());
+    }
+
+    private static void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(writer, values.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks; lists are joined with ';'
+    private static void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof Collection<?> list
+                ? String.join(";", list.stream().map(String::valueOf).toList())
+                : value.toString();
+        if (!(value instanceof Number) && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text; // keep spreadsheets from evaluating user text as a formula
+        }
+        boolean quote = text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,42 @@
+package com.incial.crm.service;
+
+import com.incial.crm.config.RotatingGoogleIdTokenVerifier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Refreshes Google's signing certificates shortly before their cache lifetime ends,
+ * so the refresh happens here instead of blocking a sign-in request. A failed refresh
+ * keeps the current keys (see RotatingGoogleIdTokenVerifier) and is retried on the next check.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GoogleKeyRefresher {
+
+    private final RotatingGoogleIdTokenVerifier googleIdTokenVerifier;
+
+    @Value("${google.auth.refresh-ahead-ms:600000}")
+    private long refreshAheadMs;
+
+    @Scheduled(
+            fixedDelayString = "${google.auth.refresh-check-ms:60000}",
+            initialDelayString = "${google.auth.refresh-initial-delay-ms:10000}"
+    )
+    public void refreshIfExpiring() {
+        long remaining = googleIdTokenVerifier.getKeysExpirationTimeMilliseconds() - System.currentTimeMillis();
+        if (remaining > refreshAheadMs) {
+            return;
+        }
+        try {
+            googleIdTokenVerifier.refreshKeys();
+            log.debug("Refreshed Google public keys, next expiry in {} ms",
+                    googleIdTokenVerifier.getKeysExpirationTimeMilliseconds() - System.currentTimeMillis());
+        } catch (Exception e) {
+            log.warn("Could not refresh Google public keys: {} - {}", e.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+}
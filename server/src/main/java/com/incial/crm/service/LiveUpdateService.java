@@ -0,0 +1,260 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.ChangeEventDto;
+import com.incial.crm.repository.ChangeLogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes committed changes to connected dashboards over Server-Sent Events.
+ *
+ * <p>Each connection owns a small buffer keyed by entity, so rapid edits to the same
+ * row collapse into one event. A drain is scheduled a short linger after the first
+ * buffered change and runs on a shared send executor; changes arriving while a send
+ * is in flight keep coalescing instead of queueing. A connection that falls more
+ * than {@code live.buffer-size} distinct rows behind gets a single {@code resync}
+ * event and is expected to call /api/v1/sync. Idle connections hold no buffer and
+ * no thread, and nothing here touches the database after the stream opens.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LiveUpdateService {
+
+    private final ChangeLogRepository changeLogRepository;
+    private final Environment environment;
+
+    @Value("${live.max-subscribers:5000}")
+    private int maxSubscribers;
+
+    @Value("${live.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${live.coalesce-ms:250}")
+    private long coalesceMs;
+
+    @Value("${live.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${live.send-concurrency:8}")
+    private int sendConcurrency;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private Executor sendExecutor;
+    private ScheduledExecutorService lingerTimer;
+
+    @PostConstruct
+    public void init() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("live-send-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(sendConcurrency);
+            sendExecutor = executor;
+        } else {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(sendConcurrency);
+            executor.setMaxPoolSize(sendConcurrency);
+            executor.setThreadNamePrefix("live-send-");
+            executor.initialize();
+            sendExecutor = executor;
+        }
+        lingerTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "live-linger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        lingerTimer.shutdownNow();
+        if (sendExecutor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        } else if (sendExecutor instanceof SimpleAsyncTaskExecutor simple) {
+            simple.close();
+        }
+    }
+
+    public SseEmitter subscribe(String user) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many live connections");
+        }
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        try {
+            // Tells the client where to resume /api/v1/sync from if it ever gets a resync
+            emitter.send(SseEmitter.event()
+                    .name("ready")
+                    .data(Map.of("cursor", Long.toString(changeLogRepository.findMaxSeq()))));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        subscribers.add(subscriber);
+        log.debug("Live subscriber connected: {} ({} open)", user, subscribers.size());
+        return emitter;
+    }
+
+    // Overridden in tests to record what is sent
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onChange(ChangeEventDto event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(event, bufferSize)) {
+                lingerTimer.schedule(() -> sendExecutor.execute(() -> drain(subscriber)), coalesceMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    // Keeps proxies from closing idle streams and surfaces dead connections
+    @Scheduled(fixedRateString = "${live.heartbeat-ms:25000}", initialDelayString = "${live.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            sendExecutor.execute(() -> {
+                try {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    drop(subscriber);
+                }
+            });
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            do {
+                Subscriber.Batch batch = subscriber.take();
+                if (batch.resync()) {
+                    subscriber.emitter.send(SseEmitter.event().name("resync").data(Map.of("reason", "buffer overflow")));
+                }
+                for (ChangeEventDto event : batch.events()) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .name("change")
+                            .id(Long.toString(event.getSeq()))
+                            .data(event));
+                }
+            } while (subscriber.hasMore());
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber);
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private static final class Subscriber {
+
+        record Batch(List<ChangeEventDto> events, boolean resync) {
+        }
+
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private LinkedHashMap<String, ChangeEventDto> pending; // allocated only while changes wait
+        private boolean overflowed;
+        private boolean draining;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /** Buffers the event; returns true when the caller must schedule a drain. */
+        boolean offer(ChangeEventDto event, int capacity) {
+            lock.lock();
+            try {
+                if (!overflowed) {
+                    if (pending == null) {
+                        pending = new LinkedHashMap<>();
+                    }
+                    String key = event.getType() + ":" + event.getId();
+                    pending.remove(key); // re-insert so order follows the latest change
+                    pending.put(key, event);
+                    if (pending.size() > capacity) {
+                        pending = null;
+                        overflowed = true;
+                    }
+                }
+                if (draining) {
+                    return false;
+                }
+                draining = true;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Batch take() {
+            lock.lock();
+            try {
+                List<ChangeEventDto> events = pending == null ? List.of() : new ArrayList<>(pending.values());
+                Batch batch = new Batch(events, overflowed);
+                pending = null;
+                overflowed = false;
+                return batch;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** True if more changes arrived during the last send; otherwise ends the drain. */
+        boolean hasMore() {
+            lock.lock();
+            try {
+                if (pending == null && !overflowed) {
+                    draining = false;
+                    return false;
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
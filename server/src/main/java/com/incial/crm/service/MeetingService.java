@@ -1,12 +1,19 @@
 package com.incial.crm.service;
 
+import com.incial.crm.dto.CollectionVersion;
 import com.incial.crm.dto.MeetingDto;
+import com.incial.crm.dto.MeetingSummaryDto;
+import com.incial.crm.entity.ChangeLog;
 import com.incial.crm.entity.Meeting;
 import com.incial.crm.repository.MeetingRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -14,6 +21,17 @@ import java.util.stream.Collectors;
 public class MeetingService {
 
     private final MeetingRepository meetingRepository;
+    private final ChangeLogService changeLogService;
+
+    public CollectionVersion getCollectionVersion() {
+        return changeLogService.collectionVersion(ChangeLog.EntityType.MEETING,
+                meetingRepository.findMaxLastUpdatedAt());
+    }
+
+    /** last_updated_at of one row, or empty when the row does not exist. */
+    public Optional<LocalDateTime> getLastUpdatedAt(Long id) {
+        return meetingRepository.findLastUpdatedAtById(id);
+    }
 
     public List<MeetingDto> getAllMeetings() {
         return meetingRepository.findAll().stream()
@@ -21,26 +39,48 @@ public class MeetingService {
                 .collect(Collectors.toList());
     }
 
+    public List<MeetingSummaryDto> getMeetingSummaries() {
+        return meetingRepository.findAllSummaries();
+    }
+
+    public MeetingDto getMeetingDetails(Long id) {
+        return meetingRepository.findById(id)
+                .map(this::convertToDto)
+                .orElseThrow(() -> new RuntimeException("Meeting not found with id: " + id));
+    }
+
+    public List<MeetingDto> getMeetingsByIds(Collection<Long> ids) {
+        return meetingRepository.findAllById(ids).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
     public MeetingDto createMeeting(MeetingDto dto) {
         Meeting meeting = convertToEntity(dto);
         Meeting saved = meetingRepository.save(meeting);
+        changeLogService.recordUpsert(ChangeLog.EntityType.MEETING, saved.getId());
         return convertToDto(saved);
     }
 
+    @Transactional
     public MeetingDto updateMeeting(Long id, MeetingDto dto) {
         Meeting meeting = meetingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Meeting not found with id: " + id));
         
         updateEntityFromDto(meeting, dto);
         Meeting updated = meetingRepository.save(meeting);
+        changeLogService.recordUpsert(ChangeLog.EntityType.MEETING, id);
         return convertToDto(updated);
     }
 
+    @Transactional
     public void deleteMeeting(Long id) {
         if (!meetingRepository.existsById(id)) {
             throw new RuntimeException("Meeting not found with id: " + id);
         }
         meetingRepository.deleteById(id);
+        changeLogService.recordDelete(ChangeLog.EntityType.MEETING, id);
     }
 
     private MeetingDto convertToDto(Meeting entity) {
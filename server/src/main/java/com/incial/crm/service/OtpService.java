@@ -1,7 +1,7 @@
 package com.incial.crm.service;
 
-import com.incial.crm.entity.Otp;
-import com.incial.crm.repository.OtpRepository;
+import com.incial.crm.mail.EmailTemplateType;
+import com.incial.crm.otp.OtpStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -9,71 +9,46 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class OtpService {
 
-    private final OtpRepository otpRepository;
-    private final EmailService emailService;
+    private final OtpStore otpStore;
+    private final EmailOutboxService emailOutboxService;
 
     private static final SecureRandom random = new SecureRandom();
     private static final int OTP_EXPIRY_MINUTES = 10;
 
     /**
      * Generates a new OTP.
-     * Deletes old OTPs and inserts new one and the same transaction.
+     * Replaces any outstanding code and queues the email in the same transaction.
      */
     @Transactional
     public void generateAndSendOtp(String email) {
 
-        // delete must be inside transaction
-        otpRepository.deleteByEmail(email);
-
         String otpCode = String.format("%06d", random.nextInt(1_000_000));
 
-        Otp otp = Otp.builder()
-                .email(email)
-                .otpCode(otpCode)
-                .expiresAt(LocalDateTime.now().plusMinutes(OTP_EXPIRY_MINUTES))
-                .verified(false)
-                .build();
-
-        otpRepository.save(otp);
+        otpStore.save(email, otpCode, LocalDateTime.now().plusMinutes(OTP_EXPIRY_MINUTES));
 
-        // external IO AFTER DB consistency is guaranteed
-        emailService.sendOtpEmail(email, otpCode);
+        // SMTP happens in the outbox dispatcher, not on the request thread
+        emailOutboxService.enqueue(email, EmailTemplateType.OTP, Map.of("otp", otpCode));
 
     }
 
     /**
-     * Verifies OTP atomically.
+     * Verifies and consumes the OTP. Wrong codes count against the attempt limit.
      */
-    @Transactional
     public boolean verifyOtp(String email, String otpCode) {
-
-        Optional<Otp> otpOptional =
-                otpRepository.findByEmailAndOtpCodeAndVerifiedFalseAndExpiresAtAfter(
-                        email, otpCode, LocalDateTime.now()
-                );
-
-        if (otpOptional.isEmpty()) {
-            return false;
-        }
-
-        Otp otp = otpOptional.get();
-        otp.setVerified(true);
-
-        return true;
+        return otpStore.verify(email, otpCode);
     }
 
     /**
      * Scheduled / manual cleanup
      */
-    @Transactional
-    @Scheduled(cron = "0 0 0 * * Sat") // Run every hour
+    @Scheduled(cron = "0 0 * * * *") // Run every hour
     public void deleteExpiredOtp() {
-        otpRepository.deleteByExpiresAtBefore(LocalDateTime.now());
+        otpStore.purgeExpired();
     }
 }
@@ -0,0 +1,49 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.SearchHitDto;
+import com.incial.crm.dto.SearchPage;
+import com.incial.crm.search.SearchIndex;
+import com.incial.crm.search.SearchQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    // Deep pages of a ranked search are never read and cost a full sort each
+    static final int MAX_OFFSET = 1_000;
+
+    private final SearchIndex searchIndex;
+
+    public SearchPage search(String text, Set<SearchHitDto.Type> types, int page, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (page < 0 || pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        int offset = page * pageSize;
+        if (offset > MAX_OFFSET) {
+            throw new IllegalArgumentException("Search results are limited to the first " + MAX_OFFSET + " hits");
+        }
+
+        SearchQuery query = SearchQuery.parse(text);
+        Set<SearchHitDto.Type> searched = types == null || types.isEmpty()
+                ? EnumSet.allOf(SearchHitDto.Type.class)
+                : EnumSet.copyOf(types);
+        // One extra row tells whether there is a next page without counting every match
+        List<SearchHitDto> hits = searchIndex.search(query, searched, offset, pageSize + 1);
+        boolean hasMore = hits.size() > pageSize;
+        return SearchPage.builder()
+                .items(hasMore ? hits.subList(0, pageSize) : hits)
+                .page(page)
+                .size(pageSize)
+                .hasMore(hasMore)
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.CrmEntryDto;
+import com.incial.crm.dto.MeetingDto;
+import com.incial.crm.dto.SyncResponse;
+import com.incial.crm.dto.TaskDto;
+import com.incial.crm.entity.ChangeLog;
+import com.incial.crm.repository.ChangeLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync over the change log: returns the current state of every row touched
+ * after the client's cursor, plus tombstone ids for rows deleted since then.
+ */
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    public static final int DEFAULT_LIMIT = 500;
+    public static final int MAX_LIMIT = 2000;
+
+    private final ChangeLogRepository changeLogRepository;
+    private final CrmService crmService;
+    private final TaskService taskService;
+    private final MeetingService meetingService;
+
+    // Identity values are handed out at insert time but become visible at commit, so a
+    // lower seq can appear after a higher one. A gap younger than this is treated as a
+    // transaction still in flight and the cursor stops in front of it; older gaps are
+    // rolled-back inserts and are skipped. ChangeLogService takes seqs just before
+    // commit, so the window only has to outlast a commit, not a whole transaction.
+    @Value("${sync.settle-ms:5000}")
+    private long settleMs;
+
+    @Transactional(readOnly = true)
+    public SyncResponse changesSince(String since, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        if (since == null || since.isBlank()) {
+            return reset();
+        }
+        long from = parseCursor(since);
+        LocalDateTime settledBefore = LocalDateTime.now().minusNanos(settleMs * 1_000_000);
+        // A gap in front of the oldest row is purged history, unless that row is young enough
+        // for the gap to be a transaction still in flight; the loop below waits for those
+        ChangeLog oldest = changeLogRepository.findFirstByOrderBySeqAsc().orElse(null);
+        if (oldest != null && from < oldest.getSeq() - 1 && !oldest.getChangedAt().isAfter(settledBefore)) {
+            return reset();
+        }
+
+        List<ChangeLog> rows = changeLogRepository.findBySeqGreaterThanOrderBySeqAsc(from, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        long cursor = from;
+        Map<ChangeLog.EntityType, Map<Long, ChangeLog.Operation>> latest = new EnumMap<>(ChangeLog.EntityType.class);
+        for (ChangeLog row : rows) {
+            if (row.getSeq() != cursor + 1 && row.getChangedAt().isAfter(settledBefore)) {
+                hasMore = false; // the client will pick the rest up on its next poll
+                break;
+            }
+            latest.computeIfAbsent(row.getEntityType(), t -> new LinkedHashMap<>())
+                    .put(row.getEntityId(), row.getOperation());
+            cursor = row.getSeq();
+        }
+
+        SyncResponse.SyncResponseBuilder response = SyncResponse.builder()
+                .cursor(Long.toString(cursor))
+                .hasMore(hasMore);
+        List<Long> deletedCrm = new ArrayList<>();
+        List<Long> deletedTasks = new ArrayList<>();
+        List<Long> deletedMeetings = new ArrayList<>();
+        response.crmEntries(load(latest.get(ChangeLog.EntityType.CRM_ENTRY), crmService::getEntriesByIds,
+                CrmEntryDto::getId, deletedCrm));
+        response.tasks(load(latest.get(ChangeLog.EntityType.TASK), taskService::getTasksByIds,
+                TaskDto::getId, deletedTasks));
+        response.meetings(load(latest.get(ChangeLog.EntityType.MEETING), meetingService::getMeetingsByIds,
+                MeetingDto::getId, deletedMeetings));
+        return response
+                .deletedCrmEntryIds(deletedCrm)
+                .deletedTaskIds(deletedTasks)
+                .deletedMeetingIds(deletedMeetings)
+                .build();
+    }
+
+    /**
+     * Loads the rows whose last logged operation was an upsert. Rows that are gone by
+     * now (deleted after this page's window) are reported as tombstones too.
+     */
+    private <T> List<T> load(Map<Long, ChangeLog.Operation> changes, Function<Set<Long>, List<T>> loader,
+                             Function<T, Long> idOf, List<Long> deleted) {
+        if (changes == null) {
+            return List.of();
+        }
+        Set<Long> upserted = changes.entrySet().stream()
+                .filter(e -> e.getValue() == ChangeLog.Operation.UPSERT)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        List<T> rows = upserted.isEmpty() ? List.of() : loader.apply(upserted);
+        Set<Long> found = rows.stream().map(idOf).collect(Collectors.toSet());
+        changes.forEach((id, operation) -> {
+            if (operation == ChangeLog.Operation.DELETE || !found.contains(id)) {
+                deleted.add(id);
+            }
+        });
+        return rows;
+    }
+
+    private SyncResponse reset() {
+        return SyncResponse.builder()
+                .cursor(Long.toString(changeLogRepository.findMaxSeq()))
+                .reset(true)
+                .crmEntries(List.of())
+                .tasks(List.of())
+                .meetings(List.of())
+                .deletedCrmEntryIds(List.of())
+                .deletedTaskIds(List.of())
+                .deletedMeetingIds(List.of())
+                .build();
+    }
+
+    private static long parseCursor(String since) {
+        try {
+            long value = Long.parseLong(since.trim());
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid sync cursor: " + since);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid sync cursor: " + since, e);
+        }
+    }
+}
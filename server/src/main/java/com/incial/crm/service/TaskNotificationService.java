@@ -0,0 +1,47 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.TaskAssignedEvent;
+import com.incial.crm.entity.User;
+import com.incial.crm.mail.EmailTemplateType;
+import com.incial.crm.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Emails users when a task is assigned to them. Messages go through the outbox,
+ * so SMTP never runs on the request thread.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskNotificationService {
+
+    private final UserRepository userRepository;
+    private final EmailOutboxService emailOutboxService;
+
+    // Synchronous listener: the enqueue joins the task write's transaction
+    @EventListener
+    public void onTaskAssigned(TaskAssignedEvent event) {
+        if (event.getAssigneeIds() == null || event.getAssigneeIds().isEmpty()) {
+            return;
+        }
+        for (User user : userRepository.findAllById(event.getAssigneeIds())) {
+            String email = user.getEmail();
+            if (email == null || email.isBlank() || email.equalsIgnoreCase(event.getAssignedBy())) {
+                continue; // nobody needs an email about assigning themselves
+            }
+            emailOutboxService.enqueue(email, EmailTemplateType.TASK_ASSIGNED, Map.of(
+                    "assigneeName", orDefault(user.getName(), email),
+                    "assignedBy", orDefault(event.getAssignedBy(), "Someone"),
+                    "taskTitle", orDefault(event.getTitle(), "Untitled task"),
+                    "priority", orDefault(event.getPriority(), "-"),
+                    "dueDate", event.getDueDate() == null ? "-" : event.getDueDate().toString()));
+        }
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value == null || value.isBlank() ? fallback : value;
+    }
+}
@@ -1,20 +1,54 @@
 package com.incial.crm.service;
 
+import com.incial.crm.dto.BatchItemResult;
+import com.incial.crm.dto.BatchRequest;
+import com.incial.crm.dto.BatchResponse;
+import com.incial.crm.dto.CollectionVersion;
+import com.incial.crm.dto.TaskAssignedEvent;
 import com.incial.crm.dto.TaskDto;
+import com.incial.crm.dto.TaskSummaryDto;
+import com.incial.crm.entity.ChangeLog;
 import com.incial.crm.entity.Task;
+import com.incial.crm.entity.User;
 import com.incial.crm.repository.TaskRepository;
+import com.incial.crm.security.JwtPrincipal;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class TaskService {
 
     private final TaskRepository taskRepository;
     private final UserService userService;
+    private final ChangeLogService changeLogService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CollectionVersion getCollectionVersion() {
+        return changeLogService.collectionVersion(ChangeLog.EntityType.TASK, taskRepository.findMaxLastUpdatedAt());
+    }
+
+    /** last_updated_at of one row, or empty when the row does not exist. */
+    public Optional<LocalDateTime> getLastUpdatedAt(Long id) {
+        return taskRepository.findLastUpdatedAtById(id);
+    }
 
     public List<TaskDto> getAllTasks() {
         return taskRepository.findAll().stream()
@@ -22,6 +56,22 @@ public class TaskService {
                 .collect(Collectors.toList());
     }
 
+    public List<TaskSummaryDto> getTaskSummaries() {
+        return taskRepository.findAllSummaries();
+    }
+
+    public TaskDto getTaskDetails(Long id) {
+        return taskRepository.findById(id)
+                .map(this::convertToDto)
+                .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+    }
+
+    public List<TaskDto> getTasksByIds(Collection<Long> ids) {
+        return taskRepository.findAllById(ids).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
     public List<TaskDto> getTasksByAssignedTo(String assignedTo) {
         return taskRepository.findByAssignedTo(assignedTo).stream()
                 .map(this::convertToDto)
@@ -29,11 +79,9 @@ public class TaskService {
     }
 
     public List<TaskDto> getCurrentUserTasks(String userEmail) {
-        // Get user by email to find their name
-        // Tasks are assigned by name, not email
-        return taskRepository.findAll().stream()
-                .filter(task -> task.getAssignedTo() != null && 
-                               task.getAssignedTo().contains(userEmail.split("@")[0]))
+        // Tasks are assigned by name; task_assignees holds the resolved user ids
+        Long userId = userService.getUserIdByEmail(userEmail);
+        return taskRepository.findByAssigneeId(userId).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
@@ -44,61 +92,251 @@ public class TaskService {
                 .collect(Collectors.toList());
     }
 
-    public List<TaskDto> getClientTasks(String userEmail) {
-        // Get user to find their linked CRM ID
-        var userDto = userService.getUserByEmail(userEmail);
-        if (userDto.getClientCrmId() == null) {
-            throw new RuntimeException("Client user '" + userEmail + "' is not linked to any CRM entry. Please contact administrator.");
-        }
-        return getTasksByCompanyId(userDto.getClientCrmId());
+    public List<TaskDto> getClientTasks(JwtPrincipal principal) {
+        // The linked CRM id comes from the token, so only the task query hits the database
+        return getTasksByCompanyId(userService.getClientCrmId(principal));
     }
 
+    @Transactional
     public TaskDto createTask(TaskDto dto) {
-        Task task = convertToEntity(dto);
-        Task saved = taskRepository.save(task);
+        Task saved = taskRepository.save(newTask(dto));
+        changeLogService.recordUpsert(ChangeLog.EntityType.TASK, saved.getId());
+        announceAssignees(saved, Set.of());
         return convertToDto(saved);
     }
 
+    @Transactional
     public TaskDto updateTask(Long id, TaskDto dto) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
-        
-        // Check if task is being marked as completed
-        String oldStatus = task.getStatus();
-        boolean wasCompleted = "completed".equalsIgnoreCase(oldStatus);
-        
+
+        Map<String, Integer> completions = new HashMap<>();
+        applyUpdate(task, dto, completions);
+        creditCompletions(completions);
+
+        Task updated = taskRepository.save(task);
+        changeLogService.recordUpsert(ChangeLog.EntityType.TASK, id);
+        return convertToDto(updated);
+    }
+
+    /**
+     * Applies creates, updates and deletes in one transaction. Rows are loaded with
+     * one query per operation type and written through JDBC batching; items that
+     * are invalid or refer to missing rows are reported and skipped.
+     */
+    @Transactional
+    public BatchResponse<TaskDto> applyBatch(BatchRequest<TaskDto> request) {
+        request.normalize();
+        List<BatchItemResult<TaskDto>> results = new ArrayList<>();
+
+        List<TaskDto> creates = request.getCreate();
+        List<Task> newTasks = new ArrayList<>();
+        List<Integer> newTaskIndexes = new ArrayList<>();
+        for (int i = 0; i < creates.size(); i++) {
+            TaskDto dto = creates.get(i);
+            if (dto == null || dto.getTitle() == null || dto.getTitle().isBlank()) {
+                results.add(failure(BatchItemResult.Operation.CREATE, i, null,
+                        BatchItemResult.Status.INVALID, "title is required"));
+                continue;
+            }
+            newTasks.add(newTask(dto));
+            newTaskIndexes.add(i);
+        }
+        List<Task> saved = taskRepository.saveAll(newTasks);
+        saved.forEach(task -> announceAssignees(task, Set.of()));
+
+        List<TaskDto> updates = request.getUpdate();
+        Map<Long, Task> targets = taskRepository.findAllById(updates.stream()
+                        .filter(dto -> dto != null && dto.getId() != null)
+                        .map(TaskDto::getId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        Map<String, Integer> completions = new HashMap<>();
+        List<Task> updatedTasks = new ArrayList<>();
+        List<Integer> updatedIndexes = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            TaskDto dto = updates.get(i);
+            Long id = dto == null ? null : dto.getId();
+            Task task = id == null ? null : targets.get(id);
+            if (task == null) {
+                results.add(failure(BatchItemResult.Operation.UPDATE, i, id,
+                        id == null ? BatchItemResult.Status.INVALID : BatchItemResult.Status.NOT_FOUND,
+                        id == null ? "id is required" : "Task not found with id: " + id));
+                continue;
+            }
+            applyUpdate(task, dto, completions);
+            updatedTasks.add(task);
+            updatedIndexes.add(i);
+        }
+        creditCompletions(completions);
+
+        List<Long> deletes = request.getDelete();
+        Map<Long, Task> doomed = taskRepository.findAllById(deletes.stream()
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        for (int i = 0; i < deletes.size(); i++) {
+            Long id = deletes.get(i);
+            if (id == null || !doomed.containsKey(id)) {
+                results.add(failure(BatchItemResult.Operation.DELETE, i, id,
+                        id == null ? BatchItemResult.Status.INVALID : BatchItemResult.Status.NOT_FOUND,
+                        id == null ? "id is required" : "Task not found with id: " + id));
+                continue;
+            }
+            results.add(BatchItemResult.<TaskDto>builder()
+                    .operation(BatchItemResult.Operation.DELETE)
+                    .index(i)
+                    .id(id)
+                    .status(BatchItemResult.Status.OK)
+                    .build());
+        }
+        taskRepository.deleteAll(doomed.values());
+
+        // Flush so @PreUpdate timestamps are in the returned rows
+        taskRepository.flush();
+
+        List<Long> upserted = new ArrayList<>(saved.size() + updatedTasks.size());
+        for (int i = 0; i < saved.size(); i++) {
+            Task task = saved.get(i);
+            upserted.add(task.getId());
+            results.add(success(BatchItemResult.Operation.CREATE, newTaskIndexes.get(i), convertToDto(task)));
+        }
+        for (int i = 0; i < updatedTasks.size(); i++) {
+            Task task = updatedTasks.get(i);
+            upserted.add(task.getId());
+            results.add(success(BatchItemResult.Operation.UPDATE, updatedIndexes.get(i), convertToDto(task)));
+        }
+        changeLogService.recordUpserts(ChangeLog.EntityType.TASK, upserted);
+        changeLogService.recordDeletes(ChangeLog.EntityType.TASK, new ArrayList<>(doomed.keySet()));
+
+        results.sort(BatchItemResult.ORDER);
+        return BatchResponse.of(results);
+    }
+
+    private Task newTask(TaskDto dto) {
+        Task task = convertToEntity(dto);
+        task.setAssigneeIds(userService.resolveUserIds(task.getAssignedTo()));
+        if (TaskStatusGroup.of(task.getStatus()) == TaskStatusGroup.COMPLETED) {
+            task.setCompletedAt(LocalDateTime.now());
+        }
+        return task;
+    }
+
+    /**
+     * Copies non-null fields from the DTO and keeps assignees and completion state in
+     * step. The assignee credit for a newly completed task is added to {@code completions}
+     * so callers can apply them in one UPDATE.
+     */
+    private void applyUpdate(Task task, TaskDto dto, Map<String, Integer> completions) {
+        boolean wasCompleted = "completed".equalsIgnoreCase(task.getStatus());
+        boolean wasDone = TaskStatusGroup.of(task.getStatus()) == TaskStatusGroup.COMPLETED;
+
         updateEntityFromDto(task, dto);
-        
-        // If status changed to completed and task is assigned, increment user's counter
-        String newStatus = task.getStatus();
-        boolean isNowCompleted = "completed".equalsIgnoreCase(newStatus);
-        
-        if (!wasCompleted && isNowCompleted && task.getAssignedTo() != null && !task.getAssignedTo().isEmpty()) {
-            // Try to find user by email in assignedTo field
-            String assignedTo = task.getAssignedTo();
-            // Check if it's an email format
-            if (assignedTo.contains("@")) {
-                try {
-                    userService.incrementTasksCompleted(assignedTo);
-                } catch (Exception e) {
-                    // User not found or error - log and continue
-                    System.out.println("Could not increment tasks for user: " + assignedTo);
+        if (dto.getAssignedTo() != null) {
+            Set<Long> previous = new HashSet<>(task.getAssigneeIds());
+            task.getAssigneeIds().clear();
+            task.getAssigneeIds().addAll(userService.resolveUserIds(dto.getAssignedTo()));
+            announceAssignees(task, previous);
+        }
+
+        // The tasksCompleted counter only counts "Completed" for an email assignee, as it always
+        // has; completedAt follows the wider status group that analytics reports on
+        String assignedTo = task.getAssignedTo();
+        if (!wasCompleted && "completed".equalsIgnoreCase(task.getStatus())
+                && assignedTo != null && assignedTo.contains("@")) {
+            completions.merge(assignedTo, 1, Integer::sum);
+        }
+        boolean isNowDone = TaskStatusGroup.of(task.getStatus()) == TaskStatusGroup.COMPLETED;
+        if (!wasDone && isNowDone) {
+            task.setCompletedAt(LocalDateTime.now());
+        } else if (wasDone && !isNowDone) {
+            task.setCompletedAt(null);
+        }
+    }
+
+    private void creditCompletions(Map<String, Integer> completions) {
+        if (completions.isEmpty()) {
+            return;
+        }
+        if (userService.incrementTasksCompleted(completions) < completions.size()) {
+            log.warn("Could not increment tasks for some of: {}", completions.keySet());
+        }
+    }
+
+    /**
+     * Adds a new user to the tasks already assigned to their name or email. Those
+     * tasks were saved before the name could be resolved, so "my tasks" would
+     * otherwise miss them. Returns the number of tasks linked.
+     */
+    @Transactional
+    public int linkAssignee(User user) {
+        Set<String> keys = new HashSet<>();
+        for (String key : new String[]{user.getName(), user.getEmail()}) {
+            if (key != null && !key.isBlank()) {
+                keys.add(key.trim().toLowerCase());
+            }
+        }
+        Set<Long> taskIds = new HashSet<>();
+        for (String key : keys) {
+            for (Object[] row : taskRepository.findAssignedToContaining(key)) {
+                if (UserService.assigneeKeys((String) row[1]).stream().anyMatch(keys::contains)) {
+                    taskIds.add((Long) row[0]);
                 }
             }
         }
-        
-        Task updated = taskRepository.save(task);
-        return convertToDto(updated);
+        return taskIds.isEmpty() ? 0 : taskRepository.addAssignee(taskIds, user.getId());
+    }
+
+    // Only users added by this write are notified, not everyone still on the task
+    private void announceAssignees(Task task, Set<Long> previous) {
+        Set<Long> added = new HashSet<>(task.getAssigneeIds());
+        added.removeAll(previous);
+        if (added.isEmpty()) {
+            return;
+        }
+        eventPublisher.publishEvent(TaskAssignedEvent.builder()
+                .taskId(task.getId())
+                .title(task.getTitle())
+                .priority(task.getPriority())
+                .dueDate(task.getDueDate())
+                .assignedBy(UserService.getCurrentUsername())
+                .assigneeIds(added)
+                .build());
     }
 
+    @Transactional
     public void deleteTask(Long id) {
         if (!taskRepository.existsById(id)) {
             throw new RuntimeException("Task not found with id: " + id);
         }
         taskRepository.deleteById(id);
+        changeLogService.recordDelete(ChangeLog.EntityType.TASK, id);
+    }
+
+    private static BatchItemResult<TaskDto> success(BatchItemResult.Operation operation, int index, TaskDto item) {
+        return BatchItemResult.<TaskDto>builder()
+                .operation(operation)
+                .index(index)
+                .id(item.getId())
+                .status(BatchItemResult.Status.OK)
+                .item(item)
+                .build();
+    }
+
+    private static BatchItemResult<TaskDto> failure(BatchItemResult.Operation operation, int index, Long id,
+                                                    BatchItemResult.Status status, String error) {
+        return BatchItemResult.<TaskDto>builder()
+                .operation(operation)
+                .index(index)
+                .id(id)
+                .status(status)
+                .error(error)
+                .build();
     }
 
-    private TaskDto convertToDto(Task entity) {
+    TaskDto convertToDto(Task entity) {
         return TaskDto.builder()
                 .id(entity.getId())
                 .title(entity.getTitle())
@@ -0,0 +1,39 @@
+package com.incial.crm.service;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Buckets the free-text task statuses the client uses into the groups shown on
+ * the performance dashboards.
+ */
+public enum TaskStatusGroup {
+    COMPLETED(List.of("completed", "done", "posted")),
+    IN_PROGRESS(List.of("in progress", "in review")),
+    NOT_STARTED(List.of("not started")),
+    OTHER(List.of());
+
+    private final List<String> statuses;
+
+    TaskStatusGroup(List<String> statuses) {
+        this.statuses = statuses;
+    }
+
+    /** Lower-cased statuses in this group, for use in queries. */
+    public List<String> statuses() {
+        return statuses;
+    }
+
+    public static TaskStatusGroup of(String status) {
+        if (status == null) {
+            return OTHER;
+        }
+        String key = status.trim().toLowerCase(Locale.ROOT);
+        for (TaskStatusGroup group : values()) {
+            if (group.statuses.contains(key)) {
+                return group;
+            }
+        }
+        return OTHER;
+    }
+}
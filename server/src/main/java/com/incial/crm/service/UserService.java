@@ -1,15 +1,29 @@
 package com.incial.crm.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.incial.crm.dto.UserDto;
 import com.incial.crm.entity.User;
 import com.incial.crm.repository.UserRepository;
+import com.incial.crm.security.JwtPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,6 +31,42 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${cache.users.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${cache.users.ttl-seconds:600}")
+    private long cacheTtlSeconds;
+
+    @Value("${cache.token-versions.ttl-seconds:30}")
+    private long tokenVersionTtlSeconds;
+
+    // Client-portal requests resolve the caller by email on every call. Entries are
+    // evicted on every write to the user row; the TTL bounds anything missed.
+    private Cache<String, UserDto> usersByEmail;
+
+    // Current token_version per user id, checked on every authenticated request; -1
+    // marks a deleted user. The TTL is how long another node may honour a revoked token.
+    private Cache<Long, Integer> tokenVersions;
+
+    @PostConstruct
+    public void init() {
+        usersByEmail = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build();
+        tokenVersions = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(tokenVersionTtlSeconds))
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> {
+            CaffeineCacheMetrics.monitor(registry, usersByEmail, "users.by-email");
+            CaffeineCacheMetrics.monitor(registry, tokenVersions, "users.token-versions");
+        });
+    }
 
     public List<UserDto> getAllUsers() {
         return userRepository.findAll().stream()
@@ -31,16 +81,105 @@ public class UserService {
     }
 
     public UserDto getUserByEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
-        return convertToDto(user);
+        // The cached DTO is shared between requests, so each caller gets its own copy
+        return usersByEmail.get(email, key -> convertToDto(userRepository.findByEmail(key)
+                .orElseThrow(() -> new RuntimeException("User not found with email: " + key))))
+                .toBuilder()
+                .build();
+    }
+
+    /** Call after changing a user row outside this service. */
+    public void evictUser(String email) {
+        CacheEviction.evict(() -> usersByEmail.invalidate(email));
+    }
+
+    public void evictUser(User user) {
+        CacheEviction.evict(() -> {
+            usersByEmail.invalidate(user.getEmail());
+            tokenVersions.invalidate(user.getId());
+        });
+    }
+
+    /** False when the token was revoked or the user no longer exists. */
+    public boolean isTokenVersionCurrent(Long userId, int tokenVersion) {
+        Integer current = tokenVersions.get(userId, id -> userRepository.findTokenVersionById(id).orElse(-1));
+        return current == tokenVersion;
     }
 
-    public void incrementTasksCompleted(String email) {
-        User user = userRepository.findByEmail(email)
+    /**
+     * The CRM entry a client user is linked to. Current tokens carry it as a claim;
+     * tokens issued before the claim existed fall back to a lookup by email.
+     */
+    public Long getClientCrmId(JwtPrincipal principal) {
+        Long clientCrmId = principal.isLegacy()
+                ? getUserByEmail(principal.getEmail()).getClientCrmId()
+                : principal.getClientCrmId();
+        if (clientCrmId == null) {
+            throw new RuntimeException("Client user '" + principal.getEmail() + "' is not linked to any CRM entry. Please contact administrator.");
+        }
+        return clientCrmId;
+    }
+
+    public Long getUserIdByEmail(String email) {
+        return userRepository.findIdByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
-        user.setTasksCompleted(user.getTasksCompleted() + 1);
-        userRepository.save(user);
+    }
+
+    /**
+     * Resolves a free-text assignee field (display name or email, comma separated
+     * when several people share a task) to user ids. Unknown names are ignored.
+     */
+    public Set<Long> resolveUserIds(String assignedTo) {
+        List<String> keys = assigneeKeys(assignedTo);
+        if (keys.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(userRepository.findIdsByNameOrEmail(keys));
+    }
+
+    /** The lower-cased names or emails in an assignee field, as resolveUserIds matches them. */
+    static List<String> assigneeKeys(String assignedTo) {
+        if (assignedTo == null || assignedTo.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(assignedTo.split(","))
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .map(String::toLowerCase)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Adds one completed task to the user's counter with a single UPDATE.
+     * Returns false when no user has that email.
+     */
+    @Transactional
+    public boolean incrementTasksCompleted(String email) {
+        evictUser(email);
+        return userRepository.incrementTasksCompleted(email, 1) > 0;
+    }
+
+    /**
+     * Applies many completions at once. Users sharing the same delta are updated by
+     * one statement, so the usual case (one completion each) is a single UPDATE.
+     * Returns the number of user rows touched.
+     */
+    @Transactional
+    public int incrementTasksCompleted(Map<String, Integer> completionsByEmail) {
+        Map<Integer, List<String>> usersByDelta = completionsByEmail.entrySet().stream()
+                .filter(entry -> entry.getValue() != null && entry.getValue() > 0)
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+
+        int updated = 0;
+        for (Map.Entry<Integer, List<String>> group : usersByDelta.entrySet()) {
+            updated += userRepository.incrementTasksCompletedByEmails(group.getValue(), group.getKey());
+        }
+        if (updated > 0) {
+            Set<String> emails = completionsByEmail.keySet();
+            CacheEviction.evict(() -> usersByEmail.invalidateAll(emails));
+        }
+        return updated;
     }
 
     private UserDto convertToDto(User entity) {
@@ -52,6 +191,7 @@ public class UserService {
                 .tasksCompleted(entity.getTasksCompleted())
                 .googleId(entity.getGoogleId())
                 .avatarUrl(entity.getAvatarUrl())
+                .clientCrmId(entity.getClientCrmId())
                 .createdAt(entity.getCreatedAt())
                 .build();
     }
@@ -62,6 +202,7 @@ public class UserService {
 
         if(user.isPresent()){
             userRepository.deleteById(id);
+            evictUser(user.get());
         }
         return null;
     }
@@ -79,8 +220,14 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
 
+        String previousRole = user.getRole();
         updateEntityFromDto(user, userDto);
+        if (!user.getRole().equals(previousRole)) {
+            // Issued tokens still carry the old role
+            user.bumpTokenVersion();
+        }
         User updated = userRepository.save(user);
+        evictUser(updated);
         return convertToDto(updated);
     }
 
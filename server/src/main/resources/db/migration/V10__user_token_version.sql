@@ -0,0 +1,2 @@
+-- Bumped to revoke every JWT issued to the user (password reset, role change)
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,22 @@
+-- Indexes for the lookups the API runs on every request. Until now these were
+-- sequential scans; the composite ones carry id so "order by id" is satisfied
+-- by the index as well.
+
+-- Tasks by company (client portal, company board) and by assignee name
+CREATE INDEX IF NOT EXISTS idx_tasks_company_id ON tasks (company_id, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_assigned_to ON tasks (assigned_to, id);
+-- Due-date ranges (calendar, overdue counts)
+CREATE INDEX IF NOT EXISTS idx_tasks_due_date ON tasks (due_date);
+
+-- Meeting date ranges and a CRM entry's meetings in date order
+CREATE INDEX IF NOT EXISTS idx_meetings_date_time ON meetings (date_time);
+CREATE INDEX IF NOT EXISTS idx_meetings_crm_entry_id ON meetings (crm_entry_id, date_time);
+
+-- Latest pending OTP for an email, and the expiry sweep
+CREATE INDEX IF NOT EXISTS idx_otps_email ON otps (email, id);
+CREATE INDEX IF NOT EXISTS idx_otps_expires_at ON otps (expires_at);
+
+-- Keyset pages filtered by status or owner walk id descending within the filter
+CREATE INDEX IF NOT EXISTS idx_crm_entries_status ON crm_entries (status, id);
+CREATE INDEX IF NOT EXISTS idx_crm_entries_assigned_to ON crm_entries (assigned_to, id);
+CREATE INDEX IF NOT EXISTS idx_crm_entries_next_follow_up ON crm_entries (next_follow_up);
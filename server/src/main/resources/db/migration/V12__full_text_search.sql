@@ -0,0 +1,25 @@
+-- Full-text search. The vectors are generated columns, so every write path
+-- (JPA, the import MERGE, manual SQL) keeps them in sync without triggers.
+-- The 'simple' configuration lower-cases without stemming: names and emails
+-- must not be stemmed, and queries match word prefixes anyway.
+-- The 'simple' parser would keep emails, hosts, URLs, paths and hyphenated
+-- compounds as single tokens, while the in-memory index splits text into runs
+-- of letters and digits. Turning the joining punctuation into spaces makes the
+-- parser emit exactly the words SearchQuery does, so "acme" finds
+-- ann@acme.test and "rockets" finds Acme-Rockets.
+-- Weights rank name matches above email and notes (A > B > C).
+
+ALTER TABLE crm_entries ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', translate(coalesce(company, ''), '@.-_+/:~', '        ')), 'A') ||
+    setweight(to_tsvector('simple', translate(coalesce(contact_name, ''), '@.-_+/:~', '        ')), 'A') ||
+    setweight(to_tsvector('simple', translate(coalesce(email, ''), '@.-_+/:~', '        ')), 'B') ||
+    setweight(to_tsvector('simple', translate(coalesce(notes, ''), '@.-_+/:~', '        ')), 'C')
+) STORED;
+
+ALTER TABLE tasks ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', translate(coalesce(title, ''), '@.-_+/:~', '        ')), 'A') ||
+    setweight(to_tsvector('simple', translate(coalesce(description, ''), '@.-_+/:~', '        ')), 'B')
+) STORED;
+
+CREATE INDEX idx_crm_entries_search ON crm_entries USING GIN (search_vector);
+CREATE INDEX idx_tasks_search ON tasks USING GIN (search_vector);
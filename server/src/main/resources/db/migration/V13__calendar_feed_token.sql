@@ -0,0 +1,4 @@
+-- Calendar apps subscribe to a plain URL and cannot send a bearer token, so each user
+-- gets a revocable secret for the feed URL; only its SHA-256 is stored
+ALTER TABLE users ADD COLUMN IF NOT EXISTS calendar_feed_token_hash VARCHAR(64);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_users_calendar_feed_token_hash ON users (calendar_feed_token_hash);
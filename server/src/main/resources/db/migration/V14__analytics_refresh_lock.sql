@@ -0,0 +1,8 @@
+-- One row that each analytics refresh locks FOR UPDATE, so nodes sharing the database
+-- serialize their delete-and-insert of analytics_summary
+CREATE TABLE analytics_refresh (
+    id           INTEGER PRIMARY KEY,
+    refreshed_at TIMESTAMP
+);
+
+INSERT INTO analytics_refresh (id) VALUES (1);
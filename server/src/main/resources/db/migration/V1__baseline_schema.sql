@@ -0,0 +1,80 @@
+-- Baseline of the schema as previously generated by Hibernate (ddl-auto: update).
+-- Existing databases are baselined at this version and skip this script.
+
+CREATE TABLE IF NOT EXISTS users (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name             VARCHAR(255) NOT NULL,
+    email            VARCHAR(255) NOT NULL UNIQUE,
+    password_hash    VARCHAR(512) NOT NULL,
+    role             VARCHAR(50)  NOT NULL,
+    tasks_completed  INTEGER      NOT NULL,
+    google_id        VARCHAR(255) UNIQUE,
+    avatar_url       VARCHAR(512),
+    client_crm_id    BIGINT,
+    created_at       TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS crm_entries (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    company            VARCHAR(255) NOT NULL,
+    contact_name       VARCHAR(255),
+    email              VARCHAR(255),
+    phone              VARCHAR(50),
+    address            VARCHAR(500),
+    company_image_url  TEXT,
+    status             VARCHAR(50),
+    deal_value         NUMERIC(15, 2),
+    assigned_to        VARCHAR(255),
+    next_follow_up     DATE,
+    last_contact       DATE,
+    reference_id       VARCHAR(50) UNIQUE,
+    notes              TEXT,
+    tags               VARCHAR(1000),
+    work               VARCHAR(1000),
+    lead_sources       VARCHAR(1000),
+    drive_link         TEXT,
+    socials            VARCHAR(1000),
+    last_updated_by    VARCHAR(255),
+    last_updated_at    TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS tasks (
+    id                        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title                     VARCHAR(255) NOT NULL,
+    description               TEXT,
+    status                    VARCHAR(50),
+    priority                  VARCHAR(50),
+    assigned_to               VARCHAR(255),
+    due_date                  DATE,
+    company_id                BIGINT,
+    task_type                 VARCHAR(50),
+    attachments               TEXT,
+    task_link                 TEXT,
+    is_visible_on_main_board  BOOLEAN,
+    created_at                TIMESTAMP(6) NOT NULL,
+    last_updated_by           VARCHAR(255),
+    last_updated_at           TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS meetings (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title            VARCHAR(255) NOT NULL,
+    date_time        TIMESTAMP(6) NOT NULL,
+    status           VARCHAR(50),
+    meeting_link     TEXT,
+    notes            TEXT,
+    crm_entry_id     BIGINT,
+    assigned_to      VARCHAR(255),
+    created_at       TIMESTAMP(6) NOT NULL,
+    last_updated_by  VARCHAR(255),
+    last_updated_at  TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS otps (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email       VARCHAR(255) NOT NULL,
+    otp_code    VARCHAR(6)   NOT NULL,
+    expires_at  TIMESTAMP(6) NOT NULL,
+    verified    BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL
+);
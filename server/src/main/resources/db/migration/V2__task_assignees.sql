@@ -0,0 +1,23 @@
+-- Normalized task assignees: one row per (task, user) so "my tasks" is an index lookup
+-- instead of a substring scan over tasks.assigned_to.
+
+CREATE TABLE task_assignees (
+    task_id  BIGINT NOT NULL REFERENCES tasks (id) ON DELETE CASCADE,
+    user_id  BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    PRIMARY KEY (task_id, user_id)
+);
+
+CREATE INDEX idx_task_assignees_user ON task_assignees (user_id, task_id);
+
+-- Backfill from the free-text column. The client stores the assignee's display name,
+-- older rows may hold an email, and several assignees may be comma separated.
+INSERT INTO task_assignees (task_id, user_id)
+SELECT DISTINCT t.id, u.id
+FROM tasks t
+CROSS JOIN LATERAL regexp_split_to_table(t.assigned_to, '\s*,\s*') AS a(assignee)
+JOIN users u
+  ON lower(u.name) = lower(trim(a.assignee))
+  OR lower(u.email) = lower(trim(a.assignee))
+WHERE t.assigned_to IS NOT NULL
+  AND trim(t.assigned_to) <> ''
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,18 @@
+-- Transactional outbox for outgoing email. Rows are written in the same transaction
+-- as the business change and delivered by EmailOutboxService in the background.
+
+CREATE TABLE email_outbox (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    recipient        VARCHAR(255) NOT NULL,
+    template         VARCHAR(50)  NOT NULL,
+    payload          TEXT,
+    status           VARCHAR(20)  NOT NULL,
+    attempts         INTEGER      NOT NULL,
+    next_attempt_at  TIMESTAMP(6) NOT NULL,
+    last_error       VARCHAR(1000),
+    created_at       TIMESTAMP(6) NOT NULL,
+    sent_at          TIMESTAMP(6)
+);
+
+-- Only pending rows are ever polled
+CREATE INDEX idx_email_outbox_due ON email_outbox (next_attempt_at, id) WHERE status = 'PENDING';
@@ -0,0 +1,2 @@
+-- Count wrong guesses per code so an OTP is burned after otp.max-attempts
+ALTER TABLE otps ADD COLUMN attempts INTEGER NOT NULL DEFAULT 0;
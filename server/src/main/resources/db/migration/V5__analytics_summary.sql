@@ -0,0 +1,22 @@
+-- Completion timestamp for weekly throughput; backfilled from the last edit of already-finished tasks
+ALTER TABLE tasks ADD COLUMN completed_at TIMESTAMP;
+
+UPDATE tasks
+SET completed_at = COALESCE(last_updated_at, created_at)
+WHERE lower(status) IN ('completed', 'done', 'posted');
+
+CREATE INDEX idx_tasks_completed_at ON tasks (completed_at);
+
+-- Pre-aggregated dashboard figures maintained by AnalyticsService
+CREATE TABLE analytics_summary (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    metric        VARCHAR(30)  NOT NULL,
+    dimension     VARCHAR(255) NOT NULL,
+    sub_dimension VARCHAR(50),
+    bucket_start  DATE,
+    item_count    BIGINT       NOT NULL,
+    total_value   NUMERIC(19, 2),
+    refreshed_at  TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX idx_analytics_summary_metric ON analytics_summary (metric, bucket_start);
@@ -0,0 +1,23 @@
+-- List/map attributes were JSON text in varchar/TEXT columns; store them as jsonb so
+-- they are parsed once on write and can be filtered in SQL. Blank or NULL values
+-- become empty arrays/objects, matching what the old converters returned on read.
+
+ALTER TABLE crm_entries
+    ALTER COLUMN tags TYPE jsonb
+        USING COALESCE(NULLIF(btrim(tags), ''), '[]')::jsonb,
+    ALTER COLUMN work TYPE jsonb
+        USING COALESCE(NULLIF(btrim(work), ''), '[]')::jsonb,
+    ALTER COLUMN lead_sources TYPE jsonb
+        USING COALESCE(NULLIF(btrim(lead_sources), ''), '[]')::jsonb,
+    ALTER COLUMN socials TYPE jsonb
+        USING COALESCE(NULLIF(btrim(socials), ''), '{}')::jsonb;
+
+ALTER TABLE tasks
+    ALTER COLUMN attachments TYPE jsonb
+        USING COALESCE(NULLIF(btrim(attachments), ''), '[]')::jsonb;
+
+-- jsonb_path_ops is smaller and faster than the default opclass but only serves @>,
+-- which is all json_contains() emits
+CREATE INDEX idx_crm_entries_tags ON crm_entries USING GIN (tags jsonb_path_ops);
+CREATE INDEX idx_crm_entries_work ON crm_entries USING GIN (work jsonb_path_ops);
+CREATE INDEX idx_crm_entries_lead_sources ON crm_entries USING GIN (lead_sources jsonb_path_ops);
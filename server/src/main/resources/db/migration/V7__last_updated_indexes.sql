@@ -0,0 +1,5 @@
+-- Collection versions for conditional GET read max(last_updated_at); with these
+-- indexes that is a single index probe instead of a table scan
+CREATE INDEX IF NOT EXISTS idx_crm_entries_last_updated_at ON crm_entries (last_updated_at);
+CREATE INDEX IF NOT EXISTS idx_tasks_last_updated_at ON tasks (last_updated_at);
+CREATE INDEX IF NOT EXISTS idx_meetings_last_updated_at ON meetings (last_updated_at);
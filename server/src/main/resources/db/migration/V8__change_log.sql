@@ -0,0 +1,14 @@
+-- Append-only log of entity changes for /api/v1/sync; DELETE rows are tombstones
+CREATE TABLE change_log (
+    seq         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id   BIGINT      NOT NULL,
+    operation   VARCHAR(10) NOT NULL,
+    changed_at  TIMESTAMP   NOT NULL
+);
+
+CREATE INDEX idx_change_log_changed_at ON change_log (changed_at);
+
+-- Collection versions read the seq of the newest logged delete per entity type (V7
+-- covers the max(last_updated_at) half); this makes that a single probe too
+CREATE INDEX idx_change_log_type_operation_seq ON change_log (entity_type, operation, seq);
@@ -0,0 +1,36 @@
+-- Sequence ids with Hibernate's pooled optimizer (allocationSize 50) replace identity
+-- columns so inserts can be JDBC-batched. The optimizer treats each nextval as the top
+-- of a block and hands out (value - 49 .. value], so every sequence starts a full block
+-- past the current max id. The column default moves to the same sequence: a plain
+-- nextval is itself the top of some block, and blocks never overlap, so SQL inserts
+-- cannot collide with ids Hibernate has handed out.
+
+CREATE SEQUENCE IF NOT EXISTS crm_entries_seq INCREMENT BY 50;
+SELECT setval('crm_entries_seq', (SELECT coalesce(max(id), 0) FROM crm_entries) + 50);
+ALTER TABLE crm_entries ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE crm_entries ALTER COLUMN id SET DEFAULT nextval('crm_entries_seq');
+ALTER SEQUENCE crm_entries_seq OWNED BY crm_entries.id;
+
+CREATE SEQUENCE IF NOT EXISTS tasks_seq INCREMENT BY 50;
+SELECT setval('tasks_seq', (SELECT coalesce(max(id), 0) FROM tasks) + 50);
+ALTER TABLE tasks ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tasks ALTER COLUMN id SET DEFAULT nextval('tasks_seq');
+ALTER SEQUENCE tasks_seq OWNED BY tasks.id;
+
+CREATE SEQUENCE IF NOT EXISTS meetings_seq INCREMENT BY 50;
+SELECT setval('meetings_seq', (SELECT coalesce(max(id), 0) FROM meetings) + 50);
+ALTER TABLE meetings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE meetings ALTER COLUMN id SET DEFAULT nextval('meetings_seq');
+ALTER SEQUENCE meetings_seq OWNED BY meetings.id;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', (SELECT coalesce(max(id), 0) FROM users) + 50);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE users_seq OWNED BY users.id;
+
+CREATE SEQUENCE IF NOT EXISTS otps_seq INCREMENT BY 50;
+SELECT setval('otps_seq', (SELECT coalesce(max(id), 0) FROM otps) + 50);
+ALTER TABLE otps ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE otps ALTER COLUMN id SET DEFAULT nextval('otps_seq');
+ALTER SEQUENCE otps_seq OWNED BY otps.id;
@@ -0,0 +1,249 @@
+package com.incial.crm.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.incial.crm.service.GoogleKeyRefresher;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies ID tokens against certificates served from a local endpoint, signed with
+ * keys generated by keytool, so nothing here talks to Google.
+ */
+@SpringJUnitConfig({GoogleAuthConfig.class, GoogleKeyRefresher.class})
+// The key manager caches what it downloaded; each test starts from an empty one
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class GoogleAuthConfigTest {
+
+    private static final String CLIENT_ID = "crm-client.apps.googleusercontent.com";
+
+    private record SigningKey(String kid, PrivateKey privateKey, Certificate certificate) {
+    }
+
+    private static HttpServer server;
+    private static volatile String certsBody;
+    private static volatile int certsStatus;
+    private static volatile long certsMaxAge;
+    private static final AtomicInteger successesLeft = new AtomicInteger(-1);   // -1: never fail
+    private static final AtomicInteger requests = new AtomicInteger();
+
+    private static SigningKey keyA;
+    private static SigningKey keyB;
+    private static SigningKey keyC;
+
+    @Autowired
+    private GoogleIdTokenVerifier verifier;
+
+    @Autowired
+    private GoogleKeyRefresher refresher;
+
+    @DynamicPropertySource
+    static void certsEndpoint(DynamicPropertyRegistry registry) throws IOException {
+        if (server == null) {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/certs", exchange -> {
+                requests.incrementAndGet();
+                byte[] body = certsBody.getBytes(StandardCharsets.UTF_8);
+                int status = successesLeft.getAndUpdate(left -> left > 0 ? left - 1 : left) == 0 ? 503 : certsStatus;
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.getResponseHeaders().set("Cache-Control", "public, max-age=" + certsMaxAge);
+                exchange.sendResponseHeaders(status, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+        }
+        registry.add("google.client.id", () -> CLIENT_ID);
+        registry.add("google.auth.certs-url",
+                () -> "http://127.0.0.1:" + server.getAddress().getPort() + "/certs");
+        registry.add("google.auth.refresh-ahead-ms", () -> "1800000");
+    }
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        keyA = generateKey("key-a");
+        keyB = generateKey("key-b");
+        keyC = generateKey("key-c");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @BeforeEach
+    void resetEndpoint() throws Exception {
+        requests.set(0);
+        successesLeft.set(-1);
+        serve(3600, keyA);
+    }
+
+    @Test
+    void acceptsOnlyTokensSignedWithAServedKeyForThisClient() throws Exception {
+        GoogleIdToken token = verifier.verify(sign(keyA, CLIENT_ID, "ann@incial.test"));
+
+        assertThat(token).isNotNull();
+        assertThat(token.getPayload().getEmail()).isEqualTo("ann@incial.test");
+        assertThat(verifier.verify(sign(keyB, CLIENT_ID, "ann@incial.test"))).isNull();
+        assertThat(verifier.verify(sign(keyA, "someone-else.apps.googleusercontent.com", "ann@incial.test")))
+                .isNull();
+
+        // Certificates are downloaded once and reused while max-age allows
+        int downloads = requests.get();
+        verifier.verify(sign(keyA, CLIENT_ID, "bob@incial.test"));
+        assertThat(requests.get()).isEqualTo(downloads);
+    }
+
+    @Test
+    void refresherPicksUpRotatedKeysBeforeTheCachedOnesExpire() throws Exception {
+        serve(600, keyA);
+        assertThat(verifier.verify(sign(keyA, CLIENT_ID, "ann@incial.test"))).isNotNull();
+
+        serve(3600, keyB);
+        // Still within the cached lifetime, so the new key is unknown until a refresh
+        assertThat(verifier.verify(sign(keyB, CLIENT_ID, "ann@incial.test"))).isNull();
+
+        refresher.refreshIfExpiring();
+        assertThat(verifier.verify(sign(keyB, CLIENT_ID, "ann@incial.test"))).isNotNull();
+        assertThat(verifier.verify(sign(keyA, CLIENT_ID, "ann@incial.test"))).isNull();
+
+        // An hour left is outside the 30 minute refresh-ahead window
+        serve(3600, keyC);
+        int downloads = requests.get();
+        refresher.refreshIfExpiring();
+        assertThat(requests.get()).isEqualTo(downloads);
+        assertThat(verifier.verify(sign(keyC, CLIENT_ID, "ann@incial.test"))).isNull();
+    }
+
+    @Test
+    void failedRefreshKeepsTheCurrentKeys() throws Exception {
+        serve(600, keyA);
+        assertThat(verifier.verify(sign(keyA, CLIENT_ID, "ann@incial.test"))).isNotNull();
+
+        certsStatus = 503;
+        refresher.refreshIfExpiring();
+        assertThat(verifier.verify(sign(keyA, CLIENT_ID, "ann@incial.test"))).isNotNull();
+
+        // The next check after the endpoint recovers takes the new keys
+        serve(3600, keyB);
+        refresher.refreshIfExpiring();
+        assertThat(verifier.verify(sign(keyB, CLIENT_ID, "ann@incial.test"))).isNotNull();
+    }
+
+    @Test
+    void refreshDownloadsOnceSoALaterFailureCannotClearTheKeys() throws Exception {
+        serve(600, keyA);
+        assertThat(verifier.verify(sign(keyA, CLIENT_ID, "ann@incial.test"))).isNotNull();
+
+        // The rotated keys are served once, then the endpoint goes down
+        serve(3600, keyB);
+        successesLeft.set(1);
+        int downloads = requests.get();
+        refresher.refreshIfExpiring();
+        assertThat(requests.get()).isEqualTo(downloads + 1);
+        assertThat(verifier.verify(sign(keyB, CLIENT_ID, "ann@incial.test"))).isNotNull();
+
+        // Failing fetches while the fresh keys are cached change nothing
+        assertThat(verifier.verify(sign(keyB, CLIENT_ID, "bob@incial.test"))).isNotNull();
+        assertThat(requests.get()).isEqualTo(downloads + 1);
+    }
+
+    @Test
+    void failedRefreshAfterTheFirstDownloadKeepsTheKeysInUse() throws Exception {
+        serve(600, keyA);
+        successesLeft.set(1);
+        assertThat(verifier.verify(sign(keyA, CLIENT_ID, "ann@incial.test"))).isNotNull();
+
+        // The second fetch fails: the manager that failed is discarded, not the one in use
+        refresher.refreshIfExpiring();
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(verifier.verify(sign(keyA, CLIENT_ID, "ann@incial.test"))).isNotNull();
+    }
+
+    private static void serve(long maxAge, SigningKey... keys) throws Exception {
+        Map<String, String> certs = new LinkedHashMap<>();
+        for (SigningKey key : keys) {
+            certs.put(key.kid(), "-----BEGIN CERTIFICATE-----\n"
+                    + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII))
+                            .encodeToString(key.certificate().getEncoded())
+                    + "\n-----END CERTIFICATE-----\n");
+        }
+        certsBody = new ObjectMapper().writeValueAsString(certs);
+        certsMaxAge = maxAge;
+        certsStatus = 200;
+    }
+
+    private static String sign(SigningKey key, String audience, String email) throws Exception {
+        long now = System.currentTimeMillis() / 1000;
+        JsonWebSignature.Header header = new JsonWebSignature.Header()
+                .setAlgorithm("RS256")
+                .setType("JWT")
+                .setKeyId(key.kid());
+        GoogleIdToken.Payload payload = new GoogleIdToken.Payload()
+                .setIssuer("https://accounts.google.com")
+                .setAudience(audience)
+                .setSubject("sub-" + email)
+                .setIssuedAtTimeSeconds(now)
+                .setExpirationTimeSeconds(now + 600)
+                .setEmail(email)
+                .setEmailVerified(true);
+        return JsonWebSignature.signUsingRsaSha256(key.privateKey(), GsonFactory.getDefaultInstance(), header, payload);
+    }
+
+    // The JDK has no public API for self-signed certificates, but its keytool does
+    private static SigningKey generateKey(String kid) throws Exception {
+        Path dir = Files.createTempDirectory("google-keys-");
+        Path store = dir.resolve(kid + ".p12");
+        char[] password = "changeit".toCharArray();
+        Process keytool = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-alias", kid, "-keyalg", "RSA", "-keysize", "2048", "-validity", "1",
+                "-dname", "CN=" + kid, "-storetype", "PKCS12", "-keystore", store.toString(),
+                "-storepass", new String(password))
+                .redirectErrorStream(true)
+                .start();
+        String output = new String(keytool.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (keytool.waitFor() != 0) {
+            throw new IllegalStateException("keytool failed: " + output);
+        }
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(store)) {
+            keyStore.load(in, password);
+        }
+        Files.delete(store);
+        Files.delete(dir);
+        return new SigningKey(kid, (PrivateKey) keyStore.getKey(kid, password), keyStore.getCertificate(kid));
+    }
+}
@@ -0,0 +1,106 @@
+package com.incial.crm.entity;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+class JsonColumnConvertersTest {
+
+    private final StringListConverter listConverter = new StringListConverter();
+    private final StringMapConverter mapConverter = new StringMapConverter();
+
+    @Test
+    void emptyColumnsDecodeToSharedImmutableEmpties() {
+        List<String> list = listConverter.convertToEntityAttribute(null);
+        assertThat(list).isEmpty();
+        assertThat(listConverter.convertToEntityAttribute("")).isSameAs(list);
+        assertThat(listConverter.convertToEntityAttribute("[]")).isSameAs(list);
+        assertThatThrownBy(() -> list.add("vip")).isInstanceOf(UnsupportedOperationException.class);
+
+        Map<String, String> map = mapConverter.convertToEntityAttribute("{}");
+        assertThat(map).isEmpty();
+        assertThat(mapConverter.convertToEntityAttribute(null)).isSameAs(map);
+        assertThatThrownBy(() -> map.put("otp", "123456")).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(mapConverter.convertToDatabaseColumn(Map.of())).isNull();
+    }
+
+    @Test
+    void decodedValuesAreMutableAndReEncoded() {
+        List<String> list = listConverter.convertToEntityAttribute("[\"vip\"]");
+        list.add("retail");
+        assertThat(list).containsExactly("vip", "retail");
+        assertThat(listConverter.convertToDatabaseColumn(list)).isEqualTo("[\"vip\",\"retail\"]");
+
+        Map<String, String> map = mapConverter.convertToEntityAttribute("{\"otp\":\"123456\"}");
+        assertThat(map).containsEntry("otp", "123456");
+        map.put("name", "Ana");
+        assertThat(mapConverter.convertToEntityAttribute(mapConverter.convertToDatabaseColumn(map)))
+                .containsEntry("name", "Ana")
+                .containsEntry("otp", "123456");
+    }
+
+    // Decoding a day's worth of outbox payloads through the shared codec against a
+    // mapper per converter, a TypeReference per call and a new collection per empty
+    // column. JMH is not on the build path, so this counts bytes allocated by the
+    // test thread rather than timing; run with -Dbenchmarks=true
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void sharedCodecAgainstPerConverterMapper() throws Exception {
+        int rows = 10_000;
+        String[] payloads = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            // sent messages have their payload cleared, so most stored rows are empty
+            payloads[i] = i % 4 == 0 ? "{\"otp\":\"" + (100_000 + i) + "\"}" : null;
+        }
+        ObjectMapper perConverter = new ObjectMapper();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        for (int warmup = 0; warmup < 5; warmup++) {
+            decodeShared(payloads);
+            decodePerCall(perConverter, payloads);
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        int sharedSize = decodeShared(payloads);
+        long shared = threads.getCurrentThreadAllocatedBytes() - before;
+
+        before = threads.getCurrentThreadAllocatedBytes();
+        int perCallSize = decodePerCall(perConverter, payloads);
+        long perCall = threads.getCurrentThreadAllocatedBytes() - before;
+
+        log.info("Decoded {} outbox payloads: shared codec {} KB, per-call mapper {} KB",
+                rows, shared / 1024, perCall / 1024);
+        assertThat(sharedSize).isEqualTo(perCallSize);
+        assertThat(shared).isLessThan(perCall);
+    }
+
+    private int decodeShared(String[] payloads) {
+        int entries = 0;
+        for (String payload : payloads) {
+            entries += mapConverter.convertToEntityAttribute(payload).size();
+        }
+        return entries;
+    }
+
+    private static int decodePerCall(ObjectMapper mapper, String[] payloads) throws Exception {
+        int entries = 0;
+        for (String payload : payloads) {
+            Map<String, String> decoded = payload == null
+                    ? new HashMap<>()
+                    : mapper.readValue(payload, new TypeReference<Map<String, String>>() {});
+            entries += decoded.size();
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,85 @@
+package com.incial.crm.otp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringJUnitConfig(InMemoryOtpStore.class)
+@TestPropertySource(properties = {"otp.store=memory", "otp.max-attempts=3", "otp.memory.tick-ms=10"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class InMemoryOtpStoreTest {
+
+    private static final String EMAIL = "ann@incial.test";
+
+    @Autowired
+    private InMemoryOtpStore store;
+
+    @Test
+    void codeIsConsumedOnceAndReplacedByTheNextOne() {
+        store.save(EMAIL, "111111", LocalDateTime.now().plusMinutes(5));
+        store.save(EMAIL, "222222", LocalDateTime.now().plusMinutes(5));
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.verify(EMAIL, "111111")).isFalse();
+        assertThat(store.verify("bob@incial.test", "222222")).isFalse();
+        assertThat(store.verify(EMAIL, "222222")).isTrue();
+        assertThat(store.verify(EMAIL, "222222")).isFalse();
+    }
+
+    @Test
+    void wrongGuessesBurnTheCode() {
+        store.save(EMAIL, "123456", LocalDateTime.now().plusMinutes(5));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(store.verify(EMAIL, "000000")).isFalse();
+        }
+
+        assertThat(store.verify(EMAIL, "123456")).isFalse();
+    }
+
+    @Test
+    void timerWheelDropsExpiredCodesButKeepsTheirReplacements() throws InterruptedException {
+        store.save(EMAIL, "123456", LocalDateTime.now().plusNanos(50_000_000));
+        store.save("bob@incial.test", "654321", LocalDateTime.now().plusNanos(50_000_000));
+        // A newer code must survive the timeout scheduled for the one it replaced
+        store.save("bob@incial.test", "777777", LocalDateTime.now().plusMinutes(5));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (store.size() > 1) {
+            assertThat(System.currentTimeMillis()).as("timed out waiting for the wheel").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+
+        store.purgeExpired();
+        assertThat(store.verify(EMAIL, "123456")).isFalse();
+        assertThat(store.verify("bob@incial.test", "777777")).isTrue();
+    }
+
+    @Nested
+    @TestPropertySource(properties = "otp.memory.tick-ms=3600000")
+    class DrivenByHand {
+
+        @Autowired
+        private InMemoryOtpStore wheelStore;
+
+        @Test
+        void timeoutThatFiresBeforeTheCodeExpiresIsRescheduled() throws InterruptedException {
+            wheelStore.save(EMAIL, "123456", LocalDateTime.now().plusNanos(50_000_000));
+
+            // With hour-long ticks the code's deadline is the next tick, which comes early here
+            wheelStore.advance();
+            assertThat(wheelStore.size()).isEqualTo(1);
+
+            Thread.sleep(60);
+            wheelStore.advance();
+            assertThat(wheelStore.size()).isZero();
+        }
+    }
+}
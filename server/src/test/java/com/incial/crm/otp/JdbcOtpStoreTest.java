@@ -0,0 +1,70 @@
+package com.incial.crm.otp;
+
+import com.incial.crm.entity.Otp;
+import com.incial.crm.repository.OtpRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "otp.max-attempts=3"})
+@Import(JdbcOtpStore.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JdbcOtpStoreTest {
+
+    private static final String EMAIL = "ann@incial.test";
+
+    @Autowired
+    private JdbcOtpStore store;
+
+    @Autowired
+    private OtpRepository otpRepository;
+
+    @AfterEach
+    void cleanUp() {
+        otpRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void codeIsConsumedOnceAndReplacedByTheNextOne() {
+        store.save(EMAIL, "111111", LocalDateTime.now().plusMinutes(5));
+        store.save(EMAIL, "222222", LocalDateTime.now().plusMinutes(5));
+
+        assertThat(otpRepository.count()).isEqualTo(1);
+        assertThat(store.verify(EMAIL, "111111")).isFalse();
+        assertThat(store.verify("bob@incial.test", "222222")).isFalse();
+        assertThat(store.verify(EMAIL, "222222")).isTrue();
+        assertThat(store.verify(EMAIL, "222222")).isFalse();
+    }
+
+    @Test
+    void wrongGuessesAreCountedAndBurnTheCode() {
+        store.save(EMAIL, "123456", LocalDateTime.now().plusMinutes(5));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(store.verify(EMAIL, "000000")).isFalse();
+        }
+
+        // Each attempt committed on its own, and the right code no longer helps
+        assertThat(otpRepository.findAll()).extracting(Otp::getAttempts).containsExactly(3);
+        assertThat(store.verify(EMAIL, "123456")).isFalse();
+    }
+
+    @Test
+    void expiredCodesFailAndArePurged() {
+        store.save(EMAIL, "123456", LocalDateTime.now().minusSeconds(1));
+        store.save("bob@incial.test", "654321", LocalDateTime.now().plusMinutes(5));
+
+        assertThat(store.verify(EMAIL, "123456")).isFalse();
+
+        store.purgeExpired();
+        assertThat(otpRepository.findAll()).extracting(Otp::getEmail).containsExactly("bob@incial.test");
+    }
+}
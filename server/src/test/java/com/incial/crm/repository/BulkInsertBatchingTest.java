@@ -0,0 +1,151 @@
+package com.incial.crm.repository;
+
+import com.incial.crm.entity.Meeting;
+import com.incial.crm.entity.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sequence ids let Hibernate batch inserts: saving N rows prepares a handful of
+ * statements rather than one per row.
+ */
+@Slf4j
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkInsertBatchingTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        taskRepository.deleteAllInBatch();
+        meetingRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void taskInsertsAreBatched() {
+        taskRepository.saveAll(tasks(0, 200));
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(200);
+        // 4 sequence calls + 4 batches of 50; with identity ids this was 200 inserts
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+    }
+
+    @Test
+    void meetingInsertsAreBatched() {
+        meetingRepository.saveAll(meetings(0, 200));
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(200);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+    }
+
+    // Batched inserts against the same inserts with the session's batch size forced to 1.
+    // JMH is not on the build path, so this logs rows per second of single runs and asserts
+    // on statements per row: H2 runs in-process, where a round trip is too cheap for the
+    // timings alone to separate the two reliably. Run with -Dbenchmarks=true
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void bulkInsertThroughput() {
+        compare("tasks", taskRepository, BulkInsertBatchingTest::tasks);
+        compare("meetings", meetingRepository, BulkInsertBatchingTest::meetings);
+    }
+
+    private record Run(double rowsPerSecond, double statementsPerRow) {
+    }
+
+    private <T> void compare(String what, JpaRepository<T, Long> repository,
+                             BiFunction<Integer, Integer, List<T>> rows) {
+        int warmupRows = 2_000;
+        int unbatchedRows = 10_000;
+        int batchedRows = 50_000;
+        insert(repository, rows, warmupRows, 1);
+        insert(repository, rows, warmupRows, null);
+        Run unbatched = insert(repository, rows, unbatchedRows, 1);
+        Run batched = insert(repository, rows, batchedRows, null);
+
+        assertThat(repository.count()).isEqualTo(2 * warmupRows + unbatchedRows + batchedRows);
+        log.info("Inserted {} {}: {} rows/s batched, {} rows/s one statement per row",
+                batchedRows, what, Math.round(batched.rowsPerSecond()), Math.round(unbatched.rowsPerSecond()));
+        assertThat(batched.statementsPerRow()).as(what + " statements per row")
+                .isLessThan(unbatched.statementsPerRow() / 10);
+    }
+
+    // Saves in chunks of 1,000, each chunk in its own transaction
+    private <T> Run insert(JpaRepository<T, Long> repository, BiFunction<Integer, Integer, List<T>> rows,
+                           int count, Integer batchSize) {
+        int chunk = 1_000;
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        statistics.clear();
+        long started = System.nanoTime();
+        for (int start = 0; start < count; start += chunk) {
+            int from = start;
+            tx.executeWithoutResult(status -> {
+                if (batchSize != null) {
+                    entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                }
+                repository.saveAll(rows.apply(from, chunk));
+            });
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        return new Run(count / seconds, (double) statistics.getPrepareStatementCount() / count);
+    }
+
+    private static List<Task> tasks(int start, int count) {
+        return IntStream.range(start, start + count)
+                .mapToObj(i -> Task.builder().title("Task " + i).status("Not Started").build())
+                .toList();
+    }
+
+    private static List<Meeting> meetings(int start, int count) {
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        return IntStream.range(start, start + count)
+                .mapToObj(i -> Meeting.builder().title("Meeting " + i).dateTime(base.plusMinutes(i)).build())
+                .toList();
+    }
+}
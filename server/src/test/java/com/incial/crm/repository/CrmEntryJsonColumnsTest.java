@@ -0,0 +1,71 @@
+package com.incial.crm.repository;
+
+import com.incial.crm.dto.CrmEntryFilter;
+import com.incial.crm.entity.CrmEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JSON collection columns round-trip and json_contains() works on the H2 fallback.
+ */
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CrmEntryJsonColumnsTest {
+
+    @Autowired
+    private CrmEntryRepository crmEntryRepository;
+
+    @AfterEach
+    void cleanUp() {
+        crmEntryRepository.deleteAll();
+    }
+
+    @Test
+    void collectionsRoundTripAndNullsBecomeEmpty() {
+        CrmEntry saved = crmEntryRepository.save(entry("Acme", List.of("vip", "retail"), List.of("SEO")));
+        CrmEntry bare = crmEntryRepository.save(CrmEntry.builder().company("Bare").build());
+
+        CrmEntry loaded = crmEntryRepository.findById(saved.getId()).orElseThrow();
+        assertThat(loaded.getTags()).containsExactly("vip", "retail");
+        assertThat(loaded.getSocials()).containsEntry("instagram", "@acme");
+
+        CrmEntry loadedBare = crmEntryRepository.findById(bare.getId()).orElseThrow();
+        assertThat(loadedBare.getTags()).isEmpty();
+        assertThat(loadedBare.getSocials()).isEmpty();
+    }
+
+    @Test
+    void containmentMatchesWholeElementsOnly() {
+        crmEntryRepository.save(entry("Acme", List.of("vip", "retail"), List.of("SEO")));
+        crmEntryRepository.save(entry("Globex", List.of("vip-lite"), List.of("Branding")));
+        crmEntryRepository.save(entry("Initech", List.of("say \"hi\""), List.of()));
+
+        assertThat(crmEntryRepository.findByTag("vip")).extracting(CrmEntry::getCompany).containsExactly("Acme");
+        assertThat(crmEntryRepository.findByWork("Branding")).extracting(CrmEntry::getCompany).containsExactly("Globex");
+        assertThat(crmEntryRepository.findByTag("say \"hi\"")).extracting(CrmEntry::getCompany).containsExactly("Initech");
+        assertThat(crmEntryRepository.findByTag("missing")).isEmpty();
+
+        CrmEntryFilter filter = CrmEntryFilter.builder().tags(List.of("vip", "retail")).build();
+        assertThat(crmEntryRepository.findPage(filter, CrmEntryCursor.Sort.ID, null, 10))
+                .extracting(CrmEntry::getCompany)
+                .containsExactly("Acme");
+    }
+
+    private CrmEntry entry(String company, List<String> tags, List<String> work) {
+        return CrmEntry.builder()
+                .company(company)
+                .tags(tags)
+                .work(work)
+                .socials(Map.of("instagram", "@" + company.toLowerCase()))
+                .build();
+    }
+}
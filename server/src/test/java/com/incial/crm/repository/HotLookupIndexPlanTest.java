@@ -0,0 +1,136 @@
+package com.incial.crm.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations against a real Postgres, seeds a few thousand rows
+ * and checks with EXPLAIN that the hot lookups use their indexes rather than
+ * scanning the table. H2 can't answer this, its planner is nothing like Postgres'.
+ */
+class HotLookupIndexPlanTest {
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void migrateAndSeed() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("""
+                INSERT INTO tasks (title, status, assigned_to, company_id, due_date, created_at)
+                SELECT 'Task ' || g, 'Not Started', 'user-' || (g % 200), g % 500,
+                       DATE '2026-01-01' + (g % 1000), now()
+                FROM generate_series(1, 20000) g""");
+        jdbc.execute("""
+                INSERT INTO meetings (title, date_time, crm_entry_id, created_at)
+                SELECT 'Meeting ' || g, TIMESTAMP '2026-01-01' + g * INTERVAL '30 minutes', g % 1000, now()
+                FROM generate_series(1, 20000) g""");
+        jdbc.execute("""
+                INSERT INTO otps (email, otp_code, expires_at, verified, created_at)
+                SELECT 'user' || (g % 2000) || '@example.test', '123456',
+                       TIMESTAMP '2026-01-01' + g * INTERVAL '1 minute', false, now()
+                FROM generate_series(1, 20000) g""");
+        jdbc.execute("""
+                INSERT INTO crm_entries (company, status, assigned_to, next_follow_up)
+                SELECT 'Company ' || g, (ARRAY['lead', 'contacted', 'proposal', 'won', 'lost'])[1 + g % 5],
+                       'user-' || (g % 200), DATE '2026-01-01' + (g % 1000)
+                FROM generate_series(1, 20000) g""");
+        jdbc.execute("""
+                INSERT INTO change_log (entity_type, entity_id, operation, changed_at)
+                SELECT (ARRAY['CRM_ENTRY', 'TASK', 'MEETING'])[1 + g % 3], g,
+                       CASE WHEN g % 10 = 0 THEN 'DELETE' ELSE 'UPSERT' END, now()
+                FROM generate_series(1, 20000) g""");
+        for (String table : new String[]{"tasks", "meetings", "crm_entries"}) {
+            jdbc.execute("UPDATE " + table + " SET last_updated_at = TIMESTAMP '2026-01-01' + id * INTERVAL '1 second'");
+        }
+        jdbc.execute("ANALYZE");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void tasksByCompanyUseTheCompanyIndex() {
+        assertThat(plan("SELECT * FROM tasks WHERE company_id = 42"))
+                .contains("idx_tasks_company_id");
+    }
+
+    @Test
+    void tasksByAssigneeUseTheAssigneeIndex() {
+        assertThat(plan("SELECT * FROM tasks WHERE assigned_to = 'user-7'"))
+                .contains("idx_tasks_assigned_to");
+    }
+
+    @Test
+    void taskDueDateRangesUseTheDueDateIndex() {
+        assertThat(plan("SELECT * FROM tasks WHERE due_date BETWEEN DATE '2026-03-01' AND DATE '2026-03-07'"))
+                .contains("idx_tasks_due_date");
+    }
+
+    @Test
+    void meetingDateRangesUseTheDateTimeIndex() {
+        assertThat(plan("SELECT * FROM meetings "
+                + "WHERE date_time >= TIMESTAMP '2026-01-05' AND date_time < TIMESTAMP '2026-01-12'"))
+                .contains("idx_meetings_date_time");
+    }
+
+    @Test
+    void pendingOtpLookupUsesTheEmailIndex() {
+        assertThat(plan("SELECT * FROM otps WHERE email = 'user7@example.test' AND verified = false "
+                + "AND expires_at > TIMESTAMP '2026-01-02' ORDER BY id DESC LIMIT 1"))
+                .contains("idx_otps_email");
+    }
+
+    @Test
+    void expiredOtpSweepUsesTheExpiryIndex() {
+        assertThat(plan("SELECT id FROM otps WHERE expires_at < TIMESTAMP '2026-01-01 03:00'"))
+                .contains("idx_otps_expires_at");
+    }
+
+    @Test
+    void crmPageByOwnerUsesTheOwnerIndex() {
+        assertThat(plan("SELECT * FROM crm_entries WHERE assigned_to = 'user-7' ORDER BY id DESC LIMIT 51"))
+                .contains("idx_crm_entries_assigned_to");
+    }
+
+    @Test
+    void collectionVersionsProbeTheLastUpdatedIndexes() {
+        assertThat(plan("SELECT max(last_updated_at) FROM tasks"))
+                .contains("idx_tasks_last_updated_at").doesNotContain("Seq Scan");
+        assertThat(plan("SELECT max(last_updated_at) FROM meetings"))
+                .contains("idx_meetings_last_updated_at").doesNotContain("Seq Scan");
+        assertThat(plan("SELECT max(last_updated_at) FROM crm_entries"))
+                .contains("idx_crm_entries_last_updated_at").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void lastDeleteSeqProbesTheChangeLogIndex() {
+        assertThat(plan("SELECT max(seq) FROM change_log WHERE entity_type = 'TASK' AND operation = 'DELETE'"))
+                .contains("idx_change_log_type_operation_seq").doesNotContain("Seq Scan");
+    }
+
+    private static String plan(String sql) {
+        return String.join("\n", jdbc.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
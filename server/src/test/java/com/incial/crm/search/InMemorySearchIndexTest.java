@@ -0,0 +1,172 @@
+package com.incial.crm.search;
+
+import com.incial.crm.dto.CrmEntryDto;
+import com.incial.crm.dto.SearchHitDto;
+import com.incial.crm.dto.SearchPage;
+import com.incial.crm.dto.TaskDto;
+import com.incial.crm.entity.CrmEntry;
+import com.incial.crm.repository.ChangeLogRepository;
+import com.incial.crm.repository.CrmEntryRepository;
+import com.incial.crm.repository.TaskRepository;
+import com.incial.crm.service.ChangeLogService;
+import com.incial.crm.service.CrmService;
+import com.incial.crm.service.SearchService;
+import com.incial.crm.service.TaskService;
+import com.incial.crm.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "search.backend=memory"})
+@Import({InMemorySearchIndex.class, SearchService.class, CrmService.class, TaskService.class,
+        UserService.class, ChangeLogService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InMemorySearchIndexTest {
+
+    @Autowired
+    private InMemorySearchIndex index;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private CrmService crmService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CrmEntryRepository crmEntryRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @AfterEach
+    void cleanUp() {
+        crmEntryRepository.deleteAllInBatch();
+        taskRepository.deleteAllInBatch();
+        changeLogRepository.deleteAllInBatch();
+        index.rebuild();
+    }
+
+    @Test
+    void followsCreatesUpdatesAndDeletes() {
+        Long acme = crmService.createEntry(CrmEntryDto.builder()
+                .company("Acme Rockets").contactName("Wile").email("wile@acme.test").status("lead").build()).getId();
+        Long task = taskService.createTask(TaskDto.builder()
+                .title("Call about rockets").description("Ask Acme for the renewal").status("Not Started").build())
+                .getId();
+
+        assertThat(ids(searchService.search("acm", null, 0, 10))).containsExactly(acme, task);
+        assertThat(ids(searchService.search("rock acme", null, 0, 10))).containsExactly(acme, task);
+
+        crmService.updateEntry(acme, CrmEntryDto.builder().company("Globex").build());
+        assertThat(ids(searchService.search("globex", null, 0, 10))).containsExactly(acme);
+        assertThat(ids(searchService.search("rockets", null, 0, 10))).containsExactly(task);
+
+        taskService.deleteTask(task);
+        assertThat(searchService.search("renewal", null, 0, 10).getItems()).isEmpty();
+    }
+
+    @Test
+    void rebuildPicksUpExistingRowsAndPagesByRank() {
+        crmEntryRepository.saveAll(IntStream.range(0, 5)
+                .mapToObj(i -> CrmEntry.builder().company("Initech " + i).notes("met at initech expo").build())
+                .toList());
+        index.rebuild();
+
+        SearchPage first = searchService.search("initech", null, 0, 3);
+        SearchPage second = searchService.search("initech", null, 1, 3);
+
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(first.getItems()).hasSize(3);
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(second.getItems()).hasSize(2);
+        assertThat(first.getItems().get(0).getRank()).isGreaterThanOrEqualTo(second.getItems().get(0).getRank());
+    }
+
+    // Index build and query latency over 100k entries, against what the client did before
+    // search existed: load every entry and task and filter them. JMH is not on the build
+    // path, so this averages wall-clock queries; run with -Dbenchmarks=true
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void searchesHundredThousandRows() {
+        int rows = 100_000;
+        String[] companies = {"Acme", "Globex", "Initech", "Umbrella", "Orbit", "Zeta"};
+        String[] topics = {"pricing", "renewal", "onboarding"};
+        for (int start = 0; start < rows; start += 1_000) {
+            crmEntryRepository.saveAll(IntStream.range(start, start + 1_000)
+                    .mapToObj(i -> CrmEntry.builder()
+                            .company(companies[i % companies.length] + " " + i)
+                            .contactName("Person " + i)
+                            .email("contact" + i + "@company" + (i % 1000) + ".test")
+                            .notes("Quarterly review " + i + " about " + topics[i % topics.length])
+                            .build())
+                    .toList());
+        }
+
+        long started = System.nanoTime();
+        index.rebuild();
+        log.info("Indexed {} entries in {} ms", rows, (System.nanoTime() - started) / 1_000_000);
+
+        List<String> queries = List.of("orbit", "acme 12", "person 999", "renewal", "zeta", "quarterly");
+        for (String query : queries) {
+            searchService.search(query, null, 0, 20);
+        }
+        int rounds = 20;
+        started = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (String query : queries) {
+                searchService.search(query, null, 0, 20);
+            }
+        }
+        double searchMillis = (System.nanoTime() - started) / 1e6 / (rounds * queries.size());
+
+        started = System.nanoTime();
+        long matched = 0;
+        for (String query : queries) {
+            matched += loadAndFilter(query);
+        }
+        double loadMillis = (System.nanoTime() - started) / 1e6 / queries.size();
+
+        log.info("Over {} entries: search {} ms/query, load and filter {} ms/query ({} matches)", rows,
+                String.format("%.2f", searchMillis), String.format("%.0f", loadMillis), matched);
+        assertThat(matched).isPositive();
+        assertThat(searchMillis).isLessThan(loadMillis);
+    }
+
+    // Every row whose text contains all the query's words, the way the grid filtered
+    private long loadAndFilter(String query) {
+        List<String> terms = SearchQuery.parse(query).terms();
+        Stream<String> entries = crmService.getAllEntries().get("crmList").stream()
+                .map(e -> Stream.of(e.getCompany(), e.getContactName(), e.getEmail(), e.getNotes())
+                        .filter(Objects::nonNull).reduce("", (a, b) -> a + " " + b));
+        Stream<String> tasks = taskService.getAllTasks().stream()
+                .map(t -> t.getTitle() + " " + t.getDescription());
+        return Stream.concat(entries, tasks)
+                .map(String::toLowerCase)
+                .filter(text -> terms.stream().allMatch(text::contains))
+                .count();
+    }
+
+    private static List<Long> ids(SearchPage page) {
+        return page.getItems().stream().map(SearchHitDto::getId).toList();
+    }
+}
@@ -0,0 +1,216 @@
+package com.incial.crm.search;
+
+import com.incial.crm.dto.SearchHitDto;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the real migrated schema on an embedded Postgres: the generated
+ * vectors, the GIN indexes and the ranking query.
+ */
+@Slf4j
+class PostgresSearchIndexTest {
+
+    private static final Set<SearchHitDto.Type> ALL = EnumSet.allOf(SearchHitDto.Type.class);
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbc;
+    private static PostgresSearchIndex index;
+
+    @BeforeAll
+    static void migrate() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        index = new PostgresSearchIndex(jdbc);
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.execute("TRUNCATE crm_entries, tasks CASCADE");
+    }
+
+    @Test
+    void ranksNameMatchesAboveNotesAndMatchesPrefixes() {
+        long inNotes = crmEntry("Globex", "Hank", "hank@globex.test", "Referred by Acme last spring");
+        long inName = crmEntry("Acme Rockets", "Wile", "wile@acme.test", null);
+        long task = task("Call Acme about rockets", "Renewal");
+
+        List<SearchHitDto> hits = index.search(SearchQuery.parse("acm"), ALL, 0, 10);
+
+        assertThat(hits).extracting(SearchHitDto::getId).containsExactly(inName, task, inNotes);
+        assertThat(hits.get(0).getTitle()).isEqualTo("Acme Rockets");
+        assertThat(hits.get(0).getSubtitle()).isEqualTo("Wile");
+    }
+
+    @Test
+    void requiresEveryWordAndFiltersByType() {
+        long acme = crmEntry("Acme", "Ann", "ann@acme.test", null);
+        crmEntry("Acme", "Bob", null, null);
+        task("Ann to send the Acme proposal", null);
+
+        assertThat(index.search(SearchQuery.parse("acme ann"), Set.of(SearchHitDto.Type.CRM_ENTRY), 0, 10))
+                .extracting(SearchHitDto::getId).containsExactly(acme);
+        // Email parts are words of their own
+        assertThat(index.search(SearchQuery.parse("acme.test"), ALL, 0, 10))
+                .extracting(SearchHitDto::getId).containsExactly(acme);
+    }
+
+    @Test
+    void vectorsHoldTheSameWordsAsTheInMemoryTokenizer() {
+        String company = "Acme-Rockets";
+        String contactName = "Ann O'Brien";
+        String email = "ann.obrien+crm@acme-rockets.test";
+        String notes = "Go-live of www.globex.test/pricing v2.5 at 09:30, budget 1,500 ~ M\u00fcller";
+        long id = crmEntry(company, contactName, email, notes);
+
+        Set<String> expected = new LinkedHashSet<>();
+        Stream.of(company, contactName, email, notes).forEach(text -> expected.addAll(SearchQuery.words(text)));
+        assertThat(jdbc.queryForList("SELECT unnest(tsvector_to_array(search_vector)) FROM crm_entries WHERE id = ?",
+                String.class, id)).containsExactlyInAnyOrderElementsOf(expected);
+
+        // Parts of hyphenated words, hosts and paths find the row outside the email column too
+        assertThat(index.search(SearchQuery.parse("rockets globex pricing live"), ALL, 0, 10))
+                .extracting(SearchHitDto::getId).containsExactly(id);
+        long task = task("Follow up with ann.obrien@acme-rockets.test", null);
+        assertThat(index.search(SearchQuery.parse("obrien"), Set.of(SearchHitDto.Type.TASK), 0, 10))
+                .extracting(SearchHitDto::getId).containsExactly(task);
+    }
+
+    @Test
+    void vectorsFollowUpdates() {
+        long id = task("Draft contract", null);
+        jdbc.update("UPDATE tasks SET description = 'Include the escrow clause' WHERE id = ?", id);
+
+        assertThat(index.search(SearchQuery.parse("escrow"), ALL, 0, 10))
+                .extracting(SearchHitDto::getId).containsExactly(id);
+    }
+
+    @Test
+    void pagesAreStable() {
+        for (int i = 0; i < 5; i++) {
+            crmEntry("Initech " + i, null, null, null);
+        }
+
+        List<SearchHitDto> first = index.search(SearchQuery.parse("initech"), ALL, 0, 3);
+        List<SearchHitDto> second = index.search(SearchQuery.parse("initech"), ALL, 3, 3);
+
+        assertThat(first).hasSize(3);
+        assertThat(second).hasSize(2);
+        assertThat(first).extracting(SearchHitDto::getId)
+                .doesNotContainAnyElementsOf(second.stream().map(SearchHitDto::getId).toList());
+    }
+
+    // 100k entries and 100k tasks through the GIN indexes, against loading every row and
+    // filtering it as the client did before search existed. JMH is not on the build path,
+    // so this averages wall-clock queries; run with -Dbenchmarks=true
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void searchesHundredThousandRows() {
+        int rows = 100_000;
+        seed(rows);
+
+        // A selective word: "orbit" matches a sixth of the rows, where a seq scan is the right plan
+        String plan = String.join("\n", jdbc.queryForList(
+                "EXPLAIN SELECT id FROM crm_entries WHERE search_vector @@ to_tsquery('simple', 'person4242:*')",
+                String.class));
+        assertThat(plan).contains("idx_crm_entries_search");
+
+        List<String> queries = List.of("orbit", "acme rock", "ann", "renewal contract", "zeta", "quarterly");
+        for (String query : queries) {
+            index.search(SearchQuery.parse(query), ALL, 0, 20);
+        }
+        int rounds = 50;
+        long started = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (String query : queries) {
+                index.search(SearchQuery.parse(query), ALL, 0, 20);
+            }
+        }
+        double searchMillis = (System.nanoTime() - started) / 1e6 / (rounds * queries.size());
+
+        started = System.nanoTime();
+        long matched = 0;
+        for (String query : queries) {
+            matched += loadAndFilter(query);
+        }
+        double loadMillis = (System.nanoTime() - started) / 1e6 / queries.size();
+
+        log.info("Over {} entries + {} tasks: search {} ms/query, load and filter {} ms/query ({} matches)",
+                rows, rows, String.format("%.2f", searchMillis), String.format("%.0f", loadMillis), matched);
+        assertThat(matched).isPositive();
+        assertThat(searchMillis).isLessThan(loadMillis);
+    }
+
+    // Every row whose text contains all the query's words, the way the grid filtered
+    private static long loadAndFilter(String query) {
+        List<String> terms = SearchQuery.parse(query).terms();
+        List<String> texts = jdbc.queryForList("""
+                SELECT concat_ws(' ', company, contact_name, email, notes) FROM crm_entries
+                UNION ALL
+                SELECT concat_ws(' ', title, description) FROM tasks""", String.class);
+        return texts.stream()
+                .map(String::toLowerCase)
+                .filter(text -> terms.stream().allMatch(text::contains))
+                .count();
+    }
+
+    private static void seed(int rows) {
+        jdbc.execute("""
+                INSERT INTO crm_entries (company, contact_name, email, notes)
+                SELECT (ARRAY['Acme', 'Globex', 'Initech', 'Umbrella', 'Orbit', 'Zeta'])[1 + g %% 6] || ' '
+                           || (ARRAY['Rockets', 'Labs', 'Holdings', 'Foods'])[1 + g %% 4] || ' ' || g,
+                       (ARRAY['Ann', 'Bob', 'Carla', 'Dev', 'Eve'])[1 + g %% 5] || ' Person' || g,
+                       'contact' || g || '@company' || (g %% 1000) || '.test',
+                       'Quarterly review ' || g || ' about ' || (ARRAY['pricing', 'renewal', 'onboarding'])[1 + g %% 3]
+                FROM generate_series(1, %d) g""".formatted(rows));
+        jdbc.execute("""
+                INSERT INTO tasks (title, description, status, created_at)
+                SELECT (ARRAY['Call', 'Email', 'Draft', 'Review'])[1 + g %% 4] || ' '
+                           || (ARRAY['Acme', 'Globex', 'Orbit'])[1 + g %% 3] || ' ' || g,
+                       (ARRAY['renewal contract', 'pricing sheet', 'kickoff agenda'])[1 + g %% 3],
+                       'Not Started', now()
+                FROM generate_series(1, %d) g""".formatted(rows));
+        jdbc.execute("ANALYZE crm_entries");
+        jdbc.execute("ANALYZE tasks");
+    }
+
+    private static long crmEntry(String company, String contactName, String email, String notes) {
+        return jdbc.queryForObject("INSERT INTO crm_entries (company, contact_name, email, notes) "
+                + "VALUES (?, ?, ?, ?) RETURNING id", Long.class, company, contactName, email, notes);
+    }
+
+    private static long task(String title, String description) {
+        return jdbc.queryForObject("INSERT INTO tasks (title, description, created_at) "
+                + "VALUES (?, ?, now()) RETURNING id", Long.class, title, description);
+    }
+}
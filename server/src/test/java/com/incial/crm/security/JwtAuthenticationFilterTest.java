@@ -0,0 +1,108 @@
+package com.incial.crm.security;
+
+import com.incial.crm.entity.User;
+import com.incial.crm.repository.UserRepository;
+import com.incial.crm.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {"spring.flyway.enabled=false",
+        "jwt.secret=aW5jaWFsLWNybS10ZXN0LXNpZ25pbmcta2V5LTAxMjM0NTY3ODlhYmNkZWY="})
+@Import({JwtAuthenticationFilter.class, JwtUtil.class, UserService.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private JwtAuthenticationFilter filter;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void tokensIssuedBeforeATokenVersionBumpAreIgnored() throws Exception {
+        User ann = userRepository.save(User.builder()
+                .name("Ann").email("ann@incial.test").passwordHash("x").role("ROLE_EMPLOYEE").build());
+        String oldToken = jwtUtil.generateToken(ann);
+
+        assertThat(authenticate(oldToken)).isNotNull()
+                .extracting(Authentication::getName).isEqualTo("ann@incial.test");
+
+        // What a password reset or role change does
+        ann.bumpTokenVersion();
+        ann = userRepository.save(ann);
+        userService.evictUser(ann);
+
+        assertThat(authenticate(oldToken)).isNull();
+        assertThat(authenticate(jwtUtil.generateToken(ann))).isNotNull();
+    }
+
+    @Test
+    void tokensOfDeletedUsersAreIgnored() throws Exception {
+        User bob = userRepository.save(User.builder()
+                .name("Bob").email("bob@incial.test").passwordHash("x").role("ROLE_EMPLOYEE").build());
+        String token = jwtUtil.generateToken(bob);
+
+        userRepository.delete(bob);
+        userService.evictUser(bob);
+
+        assertThat(authenticate(token)).isNull();
+    }
+
+    @Test
+    void liveStreamTakesAShortLivedTicketButNeverTheToken() throws Exception {
+        User ann = userRepository.save(User.builder()
+                .name("Ann").email("ann@incial.test").passwordHash("x").role("ROLE_EMPLOYEE").build());
+        String token = jwtUtil.generateToken(ann);
+        String ticket = jwtUtil.generateStreamTicket(JwtPrincipal.from(ann));
+
+        assertThat(openStream("ticket", ticket)).isNotNull()
+                .extracting(Authentication::getName).isEqualTo("ann@incial.test");
+        assertThat(openStream("access_token", token)).isNull();
+        assertThat(openStream("ticket", token)).isNull();
+        // A ticket leaked from a URL is no good as a bearer token
+        assertThat(authenticate(ticket)).isNull();
+    }
+
+    private Authentication openStream(String parameter, String value) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/live/stream");
+        request.setServletPath("/api/v1/live/stream");
+        request.setParameter(parameter, value);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks/all");
+        request.setServletPath("/api/v1/tasks/all");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,132 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.PipelineStageDto;
+import com.incial.crm.dto.TaskDto;
+import com.incial.crm.dto.ThroughputPointDto;
+import com.incial.crm.dto.WorkloadDto;
+import com.incial.crm.entity.CrmEntry;
+import com.incial.crm.entity.Task;
+import com.incial.crm.repository.AnalyticsSummaryRepository;
+import com.incial.crm.repository.ChangeLogRepository;
+import com.incial.crm.repository.CrmEntryRepository;
+import com.incial.crm.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Import({AnalyticsService.class, TaskService.class, UserService.class, ChangeLogService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AnalyticsServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final LocalDate THIS_WEEK = TODAY.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CrmEntryRepository crmEntryRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private AnalyticsSummaryRepository summaryRepository;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @AfterEach
+    void cleanUp() {
+        crmEntryRepository.deleteAllInBatch();
+        taskRepository.deleteAll();
+        changeLogRepository.deleteAllInBatch();
+        summaryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void groupsStatusesTheWayTaskUpdatesDo() {
+        crmEntry("Acme", "Lead", "100.00");
+        crmEntry("Globex", "lead", "200.00");
+        crmEntry("Initech", "Won", "50.00");
+        task("Ann", "Done", null, LocalDateTime.now());
+        task("Ann", "Posted", TODAY.minusDays(1), LocalDateTime.now().minusDays(8));
+        task("Ann", " in progress ", TODAY.minusDays(1), null);
+        task("Ann", "Not Started", TODAY.minusDays(1), null);
+        task("Ann", "Blocked", null, null);
+        task("Bob", "In Review", TODAY.plusDays(1), null);
+        analyticsService.refresh(true);
+
+        assertThat(analyticsService.getPipeline())
+                .extracting(PipelineStageDto::getStatus, PipelineStageDto::getCount,
+                        stage -> stage.getTotalValue().intValue())
+                .containsExactly(tuple("lead", 2L, 300), tuple("won", 1L, 50));
+
+        // Padded and differently cased statuses land in the same groups as in TaskStatusGroup.of
+        assertThat(analyticsService.getWorkload())
+                .extracting(WorkloadDto::getAssignee, WorkloadDto::getTotal, WorkloadDto::getCompleted,
+                        WorkloadDto::getInProgress, WorkloadDto::getNotStarted, WorkloadDto::getOverdue)
+                .containsExactly(tuple("Ann", 5L, 2L, 1L, 1L, 2L), tuple("Bob", 1L, 0L, 1L, 0L, 0L));
+        assertThat(analyticsService.getOverdueTotal()).isEqualTo(2);
+
+        assertThat(analyticsService.getThroughput(4))
+                .extracting(ThroughputPointDto::getAssignee, ThroughputPointDto::getWeekStart,
+                        ThroughputPointDto::getCompleted)
+                .containsExactly(tuple("Ann", THIS_WEEK.minusWeeks(1), 1L), tuple("Ann", THIS_WEEK, 1L));
+    }
+
+    @Test
+    void refreshSkipsWhenNothingChangedAndRebuildsAfterDeletes() {
+        TaskDto proposal = taskService.createTask(TaskDto.builder()
+                .title("Proposal").status("Not Started").assignedTo("Ann").build());
+        assertThat(analyticsService.refresh(true)).isTrue();
+        assertThat(analyticsService.refresh(false)).isFalse();
+        assertThat(analyticsService.getThroughput(1)).isEmpty();
+
+        taskService.updateTask(proposal.getId(), TaskDto.builder().status(" done").build());
+        assertThat(analyticsService.refresh(false)).isTrue();
+        assertThat(analyticsService.getThroughput(1))
+                .extracting(ThroughputPointDto::getAssignee, ThroughputPointDto::getCompleted)
+                .containsExactly(tuple("Ann", 1L));
+        assertThat(analyticsService.getWorkload())
+                .extracting(WorkloadDto::getCompleted).containsExactly(1L);
+
+        // The latest lastUpdatedAt does not move on delete; the delete seq does
+        taskService.deleteTask(proposal.getId());
+        assertThat(analyticsService.refresh(false)).isTrue();
+        assertThat(analyticsService.getThroughput(1)).isEmpty();
+        assertThat(analyticsService.getWorkload()).isEmpty();
+    }
+
+    private void crmEntry(String company, String status, String dealValue) {
+        crmEntryRepository.save(CrmEntry.builder()
+                .company(company).status(status).dealValue(new BigDecimal(dealValue)).build());
+    }
+
+    private void task(String assignee, String status, LocalDate due, LocalDateTime completedAt) {
+        taskRepository.save(Task.builder()
+                .title(assignee + " " + status)
+                .assignedTo(assignee)
+                .status(status)
+                .dueDate(due)
+                .completedAt(completedAt)
+                .build());
+    }
+}
@@ -0,0 +1,171 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.CalendarItemDto;
+import com.incial.crm.dto.CollectionVersion;
+import com.incial.crm.entity.Meeting;
+import com.incial.crm.entity.Task;
+import com.incial.crm.entity.User;
+import com.incial.crm.repository.MeetingRepository;
+import com.incial.crm.repository.TaskRepository;
+import com.incial.crm.repository.UserRepository;
+import com.incial.crm.security.JwtPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Import({CalendarService.class, ChangeLogService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CalendarServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 3, 8);
+
+    @Autowired
+    private CalendarService calendarService;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User ann;
+    private User bob;
+
+    @BeforeEach
+    void createUsers() {
+        ann = userRepository.save(User.builder()
+                .name("Ann").email("ann@incial.test").passwordHash("x").role("ROLE_EMPLOYEE").build());
+        bob = userRepository.save(User.builder()
+                .name("Bob").email("bob@incial.test").passwordHash("x").role("ROLE_EMPLOYEE").build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        meetingRepository.deleteAllInBatch();
+        taskRepository.deleteAll();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void mergesMeetingsAndTasksInsideTheWindowByStart() {
+        meeting("Kickoff", LocalDateTime.of(2026, 3, 2, 9, 0), "Ann");
+        meeting("Review", LocalDateTime.of(2026, 3, 3, 14, 30), "bob@incial.test");
+        meeting("Last month", LocalDateTime.of(2026, 2, 28, 23, 59), "Ann");
+        meeting("Next week", TO.atStartOfDay(), "Ann");
+        task("Proposal", LocalDate.of(2026, 3, 2), ann);
+        task("Invoice", LocalDate.of(2026, 3, 7), bob);
+        task("Overdue", LocalDate.of(2026, 2, 20), ann);
+
+        List<CalendarItemDto> items = calendarService.getItems(FROM, TO, null);
+
+        assertThat(items).extracting(CalendarItemDto::getTitle)
+                .containsExactly("Proposal", "Kickoff", "Review", "Invoice");
+        assertThat(items.get(0).isAllDay()).isTrue();
+        assertThat(items.get(1).getType()).isEqualTo(CalendarItemDto.Type.MEETING);
+
+        assertThat(calendarService.getItems(FROM, TO, ann.getId())).extracting(CalendarItemDto::getTitle)
+                .containsExactly("Proposal", "Kickoff");
+        assertThat(calendarService.getItems(FROM, TO, bob.getId())).extracting(CalendarItemDto::getTitle)
+                .containsExactly("Review", "Invoice");
+    }
+
+    @Test
+    void sharedTasksShowForEveryAssignee() {
+        task("Workshop prep", LocalDate.of(2026, 3, 4), ann, bob);
+
+        assertThat(calendarService.getItems(FROM, TO, ann.getId())).extracting(CalendarItemDto::getTitle)
+                .containsExactly("Workshop prep");
+        assertThat(calendarService.getItems(FROM, TO, bob.getId())).extracting(CalendarItemDto::getTitle)
+                .containsExactly("Workshop prep");
+    }
+
+    @Test
+    void feedTokenServesTheOwnersItemsUntilReplacedOrRevoked() {
+        task("Mine", LocalDate.now().plusDays(1), ann);
+        task("Not mine", LocalDate.now().plusDays(1), bob);
+        JwtPrincipal principal = JwtPrincipal.builder()
+                .email(ann.getEmail()).role(ann.getRole()).userId(ann.getId()).build();
+
+        String first = calendarService.issueFeedToken(principal);
+        assertThat(calendarService.getFeed(first)).hasValueSatisfying(ics ->
+                assertThat(ics).contains("SUMMARY:Mine\r\n").doesNotContain("Not mine"));
+        assertThat(userRepository.findById(ann.getId()).orElseThrow().getCalendarFeedTokenHash())
+                .isNotEqualTo(first);
+
+        String second = calendarService.issueFeedToken(principal);
+        assertThat(calendarService.getFeed(first)).isEmpty();
+        assertThat(calendarService.getFeed(second)).isPresent();
+
+        calendarService.revokeFeedToken(principal);
+        assertThat(calendarService.getFeed(second)).isEmpty();
+    }
+
+    @Test
+    void versionMovesWhenAnItemLeavesTheWindow() {
+        Meeting kickoff = meeting("Kickoff", LocalDateTime.of(2026, 3, 2, 9, 0), "Ann");
+        task("Proposal", LocalDate.of(2026, 3, 2), ann);
+        CollectionVersion before = calendarService.getVersion(FROM, TO);
+
+        kickoff.setDateTime(LocalDateTime.of(2026, 4, 2, 9, 0));
+        meetingRepository.save(kickoff);
+
+        assertThat(calendarService.getVersion(FROM, TO)).isNotEqualTo(before);
+    }
+
+    @Test
+    void rejectsEmptyOrOversizedWindows() {
+        assertThatThrownBy(() -> calendarService.getItems(TO, FROM, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> calendarService.getItems(FROM, FROM.plusYears(2), null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void writesEscapedAndFoldedICalendar() {
+        meeting("Sync; budget, Q2", LocalDateTime.of(2026, 3, 2, 9, 0), "Ann");
+        task("A".repeat(100), LocalDate.of(2026, 3, 2), ann);
+
+        String ics = calendarService.toICalendar(calendarService.getItems(FROM, TO, null));
+
+        assertThat(ics).startsWith("BEGIN:VCALENDAR\r\n").endsWith("END:VCALENDAR\r\n");
+        assertThat(ics).contains("SUMMARY:Sync\\; budget\\, Q2\r\n");
+        assertThat(ics).contains("DTSTART;VALUE=DATE:20260302\r\n");
+        assertThat(ics).contains("DURATION:PT1H\r\n");
+        assertThat(ics).contains("\r\n " + "A".repeat(14));
+        assertThat(ics.split("\r\n")).allSatisfy(line -> assertThat(line.length()).isLessThanOrEqualTo(75));
+    }
+
+    private Meeting meeting(String title, LocalDateTime at, String assignee) {
+        return meetingRepository.save(Meeting.builder().title(title).dateTime(at).assignedTo(assignee).build());
+    }
+
+    private void task(String title, LocalDate due, User... assignees) {
+        taskRepository.save(Task.builder()
+                .title(title)
+                .status("Not Started")
+                .dueDate(due)
+                .assignedTo(assignees[0].getName())
+                .assigneeIds(Arrays.stream(assignees).map(User::getId).collect(Collectors.toCollection(HashSet::new)))
+                .build());
+    }
+}
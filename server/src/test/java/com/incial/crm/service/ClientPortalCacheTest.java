@@ -0,0 +1,133 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.CrmEntryDto;
+import com.incial.crm.dto.UserDto;
+import com.incial.crm.entity.CrmEntry;
+import com.incial.crm.entity.User;
+import com.incial.crm.repository.ChangeLogRepository;
+import com.incial.crm.repository.CrmEntryRepository;
+import com.incial.crm.repository.UserRepository;
+import com.incial.crm.security.JwtPrincipal;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({CrmService.class, UserService.class, ChangeLogService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ClientPortalCacheTest {
+
+    private static final String CLIENT = "client@acme.test";
+
+    @Autowired
+    private CrmService crmService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CrmEntryRepository crmEntryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long entryId;
+    private Long userId;
+    private JwtPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        entryId = crmEntryRepository.save(CrmEntry.builder().company("Acme").status("lead").build()).getId();
+        User client = userRepository.save(User.builder()
+                .name("Client")
+                .email(CLIENT)
+                .passwordHash("x")
+                .role("ROLE_CLIENT")
+                .clientCrmId(entryId)
+                .build());
+        userId = client.getId();
+        principal = JwtPrincipal.from(client);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+        crmEntryRepository.deleteAll();
+        changeLogRepository.deleteAll();
+        // Rows were removed behind the service's back
+        userService.evictUser(CLIENT);
+    }
+
+    @Test
+    void repeatedPortalReadsSkipTheDatabase() {
+        assertThat(crmService.getClientCrmDetails(principal).getCompany()).isEqualTo("Acme");
+
+        statistics.clear();
+        CrmEntryDto again = crmService.getClientCrmDetails(principal);
+
+        assertThat(again.getId()).isEqualTo(entryId);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void updatingAnEntryEvictsIt() {
+        crmService.getClientCrmDetails(principal);
+
+        crmService.updateEntry(entryId, CrmEntryDto.builder().status("won").build());
+
+        assertThat(crmService.getClientCrmDetails(principal).getStatus()).isEqualTo("won");
+    }
+
+    @Test
+    void callersCannotChangeWhatIsCached() {
+        CrmEntryDto entry = crmService.getCrmDetails(entryId);
+        entry.setStatus("won");
+        entry.getTags().add("vip");
+        UserDto user = userService.getUserByEmail(CLIENT);
+        user.setRole("ROLE_SUPER_ADMIN");
+
+        CrmEntryDto reread = crmService.getCrmDetails(entryId);
+        assertThat(reread.getStatus()).isEqualTo("lead");
+        assertThat(reread.getTags()).isEmpty();
+        assertThat(userService.getUserByEmail(CLIENT).getRole()).isEqualTo("ROLE_CLIENT");
+    }
+
+    @Test
+    void legacyTokensFallBackToTheUserLookup() {
+        JwtPrincipal legacy = JwtPrincipal.builder().email(CLIENT).role("ROLE_CLIENT").build();
+
+        assertThat(crmService.getClientCrmDetails(legacy).getId()).isEqualTo(entryId);
+    }
+
+    @Test
+    void changingARoleEvictsTheUserAndRevokesTokens() {
+        assertThat(userService.getUserByEmail(CLIENT).getRole()).isEqualTo("ROLE_CLIENT");
+        assertThat(userService.isTokenVersionCurrent(userId, principal.getTokenVersion())).isTrue();
+
+        userService.updateUserRole(UserDto.builder().role("ROLE_EMPLOYEE").build(), userId);
+
+        assertThat(userService.getUserByEmail(CLIENT).getRole()).isEqualTo("ROLE_EMPLOYEE");
+        assertThat(userService.isTokenVersionCurrent(userId, principal.getTokenVersion())).isFalse();
+    }
+}
@@ -0,0 +1,89 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.CrmEntryDto;
+import com.incial.crm.dto.CrmEntryFilter;
+import com.incial.crm.dto.CursorPage;
+import com.incial.crm.entity.CrmEntry;
+import com.incial.crm.repository.CrmEntryCursor;
+import com.incial.crm.repository.CrmEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Import({CrmService.class, UserService.class, ChangeLogService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CrmEntryPagingTest {
+
+    @Autowired
+    private CrmService crmService;
+
+    @Autowired
+    private CrmEntryRepository crmEntryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @AfterEach
+    void cleanUp() {
+        crmEntryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void lastUpdatedPagesWalkIntoRowsThatWereNeverUpdated() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(crmEntryRepository.save(CrmEntry.builder().company("Company " + i).status("lead").build()).getId());
+        }
+        // As left behind by the import MERGE or manual SQL
+        jdbc.update("UPDATE crm_entries SET last_updated_at = NULL WHERE id IN (?, ?, ?)",
+                ids.get(0), ids.get(2), ids.get(3));
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<CrmEntryDto> page = crmService.getEntriesPage(null, CrmEntryCursor.Sort.LAST_UPDATED, cursor, 2);
+            page.getItems().forEach(entry -> seen.add(entry.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Touched rows first, then the never-updated ones newest id first, each exactly once
+        assertThat(seen).hasSize(5).doesNotHaveDuplicates();
+        assertThat(seen.subList(2, 5)).containsExactly(ids.get(3), ids.get(2), ids.get(0));
+    }
+
+    @Test
+    void cursorsOnlyContinueTheFiltersTheyWereIssuedFor() {
+        for (int i = 0; i < 3; i++) {
+            crmEntryRepository.save(CrmEntry.builder()
+                    .company("Company " + i)
+                    .status("lead")
+                    .tags(List.of("vip", "retail"))
+                    .build());
+        }
+        CrmEntryFilter leads = CrmEntryFilter.builder().status("lead").tags(List.of("vip", "retail")).build();
+        String cursor = crmService.getEntriesPage(leads, CrmEntryCursor.Sort.ID, null, 1).getNextCursor();
+
+        CrmEntryFilter reordered = CrmEntryFilter.builder().status("lead").tags(List.of("retail", "vip")).build();
+        assertThat(crmService.getEntriesPage(reordered, CrmEntryCursor.Sort.ID, cursor, 1).getItems())
+                .hasSize(1);
+
+        CrmEntryFilter won = CrmEntryFilter.builder().status("won").tags(List.of("vip", "retail")).build();
+        assertThatThrownBy(() -> crmService.getEntriesPage(won, CrmEntryCursor.Sort.ID, cursor, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("different filters");
+        assertThatThrownBy(() -> crmService.getEntriesPage(null, CrmEntryCursor.Sort.ID, cursor, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
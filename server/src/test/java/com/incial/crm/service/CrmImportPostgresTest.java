@@ -0,0 +1,149 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.ImportJobDto;
+import com.incial.crm.entity.CrmEntry;
+import com.incial.crm.repository.ChangeLogRepository;
+import com.incial.crm.repository.CrmEntryRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the import against the real schema on an embedded Postgres, where chunks go
+ * through COPY into the staging table and one INSERT ... ON CONFLICT merge.
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=true", "spring.jpa.hibernate.ddl-auto=none",
+        "import.chunk-size=100"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({CrmImportService.class, ChangeLogService.class, CrmImportPostgresTest.EmbeddedPostgresConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CrmImportPostgresTest {
+
+    @TestConfiguration
+    static class EmbeddedPostgresConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres postgres) {
+            return postgres.getPostgresDatabase();
+        }
+    }
+
+    @Autowired
+    private CrmImportService importService;
+
+    @Autowired
+    private CrmEntryRepository crmEntryRepository;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @AfterEach
+    void cleanUp() {
+        crmEntryRepository.deleteAllInBatch();
+        changeLogRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void mergesOnReferenceIdAndCountsCollapsedDuplicatesOnce() throws Exception {
+        crmEntryRepository.save(CrmEntry.builder()
+                .company("Acme")
+                .phone("555-0100")
+                .tags(List.of("vip"))
+                .referenceId("R-1")
+                .build());
+
+        ImportJobDto job = importAndWait("""
+                referenceId,company,phone,status,tags
+                R-1,Acme Corp,,won,
+                R-2,Globex,555-0200,lead,
+                ,Initech,,lead,
+                R-2,Globex Holdings,,won,b2b
+                """);
+
+        assertThat(job.getStatus()).isEqualTo(ImportJobDto.Status.COMPLETED);
+        assertThat(job.getRowsRead()).isEqualTo(4);
+        // The two R-2 lines become one entry, so three rows were written, not four
+        assertThat(job.getRowsImported()).isEqualTo(3);
+        assertThat(job.getRowsFailed()).isZero();
+        assertThat(changeLogRepository.count()).isEqualTo(3);
+        assertThat(crmEntryRepository.count()).isEqualTo(3);
+
+        CrmEntry acme = crmEntryRepository.findByReferenceIdIn(List.of("R-1")).get(0);
+        assertThat(acme.getCompany()).isEqualTo("Acme Corp");
+        assertThat(acme.getStatus()).isEqualTo("won");
+        assertThat(acme.getPhone()).isEqualTo("555-0100");
+        assertThat(acme.getTags()).containsExactly("vip");
+
+        // The later line wins outright; its blank phone has no existing value to fall back to
+        CrmEntry globex = crmEntryRepository.findByReferenceIdIn(List.of("R-2")).get(0);
+        assertThat(globex.getCompany()).isEqualTo("Globex Holdings");
+        assertThat(globex.getStatus()).isEqualTo("won");
+        assertThat(globex.getPhone()).isNull();
+        assertThat(globex.getTags()).containsExactly("b2b");
+    }
+
+    @Test
+    void reservedIdsDoNotCollideWithJpaInsertsAcrossChunks() throws Exception {
+        StringBuilder csv = new StringBuilder("referenceId,company\n");
+        for (int i = 0; i < 250; i++) {
+            csv.append("REF-").append(i).append(",Company ").append(i).append('\n');
+        }
+        long before = jdbc.queryForObject("SELECT last_value FROM crm_entries_seq", Long.class);
+
+        ImportJobDto job = importAndWait(csv.toString());
+
+        assertThat(job.getRowsImported()).isEqualTo(250);
+        assertThat(crmEntryRepository.count()).isEqualTo(250);
+        // Chunks of 100, 100 and 50 take two, two and one nextval, each a block of ids
+        long after = jdbc.queryForObject("SELECT last_value FROM crm_entries_seq", Long.class);
+        assertThat(after - before).isEqualTo(5L * CrmEntry.ID_ALLOCATION_SIZE);
+
+        // Hibernate's pooled ids come from blocks of the same sequence, so the insert cannot collide
+        crmEntryRepository.save(CrmEntry.builder().company("Added later").build());
+        assertThat(crmEntryRepository.count()).isEqualTo(251);
+    }
+
+    private ImportJobDto importAndWait(String csv) throws InterruptedException {
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "leads.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+        String id = importService.startImport(file).getId();
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (System.nanoTime() < deadline) {
+            ImportJobDto job = importService.getJob(id).orElseThrow();
+            if (job.getStatus() == ImportJobDto.Status.COMPLETED || job.getStatus() == ImportJobDto.Status.FAILED) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Import did not finish");
+    }
+}
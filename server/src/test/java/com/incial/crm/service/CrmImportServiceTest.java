@@ -0,0 +1,150 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.CrmEntryDto;
+import com.incial.crm.dto.ImportJobDto;
+import com.incial.crm.dto.ImportRowError;
+import com.incial.crm.entity.CrmEntry;
+import com.incial.crm.repository.ChangeLogRepository;
+import com.incial.crm.repository.CrmEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "import.chunk-size=1000"})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({CrmImportService.class, ChangeLogService.class, CrmService.class, UserService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CrmImportServiceTest {
+
+    @Autowired
+    private CrmImportService importService;
+
+    @Autowired
+    private CrmService crmService;
+
+    @Autowired
+    private CrmEntryRepository crmEntryRepository;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @AfterEach
+    void cleanUp() {
+        crmEntryRepository.deleteAllInBatch();
+        changeLogRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void importsValidRowsAndReportsRowErrors() throws Exception {
+        ImportJobDto job = importAndWait("""
+                company,contactName,email,nextFollowUp,tags
+                Acme,Ann,ann@acme.test,2026-03-01,vip;b2b
+                ,Nobody,,,
+                "Globex, Inc.","Hank ""H"" Scorpio",,,
+                Initech,Bill,,next week,
+                """, Duration.ofSeconds(30));
+
+        assertThat(job.getStatus()).isEqualTo(ImportJobDto.Status.COMPLETED);
+        assertThat(job.getRowsRead()).isEqualTo(4);
+        assertThat(job.getRowsImported()).isEqualTo(2);
+        assertThat(job.getRowsFailed()).isEqualTo(2);
+        assertThat(job.getErrors()).extracting(ImportRowError::getLine).containsExactly(3L, 5L);
+        assertThat(changeLogRepository.count()).isEqualTo(2);
+
+        List<CrmEntry> entries = crmEntryRepository.findAll();
+        assertThat(entries).extracting(CrmEntry::getCompany).containsExactlyInAnyOrder("Acme", "Globex, Inc.");
+        CrmEntry acme = entries.stream().filter(e -> e.getCompany().equals("Acme")).findFirst().orElseThrow();
+        assertThat(acme.getTags()).containsExactly("vip", "b2b");
+        assertThat(acme.getNextFollowUp()).isEqualTo(LocalDate.of(2026, 3, 1));
+    }
+
+    @Test
+    void mergesOnReferenceIdKeepingValuesForBlankCells() throws Exception {
+        crmEntryRepository.save(CrmEntry.builder()
+                .company("Acme")
+                .phone("555-0100")
+                .status("lead")
+                .referenceId("R-1")
+                .build());
+
+        ImportJobDto job = importAndWait("""
+                referenceId,company,phone,status
+                R-1,Acme Corp,,won
+                R-2,Globex,555-0200,lead
+                """, Duration.ofSeconds(30));
+
+        assertThat(job.getRowsImported()).isEqualTo(2);
+        assertThat(crmEntryRepository.count()).isEqualTo(2);
+        CrmEntry merged = crmEntryRepository.findByReferenceIdIn(List.of("R-1")).get(0);
+        assertThat(merged.getCompany()).isEqualTo("Acme Corp");
+        assertThat(merged.getStatus()).isEqualTo("won");
+        assertThat(merged.getPhone()).isEqualTo("555-0100");
+    }
+
+    // Throughput on 100k rows against the per-row createEntry path it replaces, timed over
+    // 10k rows. JMH is not on the build path, so this compares rows per second of single
+    // runs; run with -Dbenchmarks=true
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void importsHundredThousandRows() throws Exception {
+        int single = 10_000;
+        long started = System.nanoTime();
+        for (int i = 0; i < single; i++) {
+            crmService.createEntry(CrmEntryDto.builder()
+                    .company("Single " + i).email("single" + i + "@example.test").status("lead").build());
+        }
+        double singleRate = single / ((System.nanoTime() - started) / 1e9);
+        crmEntryRepository.deleteAllInBatch();
+
+        int rows = 100_000;
+        StringBuilder csv = new StringBuilder("referenceId,company,email,status,dealValue,tags,notes\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("REF-").append(i).append(",Company ").append(i).append(",lead").append(i)
+                    .append("@example.test,lead,").append(i % 1000).append(".50,tag").append(i % 10)
+                    .append(",\"Imported, note ").append(i).append("\"\n");
+        }
+
+        started = System.nanoTime();
+        ImportJobDto job = importAndWait(csv.toString(), Duration.ofMinutes(5));
+        double importRate = rows / ((System.nanoTime() - started) / 1e9);
+
+        assertThat(job.getStatus()).isEqualTo(ImportJobDto.Status.COMPLETED);
+        assertThat(job.getRowsImported()).isEqualTo(rows);
+        assertThat(crmEntryRepository.count()).isEqualTo(rows);
+        log.info("Imported {} rows at {} rows/s; createEntry managed {} rows/s",
+                rows, Math.round(importRate), Math.round(singleRate));
+        assertThat(importRate).isGreaterThan(singleRate);
+    }
+
+    private ImportJobDto importAndWait(String csv, Duration timeout) throws InterruptedException {
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "leads.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+        String id = importService.startImport(file).getId();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            ImportJobDto job = importService.getJob(id).orElseThrow();
+            if (job.getStatus() == ImportJobDto.Status.COMPLETED || job.getStatus() == ImportJobDto.Status.FAILED) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Import did not finish within " + timeout);
+    }
+}
@@ -0,0 +1,162 @@
+package com.incial.crm.service;
+
+import com.incial.crm.entity.EmailOutbox;
+import com.incial.crm.mail.EmailTemplateRegistry;
+import com.incial.crm.mail.EmailTemplateType;
+import com.incial.crm.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.mail.username=security@incial.test",
+        "email.outbox.initial-delay-ms=3600000",
+        "email.outbox.max-attempts=2",
+        "email.outbox.initial-backoff-seconds=0"
+})
+@Import({EmailOutboxService.class, EmailService.class, EmailTemplateRegistry.class, EmailOutboxServiceTest.SmtpConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailOutboxServiceTest {
+
+    @TestConfiguration
+    static class SmtpConfig {
+
+        @Bean(destroyMethod = "close")
+        FakeSmtpServer fakeSmtpServer() throws IOException {
+            return new FakeSmtpServer();
+        }
+
+        @Bean
+        JavaMailSender javaMailSender(FakeSmtpServer server) {
+            JavaMailSenderImpl sender = new JavaMailSenderImpl();
+            sender.setHost("localhost");
+            sender.setPort(server.getPort());
+            return sender;
+        }
+    }
+
+    @Autowired
+    private EmailOutboxService outboxService;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private FakeSmtpServer smtp;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+        smtp.reset();
+    }
+
+    @Test
+    void committedMessageIsDeliveredOverSmtp() {
+        transactionTemplate.executeWithoutResult(tx ->
+                outboxService.enqueue("user@incial.test", EmailTemplateType.OTP, Map.of("otp", "482913")));
+
+        outboxService.drainDue();
+
+        assertThat(smtp.getMessages()).hasSize(1);
+        FakeSmtpServer.ReceivedMessage received = smtp.getMessages().get(0);
+        assertThat(received.recipients()).containsExactly("<user@incial.test>");
+        assertThat(received.data()).contains("Subject: Password Reset OTP").contains("482913");
+
+        EmailOutbox stored = outboxRepository.findAll().get(0);
+        assertThat(stored.getStatus()).isEqualTo(EmailOutbox.Status.SENT);
+        assertThat(stored.getSentAt()).isNotNull();
+        assertThat(stored.getPayload()).isNullOrEmpty();
+    }
+
+    @Test
+    void rolledBackTransactionSendsNothing() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            outboxService.enqueue("user@incial.test", EmailTemplateType.OTP, Map.of("otp", "111111"));
+            tx.setRollbackOnly();
+        });
+
+        outboxService.drainDue();
+
+        assertThat(smtp.getMessages()).isEmpty();
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    @Test
+    void failedDeliveryIsRetriedThenDeadLettered() {
+        smtp.failNext(2);
+        transactionTemplate.executeWithoutResult(tx ->
+                outboxService.enqueue("user@incial.test", EmailTemplateType.OTP, Map.of("otp", "222222")));
+
+        outboxService.drainDue();
+
+        EmailOutbox afterFirst = outboxRepository.findAll().get(0);
+        assertThat(afterFirst.getStatus()).isEqualTo(EmailOutbox.Status.PENDING);
+        assertThat(afterFirst.getAttempts()).isEqualTo(1);
+        assertThat(afterFirst.getLastError()).isNotBlank();
+
+        outboxService.drainDue();
+
+        EmailOutbox afterSecond = outboxRepository.findAll().get(0);
+        assertThat(afterSecond.getStatus()).isEqualTo(EmailOutbox.Status.DEAD);
+        assertThat(afterSecond.getAttempts()).isEqualTo(2);
+        assertThat(smtp.getMessages()).isEmpty();
+
+        // dead letters are not picked up again
+        outboxService.drainDue();
+        assertThat(outboxRepository.countByStatus(EmailOutbox.Status.DEAD)).isEqualTo(1);
+    }
+
+    @Test
+    void recoveredServerDeliversOnRetry() {
+        smtp.failNext(1);
+        transactionTemplate.executeWithoutResult(tx ->
+                outboxService.enqueue("user@incial.test", EmailTemplateType.OTP, Map.of("otp", "333333")));
+
+        outboxService.drainDue();
+        outboxService.drainDue();
+
+        List<FakeSmtpServer.ReceivedMessage> messages = smtp.getMessages();
+        assertThat(messages).hasSize(1);
+        assertThat(outboxRepository.findAll().get(0).getStatus()).isEqualTo(EmailOutbox.Status.SENT);
+    }
+
+    @Test
+    void scheduledDispatchDoesNotWaitForSmtp() throws Exception {
+        CountDownLatch smtpReply = smtp.holdReplies();
+        transactionTemplate.executeWithoutResult(tx ->
+                outboxService.enqueue("user@incial.test", EmailTemplateType.OTP, Map.of("otp", "444444")));
+
+        // Returns while the send is still waiting on the server; a second tick does not start another drain
+        outboxService.dispatchDue();
+        outboxService.dispatchDue();
+        assertThat(outboxRepository.findAll().get(0).getStatus()).isEqualTo(EmailOutbox.Status.PENDING);
+
+        smtpReply.countDown();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (outboxRepository.countByStatus(EmailOutbox.Status.SENT) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(outboxRepository.countByStatus(EmailOutbox.Status.SENT)).isEqualTo(1);
+        assertThat(smtp.getMessages()).hasSize(1);
+    }
+}
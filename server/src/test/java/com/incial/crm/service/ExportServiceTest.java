@@ -0,0 +1,126 @@
+package com.incial.crm.service;
+
+import com.incial.crm.entity.CrmEntry;
+import com.incial.crm.repository.CrmEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        // Without lazy execution H2 materialises the whole result before the first row is read
+        "spring.datasource.url=jdbc:h2:mem:export;LAZY_QUERY_EXECUTION=1;DB_CLOSE_DELAY=-1",
+        // Not replaced by the test database, so application.yml's Postgres driver and credentials would apply
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ExportService.class, CrmService.class, TaskService.class, UserService.class, ChangeLogService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExportServiceTest {
+
+    private static final int ROWS = 40_000;
+    private static final String NOTES = "x".repeat(1024);
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private CrmEntryRepository crmEntryRepository;
+
+    @AfterEach
+    void cleanUp() {
+        crmEntryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void csvExportQuotesAndEscapesFields() {
+        crmEntryRepository.save(entry("Acme, Inc.", "said \"hi\"\nthen left", List.of("vip", "b2b")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportCrmEntries(ExportService.Format.CSV, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv).startsWith("id,company,contactName,");
+        assertThat(csv).contains("\"Acme, Inc.\"", "\"said \"\"hi\"\"\nthen left\"", "vip;b2b");
+    }
+
+    @Test
+    void exportKeepsHeapFlatWhileStreamingManyRows() {
+        for (int start = 0; start < ROWS; start += 1_000) {
+            crmEntryRepository.saveAll(IntStream.range(start, start + 1_000)
+                    .mapToObj(i -> entry("Company " + i, NOTES, List.of("tag" + (i % 10))))
+                    .toList());
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        HeapSamplingStream out = new HeapSamplingStream(memory, usedHeapAfterGc(memory));
+        exportService.exportCrmEntries(ExportService.Format.NDJSON, out);
+
+        assertThat(out.lines).isEqualTo(ROWS);
+        // Materialising 40k rows with 1KB notes would need well over 40MB
+        assertThat(out.peakGrowth).isLessThan(20L * 1024 * 1024);
+    }
+
+    private static CrmEntry entry(String company, String notes, List<String> tags) {
+        return CrmEntry.builder()
+                .company(company)
+                .notes(notes)
+                .tags(new ArrayList<>(tags))
+                .lastUpdatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    // Discards output, counting lines and sampling heap growth every few thousand rows
+    private static final class HeapSamplingStream extends OutputStream {
+        private final MemoryMXBean memory;
+        private final long baseline;
+        private long lines;
+        private long peakGrowth;
+
+        HeapSamplingStream(MemoryMXBean memory, long baseline) {
+            this.memory = memory;
+            this.baseline = baseline;
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++lines % 5_000 == 0) {
+                peakGrowth = Math.max(peakGrowth, usedHeapAfterGc(memory) - baseline);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
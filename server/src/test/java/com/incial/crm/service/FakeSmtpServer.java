@@ -0,0 +1,131 @@
+package com.incial.crm.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-process SMTP server for tests. Accepts every command, records each
+ * DATA section, and can be told to reject the next N messages with a 554 or to
+ * hold its replies until released.
+ */
+class FakeSmtpServer implements AutoCloseable {
+
+    record ReceivedMessage(List<String> recipients, String data) {
+    }
+
+    private final ServerSocket serverSocket;
+    private final List<ReceivedMessage> messages = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresRemaining = new AtomicInteger();
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+    private final Thread acceptThread;
+
+    FakeSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        acceptThread = new Thread(this::acceptLoop, "fake-smtp");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    List<ReceivedMessage> getMessages() {
+        return messages;
+    }
+
+    void failNext(int count) {
+        failuresRemaining.set(count);
+    }
+
+    // DATA is not answered until the returned latch is counted down
+    CountDownLatch holdReplies() {
+        gate = new CountDownLatch(1);
+        return gate;
+    }
+
+    void reset() {
+        messages.clear();
+        failuresRemaining.set(0);
+        gate.countDown();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                handle(socket);
+            } catch (IOException e) {
+                // socket closed or client went away
+            }
+        }
+    }
+
+    private void handle(Socket socket) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII);
+        reply(out, "220 localhost fake smtp");
+
+        List<String> recipients = new CopyOnWriteArrayList<>();
+        String line;
+        while ((line = in.readLine()) != null) {
+            String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+            switch (command) {
+                case "EHLO", "HELO" -> reply(out, "250 localhost");
+                case "RCPT" -> {
+                    recipients.add(line.substring(line.indexOf(':') + 1).trim());
+                    reply(out, "250 OK");
+                }
+                case "DATA" -> {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder data = new StringBuilder();
+                    String dataLine;
+                    while ((dataLine = in.readLine()) != null && !dataLine.equals(".")) {
+                        data.append(dataLine).append('\n');
+                    }
+                    awaitGate();
+                    if (failuresRemaining.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                        reply(out, "554 Transaction failed");
+                    } else {
+                        messages.add(new ReceivedMessage(List.copyOf(recipients), data.toString()));
+                        reply(out, "250 OK");
+                    }
+                    recipients.clear();
+                }
+                case "QUIT" -> {
+                    reply(out, "221 Bye");
+                    return;
+                }
+                default -> reply(out, "250 OK");
+            }
+        }
+    }
+
+    private void awaitGate() {
+        try {
+            gate.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void reply(PrintWriter out, String response) {
+        out.print(response + "\r\n");
+        out.flush();
+    }
+}
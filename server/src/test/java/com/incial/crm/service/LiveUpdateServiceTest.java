@@ -0,0 +1,161 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.ChangeEventDto;
+import com.incial.crm.entity.ChangeLog;
+import com.incial.crm.exception.GlobalExceptionHandler;
+import com.incial.crm.repository.ChangeLogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "live.max-subscribers=2", "live.buffer-size=3",
+        "live.coalesce-ms=200"})
+@Import(LiveUpdateServiceTest.RecordingLiveUpdateService.class)
+// Subscribers live as long as the service; a fresh one per test keeps the cap test honest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LiveUpdateServiceTest {
+
+    @Autowired
+    private RecordingLiveUpdateService liveUpdateService;
+
+    @Test
+    void rapidEditsToOneRowCollapseIntoTheLatest() {
+        RecordingEmitter emitter = liveUpdateService.open();
+
+        liveUpdateService.onChange(event(1, 1));
+        liveUpdateService.onChange(event(1, 2));
+        liveUpdateService.onChange(event(2, 3));
+        liveUpdateService.onChange(event(1, 4));
+
+        awaitTrue(() -> emitter.ids("change").size() >= 2);
+        // One event per row, the latest change of each, ordered by when that change came in
+        assertThat(emitter.ids("change")).containsExactly("3", "4");
+        assertThat(emitter.names()).containsExactly("ready", "change", "change");
+    }
+
+    @Test
+    void fallingTooFarBehindSendsOneResyncInsteadOfTheBacklog() {
+        RecordingEmitter emitter = liveUpdateService.open();
+
+        for (long id = 1; id <= 5; id++) {
+            liveUpdateService.onChange(event(id, id));
+        }
+        awaitTrue(() -> emitter.names().contains("resync"));
+        assertThat(emitter.names()).containsExactly("ready", "resync");
+
+        // The connection stays open and carries on with changes after the overflow
+        liveUpdateService.onChange(event(9, 6));
+        awaitTrue(() -> emitter.names().size() == 3);
+        assertThat(emitter.ids("change")).containsExactly("6");
+    }
+
+    @Test
+    void connectionsBeyondTheCapAreRefusedWith503() {
+        liveUpdateService.open();
+        liveUpdateService.open();
+
+        ResponseStatusException refused = catchThrowableOfType(
+                () -> liveUpdateService.subscribe("third"), ResponseStatusException.class);
+
+        assertThat(refused.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        ResponseEntity<Map<String, String>> response =
+                new GlobalExceptionHandler().handleResponseStatusException(refused);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(liveUpdateService.getSubscriberCount()).isEqualTo(2);
+    }
+
+    private static ChangeEventDto event(long id, long seq) {
+        return ChangeEventDto.builder()
+                .type(ChangeLog.EntityType.TASK)
+                .id(id)
+                .operation(ChangeLog.Operation.UPSERT)
+                .seq(seq)
+                .build();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("timed out waiting for live events").isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    static class RecordingLiveUpdateService extends LiveUpdateService {
+
+        private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+
+        RecordingLiveUpdateService(ChangeLogRepository changeLogRepository, Environment environment) {
+            super(changeLogRepository, environment);
+        }
+
+        @Override
+        SseEmitter createEmitter() {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            return emitter;
+        }
+
+        RecordingEmitter open() {
+            subscribe("test");
+            return emitters.get(emitters.size() - 1);
+        }
+    }
+
+    /** Keeps the text of every event instead of writing it to a response. */
+    static class RecordingEmitter extends SseEmitter {
+
+        private static final Pattern NAME = Pattern.compile("^event:(\\S+)$", Pattern.MULTILINE);
+        private static final Pattern ID = Pattern.compile("^id:(\\S+)$", Pattern.MULTILINE);
+
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            sent.add(text.toString());
+        }
+
+        List<String> names() {
+            return sent.stream().map(text -> group(NAME, text)).toList();
+        }
+
+        List<String> ids(String name) {
+            return sent.stream()
+                    .filter(text -> name.equals(group(NAME, text)))
+                    .map(text -> group(ID, text))
+                    .toList();
+        }
+
+        private static String group(Pattern pattern, String text) {
+            Matcher matcher = pattern.matcher(text);
+            return matcher.find() ? matcher.group(1) : null;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.CrmEntryDto;
+import com.incial.crm.dto.CrmEntrySummaryDto;
+import com.incial.crm.dto.MeetingSummaryDto;
+import com.incial.crm.dto.TaskDto;
+import com.incial.crm.dto.TaskSummaryDto;
+import com.incial.crm.entity.CrmEntry;
+import com.incial.crm.entity.Meeting;
+import com.incial.crm.entity.Task;
+import com.incial.crm.repository.CrmEntryRepository;
+import com.incial.crm.repository.MeetingRepository;
+import com.incial.crm.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@Slf4j
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Import({CrmService.class, TaskService.class, MeetingService.class, UserService.class, ChangeLogService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SummaryProjectionTest {
+
+    @Autowired
+    private CrmService crmService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private MeetingService meetingService;
+
+    @Autowired
+    private CrmEntryRepository crmEntryRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @AfterEach
+    void cleanUp() {
+        crmEntryRepository.deleteAllInBatch();
+        taskRepository.deleteAll();
+        meetingRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void summariesCarryTheGridFieldsOfTheFullRecords() {
+        seed(3, "short notes");
+
+        List<CrmEntryDto> entries = crmService.getAllEntries().get("crmList");
+        assertThat(crmService.getEntrySummaries().get("crmList"))
+                .extracting(CrmEntrySummaryDto::getId, CrmEntrySummaryDto::getCompany, CrmEntrySummaryDto::getTags)
+                .containsExactlyInAnyOrderElementsOf(entries.stream()
+                        .map(e -> tuple(e.getId(), e.getCompany(), e.getTags()))
+                        .toList());
+
+        List<TaskDto> tasks = taskService.getAllTasks();
+        assertThat(taskService.getTaskSummaries())
+                .extracting(TaskSummaryDto::getId, TaskSummaryDto::getTitle, TaskSummaryDto::getStatus)
+                .containsExactlyInAnyOrderElementsOf(tasks.stream()
+                        .map(t -> tuple(t.getId(), t.getTitle(), t.getStatus()))
+                        .toList());
+
+        assertThat(meetingService.getMeetingSummaries()).extracting(MeetingSummaryDto::getTitle)
+                .containsExactly("Meeting 0", "Meeting 1", "Meeting 2");
+    }
+
+    // Full entities against constructor projections for the three grids, 20k rows each with
+    // wide text columns. JMH is not on the build path, so this averages wall-clock rounds
+    // after a warm-up; run with -Dbenchmarks=true
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void entitiesAgainstProjections() {
+        seed(20_000, "Long call notes. ".repeat(120));
+
+        compare("crm", () -> crmService.getAllEntries(), () -> crmService.getEntrySummaries());
+        compare("tasks", () -> taskService.getAllTasks(), () -> taskService.getTaskSummaries());
+        compare("meetings", () -> meetingService.getAllMeetings(), () -> meetingService.getMeetingSummaries());
+    }
+
+    private static void compare(String grid, Supplier<?> entities, Supplier<?> projections) {
+        for (int warmup = 0; warmup < 3; warmup++) {
+            entities.get();
+            projections.get();
+        }
+        int rounds = 10;
+        long started = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            entities.get();
+        }
+        double entityMillis = (System.nanoTime() - started) / 1e6 / rounds;
+        started = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            projections.get();
+        }
+        double projectionMillis = (System.nanoTime() - started) / 1e6 / rounds;
+        log.info("{}: entities {} ms, projection {} ms per load", grid,
+                String.format("%.1f", entityMillis), String.format("%.1f", projectionMillis));
+        assertThat(projectionMillis).as(grid + " projection ms per load").isLessThan(entityMillis);
+    }
+
+    private void seed(int rows, String notes) {
+        for (int start = 0; start < rows; start += 1_000) {
+            int end = Math.min(rows, start + 1_000);
+            crmEntryRepository.saveAll(IntStream.range(start, end)
+                    .mapToObj(i -> CrmEntry.builder()
+                            .company("Company " + i)
+                            .contactName("Person " + i)
+                            .address(i + " Long Street, Springfield")
+                            .status("lead")
+                            .tags(List.of("tag" + i % 10))
+                            .socials(Map.of("linkedin", "https://linkedin.test/" + i))
+                            .notes(notes)
+                            .build())
+                    .toList());
+            taskRepository.saveAll(IntStream.range(start, end)
+                    .mapToObj(i -> Task.builder()
+                            .title("Task " + i)
+                            .description(notes)
+                            .status("Not Started")
+                            .taskLink("https://drive.test/" + i)
+                            .build())
+                    .toList());
+            meetingRepository.saveAll(IntStream.range(start, end)
+                    .mapToObj(i -> Meeting.builder()
+                            .title("Meeting " + i)
+                            .dateTime(LocalDateTime.of(2026, 3, 2, 9, 0).plusHours(i))
+                            .meetingLink("https://meet.test/" + i)
+                            .notes(notes)
+                            .build())
+                    .toList());
+        }
+    }
+}
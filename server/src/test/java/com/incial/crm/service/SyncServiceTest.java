@@ -0,0 +1,236 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.MeetingDto;
+import com.incial.crm.dto.SyncResponse;
+import com.incial.crm.dto.TaskDto;
+import com.incial.crm.repository.ChangeLogRepository;
+import com.incial.crm.repository.MeetingRepository;
+import com.incial.crm.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "sync.settle-ms=1000"})
+@Import({SyncService.class, ChangeLogService.class, CrmService.class, TaskService.class,
+        MeetingService.class, UserService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SyncServiceTest {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private MeetingService meetingService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // The change log is kept: emptying it would put reset cursors (its max seq) behind the
+    // identity, and every test would then start from what looks like purged history
+    @AfterEach
+    void cleanUp() {
+        taskRepository.deleteAll();
+        meetingRepository.deleteAll();
+    }
+
+    @Test
+    void missingCursorAsksForFullReload() {
+        taskService.createTask(TaskDto.builder().title("Existing").build());
+
+        SyncResponse response = syncService.changesSince(null, null);
+
+        assertThat(response.isReset()).isTrue();
+        assertThat(response.getTasks()).isEmpty();
+        assertThat(syncService.changesSince(response.getCursor(), null).getTasks()).isEmpty();
+    }
+
+    @Test
+    void returnsOnlyChangesAfterCursorWithTombstones() {
+        TaskDto kept = taskService.createTask(TaskDto.builder().title("Kept").build());
+        TaskDto removed = taskService.createTask(TaskDto.builder().title("Removed").build());
+        String cursor = syncService.changesSince(null, null).getCursor();
+
+        taskService.updateTask(kept.getId(), TaskDto.builder().status("In Progress").build());
+        taskService.deleteTask(removed.getId());
+        MeetingDto meeting = meetingService.createMeeting(MeetingDto.builder()
+                .title("Kickoff")
+                .dateTime(LocalDateTime.now().plusDays(1))
+                .build());
+
+        SyncResponse delta = syncService.changesSince(cursor, null);
+
+        assertThat(delta.isReset()).isFalse();
+        assertThat(delta.getTasks()).extracting(TaskDto::getId).containsExactly(kept.getId());
+        assertThat(delta.getTasks().get(0).getStatus()).isEqualTo("In Progress");
+        assertThat(delta.getDeletedTaskIds()).containsExactly(removed.getId());
+        assertThat(delta.getMeetings()).extracting(MeetingDto::getId).containsExactly(meeting.getId());
+        assertThat(delta.getCrmEntries()).isEmpty();
+
+        SyncResponse next = syncService.changesSince(delta.getCursor(), null);
+        assertThat(next.getTasks()).isEmpty();
+        assertThat(next.getDeletedTaskIds()).isEmpty();
+        assertThat(next.getCursor()).isEqualTo(delta.getCursor());
+    }
+
+    @Test
+    void pagesThroughLongBacklogs() {
+        String cursor = syncService.changesSince(null, null).getCursor();
+        for (int i = 0; i < 5; i++) {
+            taskService.createTask(TaskDto.builder().title("Task " + i).build());
+        }
+
+        SyncResponse first = syncService.changesSince(cursor, 3);
+        SyncResponse second = syncService.changesSince(first.getCursor(), 3);
+
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(first.getTasks()).hasSize(3);
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(second.getTasks()).hasSize(2);
+    }
+
+    @Test
+    void waitsForALowerSeqThatCommitsAfterAHigherOne() throws Exception {
+        String cursor = cursorAfterACommittedChange();
+        CountDownLatch logged = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> slow = executor.submit(() -> inTransaction(logged, release, "Slow"));
+            assertThat(logged.await(5, TimeUnit.SECONDS)).isTrue();
+            taskService.createTask(TaskDto.builder().title("Fast").build());
+
+            SyncResponse held = syncService.changesSince(cursor, null);
+            assertThat(held.getTasks()).isEmpty();
+            assertThat(held.getCursor()).isEqualTo(cursor);
+
+            release.countDown();
+            slow.get(5, TimeUnit.SECONDS);
+            assertThat(syncService.changesSince(held.getCursor(), null).getTasks())
+                    .extracting(TaskDto::getTitle).containsExactlyInAnyOrder("Slow", "Fast");
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void changeOfATransactionOpenPastTheSettleWindowIsNotLost() throws Exception {
+        String cursor = cursorAfterACommittedChange();
+        CountDownLatch changed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> slow = executor.submit(() -> longTransaction(changed, release, "Slow"));
+            assertThat(changed.await(5, TimeUnit.SECONDS)).isTrue();
+            taskService.createTask(TaskDto.builder().title("Fast").build());
+            Thread.sleep(1_200);
+
+            SyncResponse delta = syncService.changesSince(cursor, null);
+            assertThat(delta.getTasks()).extracting(TaskDto::getTitle).containsExactly("Fast");
+
+            // The slow change takes its seq at commit, after the cursor it was outrun by
+            release.countDown();
+            slow.get(5, TimeUnit.SECONDS);
+            assertThat(syncService.changesSince(delta.getCursor(), null).getTasks())
+                    .extracting(TaskDto::getTitle).containsExactly("Slow");
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void gapInFrontOfTheOldestRowIsHeldWhileItCouldStillCommit() throws Exception {
+        String cursor = cursorAfterACommittedChange();
+        CountDownLatch logged = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> slow = executor.submit(() -> inTransaction(logged, release, "Slow"));
+            assertThat(logged.await(5, TimeUnit.SECONDS)).isTrue();
+            taskService.createTask(TaskDto.builder().title("Fast").build());
+            // As after a purge: the in-flight seq now sits in front of the oldest visible row
+            changeLogRepository.deleteAll(changeLogRepository.findAll().stream()
+                    .filter(row -> row.getSeq() <= Long.parseLong(cursor))
+                    .toList());
+
+            SyncResponse held = syncService.changesSince(cursor, null);
+            assertThat(held.isReset()).isFalse();
+            assertThat(held.getCursor()).isEqualTo(cursor);
+
+            release.countDown();
+            slow.get(5, TimeUnit.SECONDS);
+            assertThat(syncService.changesSince(cursor, null).getTasks())
+                    .extracting(TaskDto::getTitle).containsExactlyInAnyOrder("Slow", "Fast");
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    // A cursor with a committed row at it, so the seqs taken next follow the log's oldest row
+    private String cursorAfterACommittedChange() {
+        taskService.createTask(TaskDto.builder().title("Baseline").build());
+        return syncService.changesSince(null, null).getCursor();
+    }
+
+    // Logs a task change, then holds the commit until released: the seq is taken but not visible
+    private void inTransaction(CountDownLatch logged, CountDownLatch release, String title) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            taskService.createTask(TaskDto.builder().title(title).build());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    logged.countDown();
+                    await(release);
+                }
+            });
+        });
+    }
+
+    // Makes a task change, then keeps the transaction open until released
+    private void longTransaction(CountDownLatch changed, CountDownLatch release, String title) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            taskService.createTask(TaskDto.builder().title(title).build());
+            changed.countDown();
+            await(release);
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.TaskDto;
+import com.incial.crm.entity.User;
+import com.incial.crm.repository.TaskRepository;
+import com.incial.crm.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Import({TaskService.class, UserService.class, ChangeLogService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskAssigneesTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void usersRegisteredAfterTheirTasksSeeThemUnderMyTasks() {
+        Long byName = createTask("Kickoff", "Carol Diaz");
+        Long shared = createTask("Review", "Dan, carol@incial.test");
+        createTask("Someone else", "Carol Diaz-Smith");
+
+        User carol = userRepository.save(User.builder()
+                .name("Carol Diaz").email("carol@incial.test").passwordHash("x").role("ROLE_EMPLOYEE").build());
+        assertThat(taskService.getCurrentUserTasks(carol.getEmail())).isEmpty();
+
+        assertThat(taskService.linkAssignee(carol)).isEqualTo(2);
+        assertThat(taskService.getCurrentUserTasks(carol.getEmail()))
+                .extracting(TaskDto::getId)
+                .containsExactly(byName, shared);
+
+        // Linking again adds nothing
+        assertThat(taskService.linkAssignee(carol)).isZero();
+    }
+
+    private Long createTask(String title, String assignedTo) {
+        return taskService.createTask(TaskDto.builder().title(title).assignedTo(assignedTo).build()).getId();
+    }
+}
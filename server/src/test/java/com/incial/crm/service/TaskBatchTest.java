@@ -0,0 +1,151 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.BatchItemResult;
+import com.incial.crm.dto.BatchRequest;
+import com.incial.crm.dto.BatchResponse;
+import com.incial.crm.dto.TaskDto;
+import com.incial.crm.entity.User;
+import com.incial.crm.repository.ChangeLogRepository;
+import com.incial.crm.repository.TaskRepository;
+import com.incial.crm.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@Slf4j
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Import({TaskService.class, UserService.class, ChangeLogService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskBatchTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        taskRepository.deleteAll();
+        changeLogRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void appliesValidItemsAndReportsTheRest() {
+        User ann = userRepository.save(User.builder()
+                .name("Ann").email("ann@incial.test").passwordHash("x").role("ROLE_EMPLOYEE").build());
+        TaskDto existing = taskService.createTask(TaskDto.builder()
+                .title("Existing").status("Not Started").assignedTo("ann@incial.test").build());
+        TaskDto doomed = taskService.createTask(TaskDto.builder().title("Doomed").build());
+
+        BatchResponse<TaskDto> response = taskService.applyBatch(BatchRequest.<TaskDto>builder()
+                .create(List.of(TaskDto.builder().title("New").build(), TaskDto.builder().build()))
+                .update(List.of(TaskDto.builder().id(existing.getId()).status("Completed").build(),
+                        TaskDto.builder().id(-1L).status("Done").build()))
+                .delete(List.of(doomed.getId(), -2L))
+                .build());
+
+        assertThat(response.getSucceeded()).isEqualTo(3);
+        assertThat(response.getFailed()).isEqualTo(3);
+        assertThat(response.getResults())
+                .extracting(BatchItemResult::getOperation, BatchItemResult::getIndex, BatchItemResult::getStatus)
+                .containsExactly(
+                        tuple(BatchItemResult.Operation.CREATE, 0, BatchItemResult.Status.OK),
+                        tuple(BatchItemResult.Operation.CREATE, 1, BatchItemResult.Status.INVALID),
+                        tuple(BatchItemResult.Operation.UPDATE, 0, BatchItemResult.Status.OK),
+                        tuple(BatchItemResult.Operation.UPDATE, 1, BatchItemResult.Status.NOT_FOUND),
+                        tuple(BatchItemResult.Operation.DELETE, 0, BatchItemResult.Status.OK),
+                        tuple(BatchItemResult.Operation.DELETE, 1, BatchItemResult.Status.NOT_FOUND));
+
+        assertThat(taskRepository.findById(existing.getId()).orElseThrow().getCompletedAt()).isNotNull();
+        assertThat(userRepository.findById(ann.getId()).orElseThrow().getTasksCompleted()).isEqualTo(1);
+        assertThat(taskRepository.existsById(doomed.getId())).isFalse();
+        assertThat(taskRepository.count()).isEqualTo(2);
+        // Two single creates plus one create, one update and one delete from the batch
+        assertThat(changeLogRepository.count()).isEqualTo(5);
+    }
+
+    @Test
+    void onlyTasksMarkedCompletedCreditTheirEmailAssignee() {
+        User ann = userRepository.save(User.builder()
+                .name("Ann").email("ann@incial.test").passwordHash("x").role("ROLE_EMPLOYEE").build());
+        Long done = taskService.createTask(TaskDto.builder().title("Done").assignedTo("ann@incial.test").build()).getId();
+        Long byName = taskService.createTask(TaskDto.builder().title("By name").assignedTo("Ann").build()).getId();
+        Long completed = taskService.createTask(TaskDto.builder().title("Completed").assignedTo("ann@incial.test").build())
+                .getId();
+
+        taskService.applyBatch(BatchRequest.<TaskDto>builder()
+                .update(List.of(TaskDto.builder().id(done).status("Done").build(),
+                        TaskDto.builder().id(byName).status("Completed").build(),
+                        TaskDto.builder().id(completed).status("completed").build()))
+                .build());
+
+        // "Done" is stamped for analytics but does not count; neither does a name assignee
+        assertThat(taskRepository.findById(done).orElseThrow().getCompletedAt()).isNotNull();
+        assertThat(userRepository.findById(ann.getId()).orElseThrow().getTasksCompleted()).isEqualTo(1);
+
+        // Moving between completed-group statuses is not a new completion
+        taskService.updateTask(done, TaskDto.builder().status("Completed").build());
+        taskService.updateTask(completed, TaskDto.builder().status("Done").build());
+        assertThat(userRepository.findById(ann.getId()).orElseThrow().getTasksCompleted()).isEqualTo(2);
+    }
+
+    // 1,000 single updates against one batch of 1,000. JMH is not on the build path, so this
+    // times one pass of each after a warm-up pass of both; run with -Dbenchmarks=true
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void batchAgainstSingleCalls() {
+        int items = 1_000;
+        List<Long> ids = taskService.applyBatch(BatchRequest.<TaskDto>builder()
+                        .create(IntStream.range(0, items)
+                                .mapToObj(i -> TaskDto.builder().title("Task " + i).status("Not Started").build())
+                                .toList())
+                        .build())
+                .getResults().stream().map(BatchItemResult::getId).toList();
+        updateOneByOne(ids, "Not Started");
+        updateAsBatch(ids, "Not Started");
+
+        long started = System.nanoTime();
+        updateOneByOne(ids, "In Progress");
+        long single = (System.nanoTime() - started) / 1_000_000;
+
+        started = System.nanoTime();
+        BatchResponse<TaskDto> response = updateAsBatch(ids, "In Review");
+        long batch = (System.nanoTime() - started) / 1_000_000;
+
+        log.info("{} updates: {} ms as single calls, {} ms as one batch", items, single, batch);
+        assertThat(response.getSucceeded()).isEqualTo(items);
+        assertThat(batch).isLessThan(single);
+    }
+
+    private void updateOneByOne(List<Long> ids, String status) {
+        for (Long id : ids) {
+            taskService.updateTask(id, TaskDto.builder().status(status).build());
+        }
+    }
+
+    private BatchResponse<TaskDto> updateAsBatch(List<Long> ids, String status) {
+        return taskService.applyBatch(BatchRequest.<TaskDto>builder()
+                .update(ids.stream().map(id -> TaskDto.builder().id(id).status(status).build()).toList())
+                .build());
+    }
+}
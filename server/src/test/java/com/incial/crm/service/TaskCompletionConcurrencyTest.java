@@ -0,0 +1,126 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.TaskDto;
+import com.incial.crm.entity.User;
+import com.incial.crm.repository.TaskRepository;
+import com.incial.crm.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Completing many tasks for the same user at once must not lose counter updates.
+ */
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Import({TaskService.class, UserService.class, ChangeLogService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskCompletionConcurrencyTest {
+
+    private static final int TASKS = 24;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @AfterEach
+    void cleanUp() {
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void parallelCompletionsAreAllCounted() throws Exception {
+        User worker = userRepository.save(user("Worker One", "worker@incial.test"));
+
+        List<Long> taskIds = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            TaskDto created = taskService.createTask(TaskDto.builder()
+                    .title("Task " + i)
+                    .status("In Progress")
+                    .assignedTo("worker@incial.test")
+                    .build());
+            taskIds.add(created.getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<TaskDto>> results = new ArrayList<>();
+            for (Long id : taskIds) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return taskService.updateTask(id, TaskDto.builder().status("Completed").build());
+                }));
+            }
+            start.countDown();
+            for (Future<TaskDto> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS).getStatus()).isEqualTo("Completed");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(userRepository.findById(worker.getId()).orElseThrow().getTasksCompleted()).isEqualTo(TASKS);
+    }
+
+    @Test
+    void batchIncrementAppliesPerUserDeltas() {
+        User first = userRepository.save(user("First", "first@incial.test"));
+        User second = userRepository.save(user("Second", "second@incial.test"));
+        User third = userRepository.save(user("Third", "third@incial.test"));
+        User untouched = userRepository.save(user("Untouched", "untouched@incial.test"));
+        userService.getUserByEmail(first.getEmail());
+        userService.getUserByEmail(untouched.getEmail());
+        // Changed behind the service's back: only an eviction would show it
+        jdbc.update("UPDATE users SET tasks_completed = 7 WHERE id = ?", untouched.getId());
+
+        int updated = userService.incrementTasksCompleted(Map.of(
+                first.getEmail(), 3,
+                second.getEmail(), 1,
+                third.getEmail(), 1));
+
+        assertThat(updated).isEqualTo(3);
+        assertThat(userRepository.findById(first.getId()).orElseThrow().getTasksCompleted()).isEqualTo(3);
+        assertThat(userRepository.findById(second.getId()).orElseThrow().getTasksCompleted()).isEqualTo(1);
+        assertThat(userRepository.findById(third.getId()).orElseThrow().getTasksCompleted()).isEqualTo(1);
+        // Only the updated users are evicted
+        assertThat(userService.getUserByEmail(first.getEmail()).getTasksCompleted()).isEqualTo(3);
+        assertThat(userService.getUserByEmail(untouched.getEmail()).getTasksCompleted()).isZero();
+    }
+
+    private static User user(String name, String email) {
+        return User.builder()
+                .name(name)
+                .email(email)
+                .passwordHash("not-a-real-hash")
+                .role("ROLE_EMPLOYEE")
+                .build();
+    }
+}
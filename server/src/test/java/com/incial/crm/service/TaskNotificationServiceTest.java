@@ -0,0 +1,128 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.TaskDto;
+import com.incial.crm.entity.EmailOutbox;
+import com.incial.crm.entity.User;
+import com.incial.crm.mail.EmailTemplateRegistry;
+import com.incial.crm.mail.EmailTemplateType;
+import com.incial.crm.repository.EmailOutboxRepository;
+import com.incial.crm.repository.TaskRepository;
+import com.incial.crm.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.mail.username=workhub@incial.test",
+        "email.outbox.initial-delay-ms=3600000"
+})
+@Import({TaskService.class, UserService.class, ChangeLogService.class, TaskNotificationService.class,
+        EmailOutboxService.class, EmailService.class, EmailTemplateRegistry.class,
+        EmailOutboxServiceTest.SmtpConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskNotificationServiceTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private EmailOutboxService outboxService;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private FakeSmtpServer smtp;
+
+    @BeforeEach
+    void setUp() {
+        smtp.reset();
+        userRepository.save(user("Alice Doe", "alice@incial.test"));
+        userRepository.save(user("Bob Roe", "bob@incial.test"));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        outboxRepository.deleteAll();
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void newTaskEmailsItsAssigneeThroughTheOutbox() {
+        taskService.createTask(TaskDto.builder()
+                .title("Prepare Q3 deck")
+                .priority("High")
+                .dueDate(LocalDate.of(2026, 11, 2))
+                .assignedTo("Alice Doe")
+                .build());
+
+        List<EmailOutbox> queued = outboxRepository.findAll();
+        assertThat(queued).hasSize(1);
+        assertThat(queued.get(0).getTemplate()).isEqualTo(EmailTemplateType.TASK_ASSIGNED.name());
+        assertThat(queued.get(0).getRecipient()).isEqualTo("alice@incial.test");
+
+        outboxService.drainDue();
+
+        assertThat(smtp.getMessages()).hasSize(1);
+        assertThat(smtp.getMessages().get(0).data())
+                .contains("Subject: New task assigned to you")
+                .contains("Prepare Q3 deck")
+                .contains("Hi Alice Doe")
+                .contains("2026-11-02");
+    }
+
+    @Test
+    void reassignmentOnlyEmailsTheUsersItAdds() {
+        Long id = taskService.createTask(TaskDto.builder().title("Review contract").assignedTo("Alice Doe").build())
+                .getId();
+        outboxRepository.deleteAll();
+
+        taskService.updateTask(id, TaskDto.builder().assignedTo("Alice Doe, bob@incial.test").build());
+        taskService.updateTask(id, TaskDto.builder().status("In Progress").build());
+
+        assertThat(outboxRepository.findAll())
+                .extracting(EmailOutbox::getRecipient)
+                .containsExactly("bob@incial.test");
+    }
+
+    @Test
+    void rolledBackAssignmentQueuesNothing() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            taskService.createTask(TaskDto.builder().title("Never saved").assignedTo("Bob Roe").build());
+            tx.setRollbackOnly();
+        });
+
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    private static User user(String name, String email) {
+        return User.builder()
+                .name(name)
+                .email(email)
+                .passwordHash("not-a-real-hash")
+                .role("ROLE_EMPLOYEE")
+                .build();
+    }
+}